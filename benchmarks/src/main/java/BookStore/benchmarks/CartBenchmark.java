@@ -0,0 +1,58 @@
+package BookStore.benchmarks;
+
+import BookStore.models.Book;
+import BookStore.models.ShoppingCart;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Reading a cart's total, and filling a cart from empty and totalling it.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CartBenchmark {
+    @Param({"1", "10", "100"})
+    public int items;
+
+    private List<Book> books;
+    private ShoppingCart cart;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        books = DataFiles.books(items);
+        cart = new ShoppingCart();
+        for (Book book : books) {
+            cart.addBook(book);
+        }
+    }
+
+    @Benchmark
+    public long totalPrice() {
+        return cart.getTotalPriceCents();
+    }
+
+    @Benchmark
+    public long fillAndTotal() {
+        ShoppingCart fresh = new ShoppingCart();
+        for (Book book : books) {
+            fresh.addBook(book);
+        }
+        return fresh.getTotalPriceCents();
+    }
+}
@@ -0,0 +1,85 @@
+package BookStore.benchmarks;
+
+import BookStore.database.DatabaseManager;
+import BookStore.handlers.PaymentHandler;
+import BookStore.models.Book;
+import BookStore.models.ShoppingCart;
+import BookStore.utils.Money;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * A checkout of a three-book cart, from the customer change to the purchase ledger entry.
+ *
+ * Every benchmark thread pays as its own customer, so with -t N this measures N customers
+ * checking out side by side rather than contention on one record. Balances are large enough
+ * that no checkout is declined.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CheckoutBenchmark {
+    private static final int BOOKS = 1000;
+    private static final int CUSTOMERS = 1000;
+
+    @State(Scope.Benchmark)
+    public static class Store {
+        private final AtomicInteger nextCustomer = new AtomicInteger();
+        private Path dir;
+        private ShoppingCart cart;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            dir = DataFiles.generate(BOOKS, CUSTOMERS, Money.ofDollars(1_000_000_000));
+            DatabaseManager.initialize();
+            List<Book> books = new DatabaseManager().loadBooksPage(0, 3);
+            cart = new ShoppingCart();
+            for (Book book : books) {
+                cart.addBook(book);
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            DataFiles.delete(dir);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Shopper {
+        private final PaymentHandler paymentHandler = new PaymentHandler();
+        private String username;
+
+        @Setup(Level.Trial)
+        public void setUp(Store store) {
+            username = DataFiles.USERNAME_PREFIX + store.nextCustomer.getAndIncrement() % CUSTOMERS;
+        }
+    }
+
+    @Benchmark
+    public boolean payWithBalance(Store store, Shopper shopper) {
+        return shopper.paymentHandler.processPayment(shopper.username, store.cart, false);
+    }
+
+    @Benchmark
+    public boolean payWithPoints(Store store, Shopper shopper) {
+        return shopper.paymentHandler.processPayment(shopper.username, store.cart, true);
+    }
+}
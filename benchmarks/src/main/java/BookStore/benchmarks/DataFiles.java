@@ -0,0 +1,99 @@
+package BookStore.benchmarks;
+
+import BookStore.models.Book;
+import BookStore.utils.Money;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Generates the synthetic books and customers the benchmarks run against.
+ *
+ * Abstraction Function:
+ * - Book i is titled "Synthetic Book i"; customer i is "user-i" with password "password-i".
+ * - Prices, balances and points come from a Random with a fixed seed, so every run on every
+ *   machine benchmarks exactly the same data.
+ *
+ * Representation Invariant:
+ * - A generated directory holds Books.txt and Users.txt in the store's text formats and is the
+ *   bookstore.data.dir of the benchmark JVM until it is deleted.
+ */
+final class DataFiles {
+    static final String PASSWORD_PREFIX = "password-";
+    static final String USERNAME_PREFIX = "user-";
+
+    private static final long SEED = 20240601L;
+
+    private DataFiles() {
+    }
+
+    /**
+     * Writes a data directory and points the store at it.
+     *
+     * Requires: books ≥ 0, customers ≥ 0, balanceCents ≥ 0; the store has not been used yet in
+     *           this JVM.
+     * Modifies: the file system, the bookstore.data.dir system property
+     * Effects: Creates a new temporary directory with books books and customers customers, each
+     *          customer holding balanceCents, and returns it.
+     */
+    static Path generate(int books, int customers, long balanceCents) throws IOException {
+        Path dir = Files.createTempDirectory("bookstore-bench-");
+        Random random = new Random(SEED);
+        try (BufferedWriter out = Files.newBufferedWriter(dir.resolve("Books.txt"), StandardCharsets.UTF_8)) {
+            for (Book book : books(books, random)) {
+                out.write(book.getTitle() + "," + Money.format(book.getPriceCents()));
+                out.newLine();
+            }
+        }
+        try (BufferedWriter out = Files.newBufferedWriter(dir.resolve("Users.txt"), StandardCharsets.UTF_8)) {
+            for (int i = 0; i < customers; i++) {
+                out.write(USERNAME_PREFIX + i + "," + PASSWORD_PREFIX + i + "," + Money.format(balanceCents)
+                        + "," + random.nextInt(2000));
+                out.newLine();
+            }
+        }
+        System.setProperty("bookstore.data.dir", dir.toString());
+        return dir;
+    }
+
+    /**
+     * Returns the same books generate writes, without touching the disk.
+     *
+     * Requires: n ≥ 0
+     * Modifies: none
+     * Effects: Returns n books with titles "Synthetic Book 0" .. "Synthetic Book (n-1)".
+     */
+    static List<Book> books(int n) {
+        return books(n, new Random(SEED));
+    }
+
+    private static List<Book> books(int n, Random random) {
+        List<Book> books = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            books.add(new Book("Synthetic Book " + i, 100 + random.nextInt(10_000)));
+        }
+        return books;
+    }
+
+    /**
+     * Deletes a generated directory and everything the store wrote into it.
+     *
+     * Requires: dir was returned by generate.
+     * Modifies: the file system
+     * Effects: Removes dir; files that cannot be removed are left behind.
+     */
+    static void delete(Path dir) {
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        } catch (IOException e) {
+            System.out.println("Error deleting benchmark data: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package BookStore.benchmarks;
+
+import BookStore.database.DatabaseManager;
+import BookStore.models.Book;
+import BookStore.models.Customer;
+import BookStore.utils.Money;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Loading and saving the whole catalog and customer base.
+ *
+ * Each rows value runs in its own forked JVM: the store loads its data directory once per JVM.
+ * saveCustomers changes one customer per call, so it measures the cost of finding and logging
+ * that change among all rows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class PersistenceBenchmark {
+    @Param({"1000", "100000", "1000000"})
+    public int rows;
+
+    private Path dir;
+    private DatabaseManager dbManager;
+    private Map<String, Customer> customers;
+    private String[] usernames;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dir = DataFiles.generate(rows, rows, Money.ofDollars(500));
+        DatabaseManager.initialize();
+        dbManager = new DatabaseManager();
+        customers = dbManager.loadCustomers();
+        usernames = customers.keySet().toArray(new String[0]);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        DataFiles.delete(dir);
+    }
+
+    @Benchmark
+    public List<Book> loadBooks() {
+        return dbManager.loadBooks();
+    }
+
+    @Benchmark
+    public Map<String, Customer> loadCustomers() {
+        return dbManager.loadCustomers();
+    }
+
+    @Benchmark
+    public void saveCustomers() {
+        Customer customer = customers.get(usernames[next++ % usernames.length]);
+        customer.setBalanceCents(customer.getBalanceCents() + 1);
+        dbManager.saveCustomers(customers);
+    }
+}
@@ -0,0 +1,64 @@
+package BookStore.benchmarks;
+
+import BookStore.models.Book;
+import BookStore.utils.InputValidator;
+import BookStore.utils.PriceFormatter;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Title checks over a catalog list and price formatting, the per-row work of the owner screens.
+ *
+ * bookExistsHit looks up the middle book, so it scans half the list; bookExistsMiss looks up a
+ * title shaped like the others that is not in the list, so it scans all of it.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidationBenchmark {
+    @Param({"1000", "100000"})
+    public int books;
+
+    private List<Book> catalog;
+    private String middleTitle;
+    private String missingTitle;
+    private long priceCents;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        catalog = DataFiles.books(books);
+        middleTitle = catalog.get(books / 2).getTitle().toUpperCase();
+        missingTitle = "Synthetic Book " + books;
+        priceCents = catalog.get(books / 2).getPriceCents();
+    }
+
+    @Benchmark
+    public boolean bookExistsHit() {
+        return InputValidator.bookAlreadyExists(catalog, middleTitle);
+    }
+
+    @Benchmark
+    public boolean bookExistsMiss() {
+        return InputValidator.bookAlreadyExists(catalog, missingTitle);
+    }
+
+    @Benchmark
+    public String formatPrice() {
+        return PriceFormatter.formatPrice(priceCents);
+    }
+}
@@ -0,0 +1,452 @@
+package BookStore.api;
+
+import BookStore.database.DatabaseManager;
+import BookStore.handlers.LoginHandler;
+import BookStore.handlers.OwnerHandler;
+import BookStore.handlers.PaymentHandler;
+import BookStore.models.Book;
+import BookStore.models.Order;
+import BookStore.models.OrderResult;
+import BookStore.models.Purchase;
+import BookStore.models.ShoppingCart;
+import BookStore.utils.InputValidator;
+import BookStore.utils.Money;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Embedded HTTP API for the catalog, login, cart and checkout, without the JavaFX scenes.
+ *
+ * Abstraction Function:
+ * - Endpoints (form-encoded parameters in, JSON out):
+ *   GET    /books?offset=&limit=       a page of the catalog
+ *   GET    /books/search?q=&limit=     titles best matching q
+ *   POST   /books  title, price        add a book (owner)
+ *   DELETE /books?title=               remove a book (owner)
+ *   POST   /login  username, password  returns a session token and the role
+ *   POST   /logout                     ends the session
+ *   GET    /cart                       the session's cart
+ *   POST   /cart   title               add one copy of a book
+ *   DELETE /cart?title=                remove one copy of a book
+ *   POST   /checkout  usePoints        pay for the cart (customer); returns the balance and
+ *                                      points the payment left, and whether it was recorded
+ * - Requests after login send "Authorization: Bearer <token>". A session holds the user's role
+ *   and cart in memory; sessions idle for longer than SESSION_IDLE_MINUTES are dropped.
+ * - The logic is LoginHandler, OwnerHandler and PaymentHandler, as in the scenes.
+ * - Each request runs on its own virtual thread when the JDK has them (21+), so the number of
+ *   connections in flight is not capped by a pool size. Older JDKs get a growable pool of
+ *   platform threads instead.
+ *
+ * Representation Invariant:
+ * - A session's cart is only touched while holding the session's lock. It is a ReentrantLock,
+ *   not a monitor, because checkout holds it while paying, which waits on file locks and disk
+ *   forces; a monitor would pin the virtual thread to its carrier for that long.
+ * - Tokens are 128 random bits, so they cannot be guessed.
+ */
+public class ApiServer {
+    private static final int DEFAULT_PORT = 8080;
+    private static final int BACKLOG = 4096;
+    private static final int DEFAULT_PAGE = 100;
+    private static final int MAX_PAGE = 1000;
+    private static final long SESSION_IDLE_MINUTES = 30;
+
+    /**
+     * One logged-in user.
+     */
+    private static final class Session {
+        final String username;
+        final String role;
+        final ShoppingCart cart = new ShoppingCart();
+        final ReentrantLock lock = new ReentrantLock();
+        volatile long lastUsed = System.currentTimeMillis();
+
+        Session(String username, String role) {
+            this.username = username;
+            this.role = role;
+        }
+    }
+
+    /**
+     * An HTTP response: status code and JSON body.
+     */
+    private static final class Response {
+        final int status;
+        final String body;
+
+        Response(int status, String body) {
+            this.status = status;
+            this.body = body;
+        }
+    }
+
+    /**
+     * Handles one method of one endpoint.
+     */
+    private interface Endpoint {
+        Response handle(Map<String, String> params, Session session) throws IOException;
+    }
+
+    private final HttpServer server;
+    private final ExecutorService requests;
+    private final ScheduledExecutorService sweeper;
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private final SecureRandom random = new SecureRandom();
+    private final DatabaseManager dbManager = new DatabaseManager();
+    private final LoginHandler loginHandler = new LoginHandler();
+    private final OwnerHandler ownerHandler = new OwnerHandler();
+    private final PaymentHandler paymentHandler = new PaymentHandler();
+
+    /**
+     * Creates a server bound to a port, not yet accepting requests.
+     *
+     * Requires: 0 ≤ port ≤ 65535; 0 picks a free port.
+     * Modifies: this
+     * Effects: Loads the store if needed and binds the port. Throws IOException if it cannot bind.
+     */
+    public ApiServer(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(port), BACKLOG);
+        requests = requestExecutor();
+        server.setExecutor(requests);
+        sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "api-session-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        server.createContext("/books", route(Map.of("GET", this::listBooks, "POST", this::addBook,
+                "DELETE", this::removeBook), "/books"));
+        server.createContext("/books/search", route(Map.of("GET", this::searchBooks), "/books/search"));
+        server.createContext("/login", route(Map.of("POST", this::login), "/login"));
+        server.createContext("/logout", route(Map.of("POST", this::logout), "/logout"));
+        server.createContext("/cart", route(Map.of("GET", this::showCart, "POST", this::addToCart,
+                "DELETE", this::removeFromCart), "/cart"));
+        server.createContext("/checkout", route(Map.of("POST", this::checkout), "/checkout"));
+    }
+
+    /**
+     * Starts accepting requests.
+     *
+     * Requires: start has not been called.
+     * Modifies: this
+     * Effects: Serves requests on the port until stop is called, and drops idle sessions every minute.
+     */
+    public void start() {
+        long idleMillis = TimeUnit.MINUTES.toMillis(SESSION_IDLE_MINUTES);
+        sweeper.scheduleWithFixedDelay(() -> {
+            long cutoff = System.currentTimeMillis() - idleMillis;
+            sessions.values().removeIf(session -> session.lastUsed < cutoff);
+        }, 1, 1, TimeUnit.MINUTES);
+        server.start();
+    }
+
+    /**
+     * Stops the server.
+     *
+     * Requires: none
+     * Modifies: this
+     * Effects: Stops accepting requests, gives running ones up to a second to finish, and shuts
+     *          the request threads down.
+     */
+    public void stop() {
+        server.stop(1);
+        requests.shutdown();
+        sweeper.shutdownNow();
+    }
+
+    /**
+     * Returns the port the server is bound to.
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Starts the API on the port given as the first argument, or 8080.
+     *
+     * Requires: args[0], if given, is a port number.
+     * Modifies: none
+     * Effects: Runs the server until the program is stopped.
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        DatabaseManager.initialize();
+        ApiServer api = new ApiServer(port);
+        api.start();
+        System.out.println("Bookstore API listening on port " + api.getPort());
+    }
+
+    /**
+     * Returns an executor that gives every request its own virtual thread, or a growable pool of
+     * platform threads where the JDK has no virtual threads.
+     */
+    static ExecutorService requestExecutor() {
+        try {
+            // Looked up by name so the code also compiles and runs on JDKs without virtual threads
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            AtomicInteger next = new AtomicInteger();
+            return Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "api-" + next.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    private Response listBooks(Map<String, String> params, Session session) {
+        long offset = Math.max(0, parseLong(params.get("offset"), 0));
+        return ok(Json.books(dbManager.loadBooksPage(offset, pageSize(params))));
+    }
+
+    private Response searchBooks(Map<String, String> params, Session session) {
+        String query = params.getOrDefault("q", "");
+        return ok(Json.books(dbManager.searchBooks(query, pageSize(params))));
+    }
+
+    private Response addBook(Map<String, String> params, Session session) {
+        Response denied = requireRole(session, "owner");
+        if (denied != null) {
+            return denied;
+        }
+        String price = params.getOrDefault("price", "");
+        if (!InputValidator.isNumeric(price)) {
+            return new Response(400, Json.error("Please enter a valid number for the price."));
+        }
+        return message(ownerHandler.addBook(params.getOrDefault("title", ""), Money.parse(price)), 201);
+    }
+
+    private Response removeBook(Map<String, String> params, Session session) {
+        Response denied = requireRole(session, "owner");
+        if (denied != null) {
+            return denied;
+        }
+        return message(ownerHandler.removeBook(params.getOrDefault("title", "")), 200);
+    }
+
+    private Response login(Map<String, String> params, Session session) {
+        String username = params.getOrDefault("username", "");
+        String role = loginHandler.validateUser(username, params.getOrDefault("password", ""));
+        if (role.equals("invalid")) {
+            return new Response(401, Json.error("Invalid credentials"));
+        }
+        byte[] bytes = new byte[16];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        sessions.put(token, new Session(username, role));
+        return ok("{\"token\":" + Json.string(token) + ",\"role\":" + Json.string(role) + "}");
+    }
+
+    private Response logout(Map<String, String> params, Session session) {
+        Response denied = requireRole(session, null);
+        if (denied != null) {
+            return denied;
+        }
+        sessions.values().remove(session);
+        return ok("{}");
+    }
+
+    private Response showCart(Map<String, String> params, Session session) {
+        Response denied = requireRole(session, null);
+        if (denied != null) {
+            return denied;
+        }
+        session.lock.lock();
+        try {
+            return ok(Json.cart(session.cart));
+        } finally {
+            session.lock.unlock();
+        }
+    }
+
+    private Response addToCart(Map<String, String> params, Session session) {
+        Response denied = requireRole(session, null);
+        if (denied != null) {
+            return denied;
+        }
+        Book book = dbManager.findBook(params.getOrDefault("title", ""));
+        if (book == null) {
+            return new Response(404, Json.error("Book does not exist"));
+        }
+        session.lock.lock();
+        try {
+            session.cart.addBook(book);
+            return ok(Json.cart(session.cart));
+        } finally {
+            session.lock.unlock();
+        }
+    }
+
+    private Response removeFromCart(Map<String, String> params, Session session) {
+        Response denied = requireRole(session, null);
+        if (denied != null) {
+            return denied;
+        }
+        session.lock.lock();
+        try {
+            // The cart matches books by title, so the price does not matter here
+            if (session.cart.removeBook(new Book(params.getOrDefault("title", ""), 0)) < 0) {
+                return new Response(404, Json.error("Book is not in the cart"));
+            }
+            return ok(Json.cart(session.cart));
+        } finally {
+            session.lock.unlock();
+        }
+    }
+
+    private Response checkout(Map<String, String> params, Session session) {
+        Response denied = requireRole(session, "customer");
+        if (denied != null) {
+            return denied;
+        }
+        boolean usePoints = Boolean.parseBoolean(params.get("usePoints"));
+        OrderResult result;
+        session.lock.lock(); // One checkout per session at a time, and the cart cannot change meanwhile
+        try {
+            if (session.cart.getItemCount() == 0) {
+                return new Response(400, Json.error("Your cart is empty. Please add books before checkout"));
+            }
+            result = paymentHandler.processOrder(new Order(session.username, session.cart, usePoints));
+            if (result.getStatus() == OrderResult.Status.UNKNOWN_CUSTOMER) {
+                return new Response(404, "{\"paid\":false,\"error\":" + Json.string("Account no longer exists.") + "}");
+            }
+            if (!result.isPaid()) {
+                return new Response(402, "{\"paid\":false,\"error\":" + Json.string("Insufficient funds.") + "}");
+            }
+            session.cart.clearCart();
+        } finally {
+            session.lock.unlock();
+        }
+        // The state the payment committed, not a fresh read that may race with other changes
+        Purchase purchase = result.getPurchase();
+        String order = result.isRecorded() ? ",\"orderId\":" + purchase.getOrderId() : "";
+        return ok("{\"paid\":true,\"recorded\":" + result.isRecorded() + order
+                + ",\"balance\":" + Json.string(Money.format(purchase.getBalanceAfterCents()))
+                + ",\"balanceCents\":" + purchase.getBalanceAfterCents() + ",\"points\":" + purchase.getPointsAfter() + "}");
+    }
+
+    /**
+     * Returns a 401 or 403 response if session is missing or, when role is not null, has another role.
+     */
+    private static Response requireRole(Session session, String role) {
+        if (session == null) {
+            return new Response(401, Json.error("Log in first"));
+        }
+        if (role != null && !role.equals(session.role)) {
+            return new Response(403, Json.error("This needs the " + role + " role"));
+        }
+        return null;
+    }
+
+    /**
+     * Turns a handler's message into a response: successes use status, anything else is a 400.
+     */
+    private static Response message(String result, int status) {
+        boolean success = result.contains("successfully");
+        return new Response(success ? status : 400, success ? "{\"message\":" + Json.string(result) + "}" : Json.error(result));
+    }
+
+    private static Response ok(String body) {
+        return new Response(200, body);
+    }
+
+    private static int pageSize(Map<String, String> params) {
+        return (int) Math.max(0, Math.min(MAX_PAGE, parseLong(params.get("limit"), DEFAULT_PAGE)));
+    }
+
+    private static long parseLong(String text, long defaultValue) {
+        try {
+            return text == null ? defaultValue : Long.parseLong(text.trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Wraps an endpoint's methods into a handler that parses the request, finds the session and
+     * writes the response. Only the exact path is served.
+     */
+    private HttpHandler route(Map<String, Endpoint> byMethod, String path) {
+        return exchange -> {
+            Response response;
+            try {
+                Endpoint endpoint = byMethod.get(exchange.getRequestMethod());
+                if (!exchange.getRequestURI().getPath().equals(path)) {
+                    response = new Response(404, Json.error("Not found"));
+                } else if (endpoint == null) {
+                    response = new Response(405, Json.error("Method not allowed"));
+                } else {
+                    response = endpoint.handle(params(exchange), session(exchange));
+                }
+            } catch (IllegalArgumentException e) {
+                response = new Response(400, Json.error("Malformed request: " + e.getMessage()));
+            } catch (IOException | RuntimeException e) {
+                System.out.println("Error handling API request: " + e.getMessage());
+                response = new Response(500, Json.error("Internal error"));
+            }
+            send(exchange, response);
+        };
+    }
+
+    private Session session(HttpExchange exchange) {
+        String header = exchange.getRequestHeaders().getFirst("Authorization");
+        if (header == null || !header.startsWith("Bearer ")) {
+            return null;
+        }
+        Session session = sessions.get(header.substring("Bearer ".length()).trim());
+        if (session != null) {
+            session.lastUsed = System.currentTimeMillis();
+        }
+        return session;
+    }
+
+    /**
+     * Returns the query parameters merged with the form-encoded body; the body wins on conflicts.
+     */
+    private static Map<String, String> params(HttpExchange exchange) throws IOException {
+        Map<String, String> params = new HashMap<>();
+        parseForm(exchange.getRequestURI().getRawQuery(), params);
+        try (InputStream body = exchange.getRequestBody()) {
+            parseForm(new String(body.readAllBytes(), StandardCharsets.UTF_8), params);
+        }
+        return params;
+    }
+
+    private static void parseForm(String form, Map<String, String> into) {
+        if (form == null || form.isEmpty()) {
+            return;
+        }
+        for (String pair : form.split("&")) {
+            int equals = pair.indexOf('=');
+            String name = equals < 0 ? pair : pair.substring(0, equals);
+            String value = equals < 0 ? "" : pair.substring(equals + 1);
+            into.put(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+    }
+
+    private static void send(HttpExchange exchange, Response response) throws IOException {
+        byte[] body = response.body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(response.status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
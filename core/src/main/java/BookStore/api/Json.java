@@ -0,0 +1,99 @@
+package BookStore.api;
+
+import BookStore.models.Book;
+import BookStore.models.CartItem;
+import BookStore.models.ShoppingCart;
+import BookStore.utils.Money;
+import java.util.List;
+
+/**
+ * Writes the JSON bodies of the HTTP API.
+ *
+ * Abstraction Function:
+ * - Each method returns one JSON value as a string. Money is written twice: as exact cents
+ *   (priceCents, totalCents, ...) and as a decimal string for display ("19.99").
+ *
+ * Representation Invariant:
+ * - Every string value is escaped, so the output is always valid JSON.
+ */
+final class Json {
+    private Json() {
+    }
+
+    /**
+     * Returns s as a quoted JSON string.
+     */
+    static String string(String s) {
+        StringBuilder out = new StringBuilder(s.length() + 2).append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"':
+                    out.append("\\\"");
+                    break;
+                case '\\':
+                    out.append("\\\\");
+                    break;
+                case '\n':
+                    out.append("\\n");
+                    break;
+                case '\r':
+                    out.append("\\r");
+                    break;
+                case '\t':
+                    out.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+            }
+        }
+        return out.append('"').toString();
+    }
+
+    /**
+     * Returns {"error": message}.
+     */
+    static String error(String message) {
+        return "{\"error\":" + string(message) + "}";
+    }
+
+    /**
+     * Returns a book as {"title", "price", "priceCents"}.
+     */
+    static String book(Book book) {
+        return "{\"title\":" + string(book.getTitle()) + ",\"price\":" + string(Money.format(book.getPriceCents()))
+                + ",\"priceCents\":" + book.getPriceCents() + "}";
+    }
+
+    /**
+     * Returns a list of books as a JSON array.
+     */
+    static String books(List<Book> books) {
+        StringBuilder out = new StringBuilder("[");
+        for (int i = 0; i < books.size(); i++) {
+            out.append(i == 0 ? "" : ",").append(book(books.get(i)));
+        }
+        return out.append(']').toString();
+    }
+
+    /**
+     * Returns a cart as {"items": [{"title", "quantity", "lineTotalCents"}...], "itemCount", "total", "totalCents"}.
+     */
+    static String cart(ShoppingCart cart) {
+        StringBuilder out = new StringBuilder("{\"items\":[");
+        String separator = "";
+        for (CartItem item : cart.getItems()) {
+            out.append(separator).append("{\"title\":").append(string(item.getTitle()))
+                    .append(",\"quantity\":").append(item.getQuantity())
+                    .append(",\"lineTotalCents\":").append(item.getLineTotalCents()).append('}');
+            separator = ",";
+        }
+        return out.append("],\"itemCount\":").append(cart.getItemCount())
+                .append(",\"total\":").append(string(Money.format(cart.getTotalPriceCents())))
+                .append(",\"totalCents\":").append(cart.getTotalPriceCents()).append('}').toString();
+    }
+}
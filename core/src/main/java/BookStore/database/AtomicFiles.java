@@ -0,0 +1,70 @@
+package BookStore.database;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Replaces files so that readers and crashes only ever see the old or the new contents.
+ *
+ * Abstraction Function:
+ * - A file is replaced by writing a sibling temporary file, flushing it to the disk and
+ *   renaming it over the original in one atomic step.
+ *
+ * Representation Invariant:
+ * - The live file is never opened for writing, so it is never truncated or half-written.
+ * - At most one write per target may run at a time; callers are responsible for that.
+ */
+final class AtomicFiles {
+    private AtomicFiles() {
+    }
+
+    /**
+     * Produces the new contents of a file.
+     */
+    interface Content {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    /**
+     * Atomically replaces a file.
+     *
+     * Requires: target and content are not null.
+     * Modifies: target file
+     * Effects: Writes content to target.tmp, forces it to the disk and renames it over target.
+     *          If anything fails, target is left unchanged and IOException is thrown.
+     */
+    static void write(Path target, Content content) throws IOException {
+        Path tempFile = target.resolveSibling(target.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel));
+            content.writeTo(out);
+            out.flush();
+            channel.force(true);
+            IoMetrics.BYTES_WRITTEN.add(channel.size());
+        }
+        Files.move(tempFile, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        forceDirectory(target.toAbsolutePath().getParent());
+    }
+
+    /**
+     * Makes the rename itself durable where the platform allows opening a directory.
+     */
+    private static void forceDirectory(Path directory) {
+        if (directory == null) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Not supported on every platform (e.g. Windows); the rename is still atomic
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package BookStore.database;
+
+import BookStore.models.Book;
+import BookStore.utils.InputValidator;
+import java.util.*;
+
+/**
+ * The resident book list, indexed by normalized title.
+ *
+ * Abstraction Function:
+ * - An ordered list of books. Each book gets a sequence number when it is added; entries maps
+ *   sequence numbers to books in insertion order, and byTitle maps a title key
+ *   (InputValidator.titleKey) to the sequence numbers of the books with that title.
+ * - Checking, finding and removing a title are hash lookups instead of scans of the list.
+ * - searchIndex, once built by the first search, is kept up to date by every later change.
+ * - snapshot, once built, is the books in catalog order as an unmodifiable list, so a page of
+ *   the catalog is a subList of it. Every change drops it; the next toList() rebuilds it.
+ *
+ * Representation Invariant:
+ * - Every sequence number in byTitle is a key of entries, under the key of that book's title,
+ *   and every entry appears in byTitle exactly once.
+ * - byTitle never maps a key to an empty list.
+ * - searchIndex is null or indexes exactly the books in entries.
+ * - snapshot is null or holds exactly the books in entries, in order.
+ * - Not thread-safe; DataStore guards it with booksLock.
+ */
+final class BookCatalog implements Iterable<Book> {
+    private final LinkedHashMap<Long, Book> entries = new LinkedHashMap<>();
+    private final HashMap<String, List<Long>> byTitle = new HashMap<>();
+    private long nextSequence;
+    private TitleSearchIndex searchIndex;
+    private volatile List<Book> snapshot; // Rebuilt under the read lock, so any reader may set it
+
+    /**
+     * Adds a book to the end of the catalog.
+     *
+     * Requires: book is not null.
+     * Modifies: this
+     * Effects: Appends book and indexes its title.
+     */
+    void add(Book book) {
+        long sequence = nextSequence++;
+        entries.put(sequence, book);
+        snapshot = null;
+        byTitle.computeIfAbsent(InputValidator.titleKey(book.getTitle()), key -> new ArrayList<>(1)).add(sequence);
+        if (searchIndex != null) {
+            searchIndex.add(sequence, book.getTitle());
+        }
+    }
+
+    /**
+     * Checks whether a title is in the catalog.
+     *
+     * Requires: title is not null.
+     * Modifies: none
+     * Effects: Returns true if some book's title equals title, ignoring case.
+     */
+    boolean contains(String title) {
+        return byTitle.containsKey(InputValidator.titleKey(title));
+    }
+
+    /**
+     * Finds the first book with a title.
+     *
+     * Requires: title is not null.
+     * Modifies: none
+     * Effects: Returns the earliest book whose title equals title ignoring case, or null.
+     */
+    Book find(String title) {
+        List<Long> sequences = byTitle.get(InputValidator.titleKey(title));
+        return sequences == null ? null : entries.get(sequences.get(0));
+    }
+
+    /**
+     * Removes every book with a title.
+     *
+     * Requires: title is not null.
+     * Modifies: this
+     * Effects: Deletes the books whose title equals title ignoring case and returns them,
+     *          or an empty list if there were none.
+     */
+    List<Book> remove(String title) {
+        List<Long> sequences = byTitle.remove(InputValidator.titleKey(title));
+        if (sequences == null) {
+            return Collections.emptyList();
+        }
+        snapshot = null;
+        List<Book> removed = new ArrayList<>(sequences.size());
+        for (Long sequence : sequences) {
+            Book book = entries.remove(sequence);
+            removed.add(book);
+            if (searchIndex != null) {
+                searchIndex.remove(sequence, book.getTitle());
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Changes the price of every book with a title.
+     *
+     * Requires: title is not null.
+     * Modifies: this
+     * Effects: Replaces each book whose title equals title ignoring case with a copy at the new
+     *          price in cents, keeping its place in the catalog. Returns true if any book matched.
+     */
+    boolean reprice(String title, long priceCents) {
+        List<Long> sequences = byTitle.get(InputValidator.titleKey(title));
+        if (sequences == null) {
+            return false;
+        }
+        for (Long sequence : sequences) {
+            entries.put(sequence, new Book(entries.get(sequence).getTitle(), priceCents));
+        }
+        snapshot = null;
+        return true;
+    }
+
+    /**
+     * Removes every book.
+     *
+     * Requires: none
+     * Modifies: this
+     * Effects: Empties the catalog and its index.
+     */
+    void clear() {
+        entries.clear();
+        byTitle.clear();
+        searchIndex = null;
+        snapshot = null;
+    }
+
+    /**
+     * Searches the titles.
+     *
+     * Requires: query is not null, limit ≥ 0, and hasSearchIndex() is true.
+     * Modifies: none
+     * Effects: Returns at most limit books, best match first (see TitleSearchIndex).
+     */
+    List<Book> search(String query, int limit) {
+        List<Book> results = new ArrayList<>();
+        for (Long sequence : searchIndex.search(query, limit, sequence -> entries.get(sequence).getTitle())) {
+            results.add(entries.get(sequence));
+        }
+        return results;
+    }
+
+    boolean hasSearchIndex() {
+        return searchIndex != null;
+    }
+
+    /**
+     * Builds the search index if it does not exist yet. Deferred until the first search,
+     * so loading the catalog does not pay for it.
+     *
+     * Requires: none
+     * Modifies: this
+     * Effects: Indexes every book for search.
+     */
+    void buildSearchIndex() {
+        if (searchIndex == null) {
+            TitleSearchIndex index = new TitleSearchIndex();
+            for (Map.Entry<Long, Book> entry : entries.entrySet()) {
+                index.add(entry.getKey(), entry.getValue().getTitle());
+            }
+            searchIndex = index;
+        }
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * Returns the books in catalog order as an unmodifiable list; the books themselves are shared.
+     * The list is only rebuilt after a change, so repeated calls between changes cost nothing.
+     */
+    List<Book> toList() {
+        List<Book> books = snapshot;
+        if (books == null) {
+            books = Collections.unmodifiableList(new ArrayList<>(entries.values()));
+            snapshot = books;
+        }
+        return books;
+    }
+
+    @Override
+    public Iterator<Book> iterator() {
+        return Collections.unmodifiableCollection(entries.values()).iterator();
+    }
+}
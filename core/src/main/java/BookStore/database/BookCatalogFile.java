@@ -0,0 +1,278 @@
+package BookStore.database;
+
+import BookStore.models.Book;
+import BookStore.utils.Money;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.zip.CRC32;
+
+/**
+ * Reads and writes the binary, column-oriented book catalog (books.bin).
+ *
+ * Abstraction Function:
+ * - A catalog file holds the same books as books.txt, laid out for bulk loading:
+ *     header    magic "BKCT" (int), version (int), record count (int), string table size (int),
+ *               then (version 3) the size (long) and modification time in nanoseconds (long) that
+ *               books.txt had when the books were read from or written to it, or -1 and 0 if unknown
+ *     offsets   (count + 1) ints; title i is bytes offsets[i] to offsets[i + 1] of the string table
+ *     prices    count longs, in cents (versions 2 and 3); version 1 files hold count doubles,
+ *               in dollars, and are still read
+ *     strings   the UTF-8 bytes of every title, back to back
+ *     checksum  CRC32 of everything above (long)
+ * - All numbers are little-endian.
+ *
+ * Representation Invariant:
+ * - offsets[0] = 0, offsets is non-decreasing and offsets[count] = string table size.
+ * - A file whose magic, version, sizes or checksum do not match is rejected as a whole.
+ * - Files are always written as version 3. A catalog only stands in for books.txt while the
+ *   text file still has the recorded size and modification time, and that time is older than
+ *   the catalog itself; an edit in the same clock tick as the catalog was written could
+ *   otherwise keep both unchanged.
+ * - Files are written to a temporary file first and renamed into place, so a reader never
+ *   sees a half-written catalog.
+ */
+public final class BookCatalogFile {
+    static final int MAGIC = 0x54434B42; // "BKCT" read as a little-endian int
+    static final int VERSION = 3;
+    private static final int VERSION_CENT_PRICES = 2;
+    private static final int VERSION_DOUBLE_PRICES = 1;
+    private static final int HEADER_BYTES = 32;
+    private static final int OLD_HEADER_BYTES = 16;
+    private static final int CHECKSUM_BYTES = 8;
+
+    private BookCatalogFile() {
+    }
+
+    /**
+     * The size and modification time a books.txt file had at one moment.
+     */
+    public static final class Source {
+        private static final Source UNKNOWN = new Source(-1, 0);
+
+        private final long size;
+        private final long modifiedNanos;
+
+        private Source(long size, long modifiedNanos) {
+            this.size = size;
+            this.modifiedNanos = modifiedNanos;
+        }
+
+        /**
+         * Describes a text catalog as it is now.
+         *
+         * Requires: textFile is not null.
+         * Modifies: none
+         * Effects: Returns the file's size and modification time. Throws IOException if the
+         *          file cannot be examined.
+         */
+        public static Source of(Path textFile) throws IOException {
+            return new Source(Files.size(textFile), Files.getLastModifiedTime(textFile).to(TimeUnit.NANOSECONDS));
+        }
+    }
+
+    /**
+     * Checks whether a catalog file can be read instead of a text catalog.
+     *
+     * Requires: file and textFile are not null.
+     * Modifies: none
+     * Effects: Returns true if file is a version 3 catalog recording textFile's current size and
+     *          modification time, and that time is older than file's own. Returns false if it is
+     *          not, or if either file is missing or cannot be examined.
+     */
+    public static boolean isCurrent(Path file, Path textFile) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // Read until the header is complete or the file ends
+            }
+            if (header.hasRemaining() || header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+                return false;
+            }
+            Source source = Source.of(textFile);
+            return header.getLong(16) == source.size && header.getLong(24) == source.modifiedNanos
+                    && source.modifiedNanos < Files.getLastModifiedTime(file).to(TimeUnit.NANOSECONDS);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Loads every book from a catalog file.
+     *
+     * Requires: file is not null.
+     * Modifies: none
+     * Effects: Returns the books in catalog order. Throws IOException if the file cannot be read
+     *          or is not a valid catalog.
+     */
+    public static List<Book> read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < OLD_HEADER_BYTES + 4 + CHECKSUM_BYTES || size > Integer.MAX_VALUE) {
+                throw new IOException("Not a book catalog: " + file);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            IoMetrics.BYTES_READ.add(size);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+            int magic = buffer.getInt(0);
+            int version = buffer.getInt(4);
+            int count = buffer.getInt(8);
+            int stringBytes = buffer.getInt(12);
+            if (magic != MAGIC || (version != VERSION && version != VERSION_CENT_PRICES
+                    && version != VERSION_DOUBLE_PRICES)) {
+                throw new IOException("Unsupported book catalog: " + file);
+            }
+            int headerBytes = version == VERSION ? HEADER_BYTES : OLD_HEADER_BYTES;
+            long expectedSize = (long) headerBytes + 4L * (count + 1) + 8L * count + stringBytes + CHECKSUM_BYTES;
+            if (count < 0 || stringBytes < 0 || expectedSize != size) {
+                throw new IOException("Truncated book catalog: " + file);
+            }
+
+            CRC32 crc = new CRC32();
+            crc.update(buffer.duplicate().position(0).limit((int) size - CHECKSUM_BYTES));
+            if (crc.getValue() != buffer.getLong((int) size - CHECKSUM_BYTES)) {
+                throw new IOException("Checksum mismatch in book catalog: " + file);
+            }
+
+            // Bulk-copy each column out of the mapping
+            int position = headerBytes;
+            int[] offsets = new int[count + 1];
+            buffer.position(position);
+            buffer.asIntBuffer().get(offsets);
+            position += 4 * (count + 1);
+
+            long[] prices = new long[count];
+            buffer.position(position);
+            if (version != VERSION_DOUBLE_PRICES) {
+                buffer.asLongBuffer().get(prices);
+            } else {
+                double[] dollars = new double[count];
+                buffer.asDoubleBuffer().get(dollars);
+                for (int i = 0; i < count; i++) {
+                    prices[i] = Money.fromDouble(dollars[i]);
+                }
+            }
+            position += 8 * count;
+
+            byte[] strings = new byte[stringBytes];
+            buffer.get(position, strings);
+
+            for (int i = 0; i < count; i++) {
+                if (offsets[i] < 0 || offsets[i + 1] < offsets[i] || offsets[i + 1] > stringBytes) {
+                    throw new IOException("Corrupt string table in book catalog: " + file);
+                }
+            }
+
+            // Building the objects dominates the load, so spread it over all cores
+            Book[] books = new Book[count];
+            IntStream.range(0, count).parallel().forEach(i -> books[i] = new Book(
+                    new String(strings, offsets[i], offsets[i + 1] - offsets[i], StandardCharsets.UTF_8), prices[i]));
+            return new ArrayList<>(Arrays.asList(books));
+        }
+    }
+
+    /**
+     * Saves books as a catalog file that never stands in for a text catalog.
+     *
+     * Requires: file and books are not null.
+     * Modifies: file
+     * Effects: Writes the catalog as write(file, books, source) would, recording no source.
+     *          Throws IOException if it cannot be written.
+     */
+    public static void write(Path file, List<Book> books) throws IOException {
+        write(file, books, Source.UNKNOWN);
+    }
+
+    /**
+     * Saves books as a catalog file.
+     *
+     * Requires: file, books and source are not null; source describes the text catalog the books
+     *           were read from or written to, taken before reading it or after writing it.
+     * Modifies: file
+     * Effects: Writes the catalog and source to a temporary file, flushes it to the disk and renames
+     *          it over file. Throws IOException if it cannot be written.
+     */
+    public static void write(Path file, List<Book> books, Source source) throws IOException {
+        int count = books.size();
+        int[] offsets = new int[count + 1];
+        byte[][] titles = new byte[count][];
+        long stringBytes = 0;
+        for (int i = 0; i < count; i++) {
+            titles[i] = books.get(i).getTitle().getBytes(StandardCharsets.UTF_8);
+            offsets[i] = (int) stringBytes;
+            stringBytes += titles[i].length;
+        }
+        long total = HEADER_BYTES + 4L * (count + 1) + 8L * count + stringBytes + CHECKSUM_BYTES;
+        if (total > Integer.MAX_VALUE) {
+            throw new IOException("Catalog too large for one file: " + total + " bytes");
+        }
+        offsets[count] = (int) stringBytes;
+
+        ByteBuffer buffer = ByteBuffer.allocate((int) total).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(count).putInt((int) stringBytes);
+        buffer.putLong(source.size).putLong(source.modifiedNanos);
+        buffer.asIntBuffer().put(offsets);
+        buffer.position(buffer.position() + 4 * (count + 1));
+        for (Book book : books) {
+            buffer.putLong(book.getPriceCents());
+        }
+        for (byte[] title : titles) {
+            buffer.put(title);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, buffer.position());
+        buffer.putLong(crc.getValue());
+
+        AtomicFiles.write(file, out -> out.write(buffer.array(), 0, buffer.position()));
+    }
+
+    /**
+     * Converts a text catalog (books.txt format) to a binary catalog.
+     *
+     * Requires: textFile and binaryFile are not null.
+     * Modifies: binaryFile
+     * Effects: Writes every well-formed book from textFile to binaryFile.
+     */
+    public static void convertToBinary(Path textFile, Path binaryFile) throws IOException {
+        write(binaryFile, BookTextFile.read(textFile));
+    }
+
+    /**
+     * Converts a binary catalog back to the text (books.txt) format.
+     *
+     * Requires: binaryFile and textFile are not null.
+     * Modifies: textFile
+     * Effects: Writes one "title,price" line per book in binaryFile to textFile.
+     */
+    public static void convertToText(Path binaryFile, Path textFile) throws IOException {
+        BookTextFile.write(textFile, read(binaryFile));
+    }
+
+    /**
+     * Command-line converter.
+     * Usage: BookCatalogFile to-binary Books.txt Books.bin
+     *        BookCatalogFile to-text Books.bin Books.txt
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length == 3 && args[0].equals("to-binary")) {
+            convertToBinary(Paths.get(args[1]), Paths.get(args[2]));
+        } else if (args.length == 3 && args[0].equals("to-text")) {
+            convertToText(Paths.get(args[1]), Paths.get(args[2]));
+        } else {
+            System.out.println("Usage: BookCatalogFile (to-binary <books.txt> <books.bin> | to-text <books.bin> <books.txt>)");
+        }
+    }
+}
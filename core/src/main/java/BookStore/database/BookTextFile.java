@@ -0,0 +1,172 @@
+package BookStore.database;
+
+import BookStore.models.Book;
+import BookStore.utils.Money;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Reads and writes the text book catalog (books.txt), with one "title,price" line per book.
+ *
+ * Abstraction Function:
+ * - Offers whole-file reads and writes for the resident store, and streaming operations that
+ *   only hold one line in memory at a time, for catalogs larger than the heap.
+ * - Prices are written as dollars with two fraction digits ("19.99"). Reading accepts any
+ *   decimal form, as written by older versions that kept prices in doubles, and rounds it
+ *   to the cent.
+ *
+ * Representation Invariant:
+ * - A line is a book only if it splits into exactly two fields on "," and its price parses;
+ *   other lines are skipped, whichever loader StoreConfig.loaderMode() picks.
+ * - Whole-file rewrites go through AtomicFiles, so the file is never left half-written.
+ */
+final class BookTextFile {
+    private BookTextFile() {
+    }
+
+    /**
+     * Reads a text catalog.
+     *
+     * Requires: file is not null.
+     * Modifies: none
+     * Effects: Returns the books in file order, using the loader chosen by StoreConfig.loaderMode().
+     *          Throws IOException if the file cannot be read.
+     */
+    static List<Book> read(Path file) throws IOException {
+        if (StoreConfig.loaderMode().equals("mapped")) {
+            return MappedRecordParser.parseBooks(file);
+        }
+        if (StoreConfig.loaderMode().equals("parallel")) {
+            return ParallelRecordLoader.parseBooks(file);
+        }
+        List<Book> loaded = new ArrayList<>();
+        try (Stream<Book> books = stream(file)) {
+            books.forEach(loaded::add);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return loaded;
+    }
+
+    /**
+     * Streams a text catalog, parsing each line only when it is reached.
+     *
+     * Requires: file is not null.
+     * Modifies: none
+     * Effects: Returns a lazy stream of the books in file order. The stream holds the file open
+     *          and must be closed. Read errors surface as UncheckedIOException.
+     */
+    static Stream<Book> stream(Path file) throws IOException {
+        BufferedReader reader = IoMetrics.newReader(file);
+        return reader.lines()
+                .map(BookTextFile::parseLine)
+                .filter(Objects::nonNull)
+                .onClose(() -> {
+                    try {
+                        reader.close();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
+
+    /**
+     * Writes a text catalog.
+     *
+     * Requires: file and books are not null.
+     * Modifies: file
+     * Effects: Atomically replaces the file with the books. Throws IOException if it cannot be written.
+     */
+    static void write(Path file, Iterable<Book> books) throws IOException {
+        write(file, books.iterator());
+    }
+
+    /**
+     * Writes a text catalog from an iterator, holding only one book at a time.
+     *
+     * Requires: file and books are not null.
+     * Modifies: file
+     * Effects: Atomically replaces the file with the books. Throws IOException if it cannot be written.
+     */
+    static void write(Path file, Iterator<Book> books) throws IOException {
+        AtomicFiles.write(file, out -> {
+            BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out));
+            while (books.hasNext()) {
+                writer.write(formatLine(books.next()));
+                writer.newLine();
+            }
+            writer.flush();
+        });
+    }
+
+    /**
+     * Adds one book to the end of the catalog without rewriting it.
+     *
+     * Requires: file and book are not null.
+     * Modifies: file
+     * Effects: Appends the book's line and forces it to the disk.
+     */
+    static void append(Path file, Book book) throws IOException {
+        byte[] bytes = (formatLine(book) + System.lineSeparator()).getBytes(Charset.defaultCharset());
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+        IoMetrics.BYTES_WRITTEN.add(bytes.length);
+    }
+
+    /**
+     * Rewrites the catalog without the books that match, streaming it line by line.
+     *
+     * Requires: file and remove are not null.
+     * Modifies: file
+     * Effects: Atomically replaces the file with every book that remove rejects.
+     */
+    static void removeIf(Path file, Predicate<Book> remove) throws IOException {
+        try (Stream<Book> books = stream(file)) {
+            write(file, books.filter(remove.negate()).iterator());
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Parses one "title,price" line.
+     *
+     * Requires: line is not null.
+     * Modifies: none
+     * Effects: Returns the book on the line, or null if it does not have exactly two fields
+     *          or its price is not a number.
+     */
+    static Book parseLine(String line) {
+        String[] data = line.split(",");
+        if (data.length == 2) {
+            try {
+                String title = data[0].trim();
+                long priceCents = Money.parse(data[1]);
+                return new Book(title, priceCents);
+            } catch (NumberFormatException e) {
+                return null; // Skipped, as the mapped and parallel loaders do
+            }
+        }
+        return null;
+    }
+
+    private static String formatLine(Book book) {
+        return book.getTitle() + "," + Money.format(book.getPriceCents());
+    }
+}
@@ -0,0 +1,100 @@
+package BookStore.database;
+
+import BookStore.models.Book;
+import BookStore.utils.InputValidator;
+import java.util.*;
+
+/**
+ * The difference between two versions of the book catalog.
+ *
+ * Abstraction Function:
+ * - added: books whose title is only in the new version.
+ * - removed: books whose title is only in the old version.
+ * - repriced: books whose title is in both versions with a different price, holding the new price.
+ * - Titles are compared ignoring case, as everywhere else in the catalog.
+ *
+ * Representation Invariant:
+ * - The three lists are unmodifiable and no title appears in more than one of them.
+ */
+public final class CatalogDelta {
+    private final List<Book> added;
+    private final List<Book> removed;
+    private final List<Book> repriced;
+
+    private CatalogDelta(List<Book> added, List<Book> removed, List<Book> repriced) {
+        this.added = Collections.unmodifiableList(added);
+        this.removed = Collections.unmodifiableList(removed);
+        this.repriced = Collections.unmodifiableList(repriced);
+    }
+
+    /**
+     * Computes what changed from one catalog version to the next.
+     *
+     * Requires: before and after are not null.
+     * Modifies: none
+     * Effects: Returns the books added, removed and re-priced going from before to after.
+     *          When a title appears more than once, its first occurrence counts.
+     */
+    static CatalogDelta between(List<Book> before, List<Book> after) {
+        Map<String, Book> old = byTitle(before);
+        Map<String, Book> current = byTitle(after);
+        List<Book> added = new ArrayList<>();
+        List<Book> repriced = new ArrayList<>();
+        for (Map.Entry<String, Book> entry : current.entrySet()) {
+            Book previous = old.get(entry.getKey());
+            if (previous == null) {
+                added.add(entry.getValue());
+            } else if (previous.getPriceCents() != entry.getValue().getPriceCents()) {
+                repriced.add(entry.getValue());
+            }
+        }
+        List<Book> removed = new ArrayList<>();
+        for (Map.Entry<String, Book> entry : old.entrySet()) {
+            if (!current.containsKey(entry.getKey())) {
+                removed.add(entry.getValue());
+            }
+        }
+        return new CatalogDelta(added, removed, repriced);
+    }
+
+    /**
+     * Returns the books added to the catalog.
+     */
+    public List<Book> getAdded() {
+        return added;
+    }
+
+    /**
+     * Returns the books removed from the catalog.
+     */
+    public List<Book> getRemoved() {
+        return removed;
+    }
+
+    /**
+     * Returns the books whose price changed, with their new price.
+     */
+    public List<Book> getRepriced() {
+        return repriced;
+    }
+
+    /**
+     * Returns true if nothing changed.
+     */
+    public boolean isEmpty() {
+        return added.isEmpty() && removed.isEmpty() && repriced.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return added.size() + " added, " + removed.size() + " removed, " + repriced.size() + " re-priced";
+    }
+
+    private static Map<String, Book> byTitle(List<Book> books) {
+        Map<String, Book> map = new LinkedHashMap<>();
+        for (Book book : books) {
+            map.putIfAbsent(InputValidator.titleKey(book.getTitle()), book);
+        }
+        return map;
+    }
+}
@@ -0,0 +1,19 @@
+package BookStore.database;
+
+/**
+ * Receives changes made to the book catalog from outside this program.
+ *
+ * Listeners are held weakly: whoever registers one must keep a reference to it for as long as
+ * it should receive changes. Calls come from a background thread, so a JavaFX listener should
+ * hand its work to Platform.runLater.
+ */
+public interface CatalogListener {
+    /**
+     * Called after a change to books.txt has been applied to the in-memory catalog.
+     *
+     * Requires: delta is not null and not empty.
+     * Modifies: whatever the listener updates
+     * Effects: Lets the listener refresh what it shows.
+     */
+    void catalogChanged(CatalogDelta delta);
+}
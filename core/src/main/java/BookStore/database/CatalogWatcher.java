@@ -0,0 +1,93 @@
+package BookStore.database;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches books.txt for changes made by other processes.
+ *
+ * Abstraction Function:
+ * - Owns one daemon thread blocked on a WatchService for the file's directory. When the file is
+ *   created, replaced or modified, it waits until the file has had no events for SETTLE_MILLIS
+ *   (but no longer than MAX_SETTLE_MILLIS in all), then runs onChange.
+ *
+ * Representation Invariant:
+ * - onChange never runs on more than one thread at a time.
+ * - Events for other files in the directory are ignored; they neither start nor extend the wait,
+ *   so the ledger and customer logs changing on every checkout cannot hold off a reload.
+ * - Writes by this program also fire events; onChange is expected to find no difference then.
+ */
+class CatalogWatcher {
+    private static final long SETTLE_MILLIS = 100;
+    private static final long MAX_SETTLE_MILLIS = 1000;
+
+    private final Path file;
+    private final Runnable onChange;
+    private final WatchService watchService;
+
+    /**
+     * Starts watching file.
+     *
+     * Requires: file and onChange are not null, and file's directory exists.
+     * Modifies: this
+     * Effects: Starts a daemon thread that runs onChange after each change to file.
+     *          Throws IOException if the directory cannot be watched.
+     */
+    CatalogWatcher(Path file, Runnable onChange) throws IOException {
+        this.file = file.toAbsolutePath();
+        this.onChange = onChange;
+        this.watchService = this.file.getFileSystem().newWatchService();
+        this.file.getParent().register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        Thread thread = new Thread(this::run, "catalog-watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void run() {
+        try {
+            while (true) {
+                if (!drain(watchService.take())) {
+                    continue;
+                }
+                // An editor or a rename can fire several events; let them settle before reading.
+                // Only events for the file restart the wait, and it never exceeds MAX_SETTLE_MILLIS.
+                long now = System.nanoTime();
+                long quietAt = now + TimeUnit.MILLISECONDS.toNanos(SETTLE_MILLIS);
+                long giveUpAt = now + TimeUnit.MILLISECONDS.toNanos(MAX_SETTLE_MILLIS);
+                while (true) {
+                    long left = Math.min(quietAt, giveUpAt) - System.nanoTime();
+                    WatchKey next = left > 0 ? watchService.poll(left, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    if (drain(next)) {
+                        quietAt = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(SETTLE_MILLIS);
+                    }
+                }
+                try {
+                    onChange.run();
+                } catch (RuntimeException e) {
+                    System.out.println("Error reloading books file: " + e.getMessage());
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Stop watching
+        }
+    }
+
+    /**
+     * Returns true if any event on the key is about the watched file, and re-arms the key.
+     */
+    private boolean drain(WatchKey key) {
+        boolean changed = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW || file.getFileName().equals(event.context())) {
+                changed = true;
+            }
+        }
+        key.reset();
+        return changed;
+    }
+}
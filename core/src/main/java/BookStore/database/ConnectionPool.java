@@ -0,0 +1,152 @@
+package BookStore.database;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A small, fixed-size pool of JDBC connections, each with its own prepared statement cache.
+ *
+ * Abstraction Function:
+ * - Up to maxSize connections to url. Connections are opened on demand; a caller that finds
+ *   none idle and the pool full waits for one to be returned.
+ * - Each pooled connection prepares a given SQL string once and reuses the statement afterwards.
+ *
+ * Representation Invariant:
+ * - 0 ≤ open ≤ maxSize, and idle never holds more than open connections.
+ * - A connection is either idle or borrowed by exactly one caller.
+ * - A connection goes back to the pool in auto-commit mode with no open transaction;
+ *   one that fails to reset is closed instead.
+ */
+final class ConnectionPool {
+    private final String url;
+    private final int maxSize;
+    private final BlockingQueue<PooledConnection> idle;
+    private final ReentrantLock openLock = new ReentrantLock(); // Held while connecting, so not a monitor
+    private int open; // Guarded by openLock
+
+    /**
+     * A borrowed connection; closing it returns it to the pool.
+     */
+    final class PooledConnection implements AutoCloseable {
+        private final Connection connection;
+        private final Map<String, PreparedStatement> statements = new HashMap<>();
+
+        private PooledConnection(Connection connection) {
+            this.connection = connection;
+        }
+
+        /**
+         * Returns the cached statement for sql, preparing it the first time.
+         * Parameters from an earlier use are cleared.
+         */
+        PreparedStatement prepare(String sql) throws SQLException {
+            PreparedStatement statement = statements.get(sql);
+            if (statement == null) {
+                statement = connection.prepareStatement(sql);
+                statements.put(sql, statement);
+            } else {
+                statement.clearParameters();
+            }
+            return statement;
+        }
+
+        /**
+         * Starts a transaction that lasts until commit() or until the connection is returned.
+         */
+        void begin() throws SQLException {
+            connection.setAutoCommit(false);
+        }
+
+        void commit() throws SQLException {
+            connection.commit();
+        }
+
+        /**
+         * Returns the connection to the pool, rolling back anything not committed.
+         */
+        @Override
+        public void close() {
+            try {
+                if (!connection.getAutoCommit()) {
+                    connection.rollback();
+                    connection.setAutoCommit(true);
+                }
+                release(this);
+            } catch (SQLException e) {
+                discard(this);
+            }
+        }
+    }
+
+    /**
+     * Creates an empty pool; no connection is opened until one is borrowed.
+     *
+     * Requires: url is not null, maxSize > 0
+     * Modifies: this
+     * Effects: Creates a pool of at most maxSize connections to url.
+     */
+    ConnectionPool(String url, int maxSize) {
+        this.url = url;
+        this.maxSize = maxSize;
+        this.idle = new ArrayBlockingQueue<>(maxSize);
+    }
+
+    /**
+     * Borrows a connection.
+     *
+     * Requires: the caller closes the returned connection, e.g. with try-with-resources.
+     * Modifies: this
+     * Effects: Returns an idle connection, opens a new one if the pool is not full,
+     *          or waits for another caller to return one. Throws SQLException if a
+     *          connection cannot be opened or the wait is interrupted.
+     */
+    PooledConnection borrow() throws SQLException {
+        PooledConnection connection = idle.poll();
+        while (connection == null) {
+            openLock.lock();
+            try {
+                if (open < maxSize) {
+                    connection = new PooledConnection(DriverManager.getConnection(url));
+                    open++;
+                    return connection;
+                }
+            } finally {
+                openLock.unlock();
+            }
+            try {
+                // Wake up now and then in case a broken connection was discarded, freeing a slot
+                connection = idle.poll(100, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while waiting for a database connection", e);
+            }
+        }
+        return connection;
+    }
+
+    private void release(PooledConnection connection) {
+        idle.add(connection);
+    }
+
+    private void discard(PooledConnection connection) {
+        openLock.lock();
+        try {
+            open--;
+        } finally {
+            openLock.unlock();
+        }
+        try {
+            connection.connection.close();
+        } catch (SQLException e) {
+            System.out.println("Error closing database connection: " + e.getMessage());
+        }
+    }
+}
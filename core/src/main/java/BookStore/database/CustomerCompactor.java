@@ -0,0 +1,66 @@
+package BookStore.database;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs customer log compaction on a background thread.
+ *
+ * Abstraction Function:
+ * - Owns one daemon thread that folds the customer log into a new snapshot.
+ * - Compaction runs when asked for (the record-count trigger) and on a timer (the elapsed-time trigger).
+ *
+ * Representation Invariant:
+ * - At most one compaction is queued at a time; extra requests while one is queued are dropped.
+ * - Compactions never run in parallel with each other.
+ */
+class CustomerCompactor {
+    private final ScheduledExecutorService executor;
+    private final Runnable compaction;
+    private final AtomicBoolean queued = new AtomicBoolean();
+
+    /**
+     * Creates the compactor and starts its timer.
+     *
+     * Requires: compaction is not null, checkSeconds > 0
+     * Modifies: this
+     * Effects: Starts a daemon thread that runs compaction every checkSeconds seconds.
+     *          compaction is expected to decide for itself whether a snapshot is due.
+     */
+    CustomerCompactor(Runnable compaction, long checkSeconds) {
+        this.compaction = compaction;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "customer-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::runCompaction, checkSeconds, checkSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Asks for a compaction as soon as possible.
+     *
+     * Requires: none
+     * Modifies: this
+     * Effects: Queues a compaction on the background thread unless one is already queued.
+     */
+    void request() {
+        if (queued.compareAndSet(false, true)) {
+            executor.execute(() -> {
+                queued.set(false);
+                runCompaction();
+            });
+        }
+    }
+
+    private void runCompaction() {
+        try {
+            compaction.run();
+        } catch (RuntimeException e) {
+            // Keep the timer alive; the next check will try again
+            System.out.println("Error compacting customer log: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,774 @@
+package BookStore.database;
+
+import BookStore.models.Customer;
+import BookStore.utils.Money;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Stores customers as a snapshot file plus an append-only log of changes.
+ *
+ * Abstraction Function:
+ * - users.txt is a snapshot: a full list of customers at some point in time, one
+ *   "username,password,balance,points,version" line each. When a removed customer held the
+ *   highest version, a "VERSIONS,version" line comes first; the loaders skip it as too short.
+ * - users.log holds every change made since then, one small record per line:
+ *     PUT,username,password,balance,points,version   (add or replace a whole customer)
+ *     BAL,username,balance,version                   (new balance)
+ *     PTS,username,points,version                    (new points total)
+ *     DEL,username,version                           (remove a customer at its last version)
+ *   Files written before versions existed lack the version field; those customers read as
+ *   version 0 and those records leave the version as it was.
+ * - A customer added now starts one above the highest version the shard has ever used, so a
+ *   removed and re-added customer never repeats a version a stale copy could still hold.
+ * - The current customers are the snapshot with the log replayed on top, in order.
+ * - Compaction renames users.log to users.log.old, writes a new snapshot, then deletes
+ *   users.log.old, so startup only replays the records written since the last snapshot.
+ * - Several processes may share the files. users.log.lock is locked with FileChannel.lock while
+ *   a process commits a change or compacts; under that lock the process first catches up with
+ *   the records other processes appended since it last looked (or reloads, if another process
+ *   compacted meanwhile), and only then checks and appends its own record.
+ *
+ * Representation Invariant:
+ * - Records hold new values, never differences, so replaying a record twice gives the same result.
+ * - A record is only written after the change it describes has been accepted.
+ * - Appends only write; sync() forces them to the disk, sharing one force among concurrent writers.
+ * - Every record ends with a newline; a partly written last record (for example after a crash)
+ *   has none and is skipped during replay.
+ * - While users.log.old exists its records are also covered by the snapshot or still needed,
+ *   and they are replayed before users.log.
+ * - highestVersion is at least every version in the snapshot, its VERSIONS line and the records
+ *   read or written since, removed customers' included.
+ * - validLogLength is how much of the log this process has applied; baseIdentity and logIdentity
+ *   identify the snapshot and log files it was read from, so a replaced file is noticed.
+ * - The file lock is only taken while commitLock is held, so one process never asks for it twice.
+ * - The log channel and the fields describing what was read are guarded by stateLock. It is a
+ *   ReentrantLock rather than the monitor because it is held across file I/O, which would pin
+ *   a virtual thread's carrier.
+ */
+class CustomerJournal {
+    private final Path baseFile;
+    private final Path logFile;
+    private final Path oldLogFile;
+    private final Path lockFile;
+    private final ReentrantLock commitLock = new ReentrantLock();
+    private final ReentrantLock stateLock = new ReentrantLock();
+    private FileChannel lockChannel;
+    private FileLock fileLock;
+    private boolean lockFileDeleted; // Guarded by commitLock
+    private FileChannel logChannel;
+    private long validLogLength;
+    private long highestVersion;
+    private Object baseIdentity;
+    private Object logIdentity;
+    private long recordsSinceSnapshot;
+    private long lastSnapshotMillis = System.currentTimeMillis();
+    private final GroupCommitter committer =
+            new GroupCommitter(this::forceLog, StoreConfig.commitWindowMicros() * 1000);
+
+    /**
+     * Creates a journal over the given snapshot and log files.
+     *
+     * Requires: baseFile and logFile are not null.
+     * Modifies: this
+     * Effects: Remembers the file locations; nothing is read or opened yet.
+     */
+    CustomerJournal(String baseFile, String logFile) {
+        this.baseFile = Paths.get(baseFile);
+        this.logFile = Paths.get(logFile);
+        this.oldLogFile = Paths.get(logFile + ".old");
+        this.lockFile = Paths.get(logFile + ".lock");
+    }
+
+    /**
+     * Takes the commit lock, shared with every other process using the same files.
+     *
+     * Requires: the caller calls unlock() afterwards, on the same thread.
+     * Modifies: this, users.log.lock file
+     * Effects: Blocks until no other thread or process is committing to this journal.
+     *          If the file cannot be locked the error is reported and only threads of this
+     *          process are kept out.
+     */
+    void lock() {
+        commitLock.lock();
+        try {
+            if (lockChannel == null) {
+                lockChannel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            }
+            fileLock = lockChannel.lock();
+        } catch (IOException e) {
+            System.out.println("Error locking customer log: " + e.getMessage());
+            if (lockChannel != null && !lockChannel.isOpen()) {
+                lockChannel = null; // Closed by an interrupt; reopen next time
+            }
+        }
+    }
+
+    /**
+     * Releases the commit lock.
+     *
+     * Requires: the current thread holds the lock.
+     * Modifies: this, users.log.lock file
+     * Effects: Lets the next thread or process commit. Closes the lock file if deleteFiles removed it.
+     */
+    void unlock() {
+        try {
+            if (fileLock != null) {
+                fileLock.release();
+            }
+            if (lockFileDeleted && lockChannel != null) {
+                lockChannel.close();
+                lockChannel = null;
+            }
+        } catch (IOException e) {
+            System.out.println("Error unlocking customer log: " + e.getMessage());
+        } finally {
+            fileLock = null;
+            commitLock.unlock();
+        }
+    }
+
+    /**
+     * Brings customers up to date with changes other processes made to the files.
+     *
+     * Requires: the caller holds the commit lock; customers holds what load() returned,
+     *           changed only through this journal since.
+     * Modifies: customers, this
+     * Effects: Applies the log records appended since this process last read or wrote the log.
+     *          If another process compacted meanwhile, customers is rebuilt from the files instead.
+     *          Changed customers are replaced with new objects, never modified.
+     */
+    void catchUp(Map<String, Customer> customers) {
+        stateLock.lock();
+        try {
+            Object log = identity(logFile);
+            if (Objects.equals(identity(baseFile), baseIdentity) && (logIdentity == null || logIdentity.equals(log))) {
+                if (log != null) {
+                    validLogLength = replayLog(logFile, validLogLength, customers);
+                    logIdentity = log;
+                }
+                return;
+            }
+            try {
+                closeLog(); // It may point at a file that is no longer the log
+            } catch (IOException e) {
+                System.out.println("Error closing customer log: " + e.getMessage());
+            }
+            Map<String, Customer> reloaded = load();
+            customers.keySet().retainAll(reloaded.keySet());
+            customers.putAll(reloaded);
+        } finally {
+            stateLock.unlock();
+        }
+    }
+
+    /**
+     * Catches up with other processes if that can be done without waiting.
+     *
+     * Requires: customers is as for catchUp.
+     * Modifies: customers, this
+     * Effects: If no thread or process is committing to this journal, does what catchUp does.
+     *          Otherwise does nothing; the next commit catches up instead.
+     */
+    void refresh(Map<String, Customer> customers) {
+        if (!commitLock.tryLock()) {
+            return;
+        }
+        try {
+            if (lockChannel == null) {
+                lockChannel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            }
+            FileLock lock = lockChannel.tryLock();
+            if (lock != null) {
+                try {
+                    catchUp(customers);
+                } finally {
+                    lock.release();
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("Error locking customer log: " + e.getMessage());
+        } finally {
+            commitLock.unlock();
+        }
+    }
+
+    /**
+     * Rebuilds all customers from disk.
+     *
+     * Requires: none
+     * Modifies: none
+     * Effects: Reads the snapshot, replays users.log.old (if a compaction was interrupted) and
+     *          users.log over it, and returns the result keyed by username.
+     */
+    Map<String, Customer> load() {
+        stateLock.lock();
+        try {
+            baseIdentity = identity(baseFile);
+            logIdentity = identity(logFile);
+            recordsSinceSnapshot = 0;
+            Map<String, Customer> customers = readBaseFile();
+            highestVersion = readVersionFloor();
+            for (Customer c : customers.values()) {
+                highestVersion = Math.max(highestVersion, c.getVersion());
+            }
+            if (Files.exists(oldLogFile)) {
+                replayLog(oldLogFile, 0, customers);
+            }
+            validLogLength = replayLog(logFile, 0, customers);
+            return customers;
+        } finally {
+            stateLock.unlock();
+        }
+    }
+
+    /**
+     * Checks whether a new snapshot should be written.
+     *
+     * Requires: recordThreshold > 0, maxAgeMillis > 0
+     * Modifies: none
+     * Effects: Returns true if a compaction was interrupted, if at least recordThreshold records
+     *          were logged since the last snapshot, or if any record is older than maxAgeMillis.
+     */
+    boolean snapshotDue(long recordThreshold, long maxAgeMillis) {
+        stateLock.lock();
+        try {
+            if (Files.exists(oldLogFile)) {
+                return true;
+            }
+            if (recordsSinceSnapshot == 0) {
+                return false;
+            }
+            return recordsSinceSnapshot >= recordThreshold
+                    || System.currentTimeMillis() - lastSnapshotMillis >= maxAgeMillis;
+        } finally {
+            stateLock.unlock();
+        }
+    }
+
+    /**
+     * Starts a compaction by moving the current log aside.
+     *
+     * Requires: the caller holds the commit lock, so no record can be written between taking
+     *           the snapshot and calling this.
+     * Modifies: users.log, users.log.old files
+     * Effects: Renames users.log to users.log.old and starts a fresh log. If users.log.old is still
+     *          there from an interrupted compaction, the log is left in place instead; its records are
+     *          then replayed over the new snapshot, which is harmless because records hold new values.
+     */
+    void rotate() {
+        stateLock.lock();
+        try {
+            if (Files.exists(oldLogFile)) {
+                return;
+            }
+            try {
+                closeLog();
+                if (Files.exists(logFile)) {
+                    Files.move(logFile, oldLogFile, StandardCopyOption.ATOMIC_MOVE);
+                }
+                validLogLength = 0;
+                logIdentity = null;
+                recordsSinceSnapshot = 0;
+            } catch (IOException e) {
+                System.out.println("Error rotating customer log: " + e.getMessage());
+            }
+        } finally {
+            stateLock.unlock();
+        }
+    }
+
+    /**
+     * Finishes a compaction by writing a new snapshot.
+     *
+     * Requires: snapshot holds every customer as of the last call to rotate(), and the caller still
+     *           holds the commit lock it held then (unless the files are not live yet).
+     * Modifies: users.txt, users.log.old files
+     * Effects: Writes the customers to a temporary file, flushes it to the disk and renames it over
+     *          users.txt, then deletes users.log.old. The highest version used so far is kept too,
+     *          even if only a removed customer held it. On failure the old snapshot and logs are
+     *          kept. Returns true if the snapshot was written.
+     */
+    boolean writeSnapshot(Collection<Customer> snapshot) {
+        // Only a removed customer's version needs the VERSIONS line; a stored one is kept anyway
+        long versions = highestVersion();
+        boolean removedHeldHighest = versions > 0 && snapshot.stream().allMatch(c -> c.getVersion() < versions);
+        try {
+            AtomicFiles.write(baseFile, out -> {
+                BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+                if (removedHeldHighest) {
+                    writer.write("VERSIONS," + versions);
+                    writer.newLine();
+                }
+                for (Customer c : snapshot) {
+                    String line = c.getUsername() + "," + c.getPassword() + "," + Money.format(c.getBalanceCents())
+                            + "," + c.getPoints() + "," + c.getVersion();
+                    writer.write(line);
+                    writer.newLine();
+                }
+                writer.flush();
+            });
+            Files.deleteIfExists(oldLogFile);
+            stateLock.lock();
+            try {
+                lastSnapshotMillis = System.currentTimeMillis();
+                baseIdentity = identity(baseFile);
+            } finally {
+                stateLock.unlock();
+            }
+            return true;
+        } catch (IOException e) {
+            System.out.println("Error writing customer snapshot: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Deletes both logs, for files that are about to receive a fresh snapshot.
+     *
+     * Requires: the journal's files are not the live customer data.
+     * Modifies: users.log, users.log.old files
+     * Effects: Removes the logs so their records are not replayed over the new snapshot.
+     */
+    void deleteLogs() {
+        stateLock.lock();
+        try {
+            try {
+                closeLog();
+                Files.deleteIfExists(logFile);
+                Files.deleteIfExists(oldLogFile);
+                validLogLength = 0;
+                logIdentity = null;
+                recordsSinceSnapshot = 0;
+            } catch (IOException e) {
+                System.out.println("Error deleting customer log: " + e.getMessage());
+            }
+        } finally {
+            stateLock.unlock();
+        }
+    }
+
+    /**
+     * Deletes the snapshot and both logs, once their customers have been moved elsewhere.
+     *
+     * Requires: the customers in these files are stored somewhere else; the caller holds the commit lock.
+     * Modifies: this, users.txt, users.log, users.log.old, users.log.lock files
+     * Effects: Removes all four files. Other processes stay locked out until unlock().
+     */
+    void deleteFiles() {
+        stateLock.lock();
+        try {
+            deleteLogs();
+            try {
+                Files.deleteIfExists(baseFile);
+                Files.deleteIfExists(lockFile);
+                lockFileDeleted = true;
+            } catch (IOException e) {
+                System.out.println("Error deleting customer snapshot: " + e.getMessage());
+            }
+        } finally {
+            stateLock.unlock();
+        }
+    }
+
+    /**
+     * Records that a customer was added or changed.
+     *
+     * Requires: after is not null; before is the previous value or null for a new customer;
+     *           the caller holds the commit lock and has caught up.
+     * Modifies: users.log file
+     * Effects: Appends the smallest record that turns before into after, including after's version.
+     *          Nothing is written if the two have the same password, balance and points.
+     *          Returns true if a record was written. Throws IOException, leaving the log as it
+     *          was, if the record cannot be written.
+     */
+    boolean recordChange(Customer before, Customer after) throws IOException {
+        stateLock.lock();
+        try {
+            String record = changeRecord(before, after);
+            if (record == null) {
+                return false;
+            }
+            append(record + "\n", 1);
+            highestVersion = Math.max(highestVersion, after.getVersion());
+            return true;
+        } finally {
+            stateLock.unlock();
+        }
+    }
+
+    /**
+     * Records that several customers were added or changed, in one write.
+     *
+     * Requires: before and after have the same size; each after.get(i) is not null and
+     *           before.get(i) is its previous value or null; the caller holds the commit lock
+     *           and has caught up.
+     * Modifies: users.log file
+     * Effects: Appends the record recordChange would write for each pair, all in one write.
+     *          Returns, for each pair, true if a record was written for it. Throws IOException,
+     *          leaving the log as it was, if the records cannot be written.
+     */
+    boolean[] recordChanges(List<Customer> before, List<Customer> after) throws IOException {
+        stateLock.lock();
+        try {
+            boolean[] written = new boolean[after.size()];
+            StringBuilder records = new StringBuilder();
+            int count = 0;
+            for (int i = 0; i < written.length; i++) {
+                String record = changeRecord(before.get(i), after.get(i));
+                if (record != null) {
+                    records.append(record).append('\n');
+                    written[i] = true;
+                    count++;
+                }
+            }
+            if (count > 0) {
+                append(records.toString(), count);
+                for (int i = 0; i < written.length; i++) {
+                    if (written[i]) {
+                        highestVersion = Math.max(highestVersion, after.get(i).getVersion());
+                    }
+                }
+            }
+            return written;
+        } finally {
+            stateLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the smallest record that turns before into after, or null if nothing changed.
+     */
+    private static String changeRecord(Customer before, Customer after) {
+        String record;
+        if (before == null || !before.getPassword().equals(after.getPassword())
+                || (before.getBalanceCents() != after.getBalanceCents() && before.getPoints() != after.getPoints())) {
+            record = "PUT," + after.getUsername() + "," + after.getPassword() + ","
+                    + Money.format(after.getBalanceCents()) + "," + after.getPoints() + "," + after.getVersion();
+        } else if (before.getBalanceCents() != after.getBalanceCents()) {
+            record = "BAL," + after.getUsername() + "," + Money.format(after.getBalanceCents()) + "," + after.getVersion();
+        } else if (before.getPoints() != after.getPoints()) {
+            record = "PTS," + after.getUsername() + "," + after.getPoints() + "," + after.getVersion();
+        } else {
+            return null;
+        }
+        return record;
+    }
+
+    /**
+     * Records that a customer was removed.
+     *
+     * Requires: removed is the stored customer; the caller holds the commit lock and has caught up.
+     * Modifies: users.log file
+     * Effects: Appends a DEL record with the customer's username and last version. Throws
+     *          IOException, leaving the log as it was, if the record cannot be written.
+     */
+    void recordRemoval(Customer removed) throws IOException {
+        stateLock.lock();
+        try {
+            append("DEL," + removed.getUsername() + "," + removed.getVersion() + "\n", 1);
+            highestVersion = Math.max(highestVersion, removed.getVersion());
+        } finally {
+            stateLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the version for a customer added now.
+     *
+     * Requires: the caller holds the commit lock and has caught up.
+     * Modifies: none
+     * Effects: Returns one more than the highest version this shard has used, removed customers'
+     *          included, so no stale copy of an earlier customer with the same username matches it.
+     */
+    long newCustomerVersion() {
+        stateLock.lock();
+        try {
+            return highestVersion + 1;
+        } finally {
+            stateLock.unlock();
+        }
+    }
+
+    /**
+     * Gets the highest version this shard has used.
+     *
+     * Requires: load() was called.
+     * Modifies: none
+     * Effects: Returns the highest version in the files as last read or written, removed customers' included.
+     */
+    long highestVersion() {
+        stateLock.lock();
+        try {
+            return highestVersion;
+        } finally {
+            stateLock.unlock();
+        }
+    }
+
+    /**
+     * Makes the next snapshot keep versions above the given one, for customers moved in from
+     * other files that may have used it.
+     *
+     * Requires: version ≥ 0
+     * Modifies: this
+     * Effects: Raises the highest version used to at least version.
+     */
+    void raiseHighestVersion(long version) {
+        stateLock.lock();
+        try {
+            highestVersion = Math.max(highestVersion, version);
+        } finally {
+            stateLock.unlock();
+        }
+    }
+
+    /**
+     * Makes every record appended so far durable.
+     *
+     * Requires: none
+     * Modifies: users.log file
+     * Effects: Returns once the log has been forced to the disk by a flush that started after
+     *          this call; concurrent callers share one flush. Throws IOException if it fails.
+     */
+    void sync() throws IOException {
+        committer.commit();
+    }
+
+    private void closeLog() throws IOException {
+        if (logChannel != null) {
+            logChannel.force(false);
+            logChannel.close();
+            logChannel = null;
+        }
+    }
+
+    private void forceLog() throws IOException {
+        FileChannel channel;
+        stateLock.lock();
+        try {
+            channel = logChannel;
+        } finally {
+            stateLock.unlock();
+        }
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.force(false);
+        } catch (ClosedChannelException e) {
+            // Rotated meanwhile; rotate() forces the log before closing it
+        }
+    }
+
+    /**
+     * Writes count newline-terminated records to the end of the log; sync() makes them durable.
+     * The cost depends only on the records' size, never on how many customers exist.
+     * On failure whatever part was written is cut off again, so no other process replays it.
+     */
+    private void append(String records, int count) throws IOException {
+        byte[] bytes = records.getBytes(StandardCharsets.UTF_8);
+        if (logChannel == null) {
+            logChannel = FileChannel.open(logFile, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            logIdentity = identity(logFile);
+        }
+        // After catching up, anything past validLogLength is a torn tail, perhaps left by another
+        // process that crashed mid-write; drop it so the next record starts on a fresh line
+        if (logChannel.size() > validLogLength) {
+            logChannel.truncate(validLogLength);
+        }
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            while (buffer.hasRemaining()) {
+                logChannel.write(buffer);
+            }
+        } catch (IOException e) {
+            try {
+                logChannel.truncate(validLogLength);
+            } catch (IOException truncateError) {
+                e.addSuppressed(truncateError); // The next append truncates it instead
+            }
+            if (!logChannel.isOpen()) {
+                logChannel = null; // Closed by an interrupt; reopen next time
+            }
+            throw e;
+        }
+        validLogLength += bytes.length;
+        recordsSinceSnapshot += count;
+        IoMetrics.BYTES_WRITTEN.add(bytes.length);
+    }
+
+    private Map<String, Customer> readBaseFile() {
+        String mode = StoreConfig.loaderMode();
+        if (!mode.equals("buffered")) {
+            try {
+                return mode.equals("parallel") ? ParallelRecordLoader.parseCustomers(baseFile)
+                        : MappedRecordParser.parseCustomers(baseFile);
+            } catch (IOException e) {
+                System.out.println("Error reading customers file: " + e.getMessage());
+                return new HashMap<>();
+            }
+        }
+        Map<String, Customer> loaded = new HashMap<>();
+        try (BufferedReader reader = IoMetrics.newReader(baseFile)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split(",");
+                if (parts.length >= 4) {
+                    try {
+                        String username = parts[0];
+                        String password = parts[1];
+                        long balance = Money.parse(parts[2]);
+                        int points = Integer.parseInt(parts[3]);
+
+                        Customer c = new Customer(username, password, balance);
+                        c.setPoints(points); // Restore saved points
+                        if (parts.length >= 5) {
+                            c.setVersion(Long.parseLong(parts[4]));
+                        }
+                        loaded.put(username, c);
+                    } catch (NumberFormatException e) {
+                        // Damaged line; skipped, as the mapped and parallel loaders do
+                    }
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("Error reading customers file: " + e.getMessage());
+        }
+        return loaded;
+    }
+
+    /**
+     * Replays one log file from byte offset from over customers and returns the length of its
+     * fully written part.
+     */
+    private long replayLog(Path file, long from, Map<String, Customer> customers) {
+        if (!Files.exists(file)) {
+            return from;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size <= from) {
+                return from;
+            }
+            ByteBuffer buffer = ByteBuffer.allocate((int) (size - from));
+            while (buffer.hasRemaining() && channel.read(buffer, from + buffer.position()) >= 0) {
+                // Read until the buffer is full or the file ends
+            }
+            IoMetrics.BYTES_READ.add(buffer.position());
+            byte[] bytes = buffer.array();
+            // Only records that end in a newline were fully written; a torn tail is ignored
+            int end = buffer.position();
+            while (end > 0 && bytes[end - 1] != '\n') {
+                end--;
+            }
+            String content = new String(bytes, 0, end, StandardCharsets.UTF_8);
+            for (String line : content.split("\n")) {
+                try {
+                    if (applyRecord(customers, line.split(","))) {
+                        recordsSinceSnapshot++;
+                    }
+                } catch (NumberFormatException e) {
+                    // Damaged record; skip it like any other malformed line
+                }
+            }
+            return from + end;
+        } catch (IOException e) {
+            System.out.println("Error reading customer log: " + e.getMessage());
+            return from;
+        }
+    }
+
+    /**
+     * Applies one record. Changed customers are replaced by new objects, because catchUp applies
+     * records to the live map while other threads read it.
+     */
+    private boolean applyRecord(Map<String, Customer> customers, String[] parts) {
+        if ((parts.length == 5 || parts.length == 6) && parts[0].equals("PUT")) {
+            Customer c = new Customer(parts[1], parts[2], Money.parse(parts[3]));
+            c.setPoints(Integer.parseInt(parts[4]));
+            if (parts.length == 6) {
+                c.setVersion(Long.parseLong(parts[5]));
+            }
+            highestVersion = Math.max(highestVersion, c.getVersion());
+            customers.put(parts[1], c);
+        } else if ((parts.length == 3 || parts.length == 4) && parts[0].equals("BAL")) {
+            Customer c = customers.get(parts[1]);
+            if (c != null) {
+                c = DataStore.copyOf(c);
+                c.setBalanceCents(Money.parse(parts[2]));
+                setVersion(c, parts, 3);
+                highestVersion = Math.max(highestVersion, c.getVersion());
+                customers.put(parts[1], c);
+            }
+        } else if ((parts.length == 3 || parts.length == 4) && parts[0].equals("PTS")) {
+            Customer c = customers.get(parts[1]);
+            if (c != null) {
+                c = DataStore.copyOf(c);
+                c.setPoints(Integer.parseInt(parts[2]));
+                setVersion(c, parts, 3);
+                highestVersion = Math.max(highestVersion, c.getVersion());
+                customers.put(parts[1], c);
+            }
+        } else if ((parts.length == 2 || parts.length == 3) && parts[0].equals("DEL")) {
+            if (parts.length == 3) {
+                highestVersion = Math.max(highestVersion, Long.parseLong(parts[2]));
+            }
+            customers.remove(parts[1]);
+        } else {
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the version on the snapshot's VERSIONS line, or 0 if it has none.
+     */
+    private long readVersionFloor() {
+        if (!Files.exists(baseFile)) {
+            return 0;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(baseFile, StandardCharsets.UTF_8)) {
+            String line = reader.readLine();
+            if (line != null && line.startsWith("VERSIONS,")) {
+                return Long.parseLong(line.substring("VERSIONS,".length()).trim());
+            }
+        } catch (IOException | NumberFormatException e) {
+            System.out.println("Error reading customers file: " + e.getMessage());
+        }
+        return 0;
+    }
+
+    private static void setVersion(Customer customer, String[] parts, int index) {
+        if (parts.length > index) {
+            customer.setVersion(Long.parseLong(parts[index]));
+        }
+    }
+
+    /**
+     * Returns something that stays equal while the same file is at path and changes when the file
+     * is replaced (the inode, or the creation time where there is none), or null if it is missing.
+     */
+    private static Object identity(Path path) {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            Object key = attributes.fileKey();
+            return key != null ? key : attributes.creationTime();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package BookStore.database;
+
+import BookStore.models.Customer;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.IntStream;
+
+/**
+ * One slice of the customers, chosen by username hash, with its own files and commit lock.
+ *
+ * Abstraction Function:
+ * - With one shard (the default) the files are users.txt and users.log, as before sharding.
+ * - With N > 1 shards, shard i keeps its snapshot in users.i-of-N.txt and its log in
+ *   users.i-of-N.log, and holds the customers whose username hash is i modulo N.
+ * - users.shards records which layout is live; no manifest means the one-shard layout.
+ * - users.shards.lock is locked with FileChannel.lock while a process reads the manifest and
+ *   opens, reads or migrates the layout it names.
+ *
+ * Representation Invariant:
+ * - customers only holds usernames that belong to this shard.
+ * - Changes to customers and the matching log records are made while the journal's commit lock
+ *   is held, after catching up with the other processes sharing the files.
+ * - Different layouts never share file names, so a migration writes the complete new layout,
+ *   switches the manifest, and only then deletes the old files; a crash at any point leaves
+ *   one whole layout that the manifest points to.
+ * - A migration holds the manifest lock and every old shard's commit lock from reading the old
+ *   layout until its files are deleted, so no process commits to files being moved and no
+ *   process opens a layout that is being replaced. Processes that keep running on the old layout
+ *   are still not told about the new one, so every process sharing the files must use the same
+ *   shard count.
+ */
+final class CustomerShard {
+    private static final String BASE_NAME = "Users";
+    private static final String MANIFEST_NAME = "Users.shards";
+    // FileChannel.lock refuses a second lock on the same file from one process, so threads queue here first
+    private static final ReentrantLock MANIFEST_LOCK = new ReentrantLock();
+
+    final Map<String, Customer> customers = new ConcurrentHashMap<>();
+    final CustomerJournal journal;
+
+    private CustomerShard(CustomerJournal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Returns the shard a username belongs to.
+     *
+     * Requires: username is not null, count > 0
+     * Modifies: none
+     * Effects: Returns a shard index in [0, count); the same username always maps to the same shard.
+     */
+    static int indexOf(String username, int count) {
+        return Math.floorMod(username.hashCode(), count);
+    }
+
+    /**
+     * Opens every shard in a directory, migrating the files first if the shard count changed.
+     *
+     * Requires: dir is not null, count > 0
+     * Modifies: customer files in dir, users.shards, users.shards.lock
+     * Effects: Returns count shards with their customers loaded, reading the shards in parallel.
+     *          If the files on disk use another shard count, all customers are rewritten into
+     *          the new layout before they are loaded. Waits while another process or thread
+     *          opens or migrates the files.
+     */
+    static CustomerShard[] openAll(Path dir, int count) {
+        FileChannel manifestLock = lockManifest(dir);
+        try {
+            int current = readManifest(dir);
+            if (current != count) {
+                migrate(dir, current, count);
+            }
+            CustomerShard[] shards = new CustomerShard[count];
+            for (int i = 0; i < count; i++) {
+                shards[i] = new CustomerShard(journal(dir, i, count));
+            }
+            IntStream.range(0, count).parallel().forEach(i -> {
+                CustomerJournal journal = shards[i].journal;
+                journal.lock(); // Another process may be compacting this shard
+                try {
+                    shards[i].customers.putAll(journal.load());
+                } finally {
+                    journal.unlock();
+                }
+            });
+            return shards;
+        } finally {
+            unlockManifest(manifestLock);
+        }
+    }
+
+    /**
+     * Reads every customer from the live layout in a directory, whatever its shard count.
+     *
+     * Requires: dir is not null
+     * Modifies: users.shards.lock
+     * Effects: Returns all customers keyed by username, read from the layout users.shards names.
+     *          Unlike openAll, never migrates, so the customer files are left as they are.
+     */
+    static Map<String, Customer> readAll(Path dir) {
+        FileChannel manifestLock = lockManifest(dir);
+        try {
+            int count = readManifest(dir);
+            Map<String, Customer> all = new HashMap<>();
+            for (int i = 0; i < count; i++) {
+                CustomerJournal journal = journal(dir, i, count);
+                journal.lock(); // Another process may be compacting this shard
+                try {
+                    all.putAll(journal.load());
+                } finally {
+                    journal.unlock();
+                }
+            }
+            return all;
+        } finally {
+            unlockManifest(manifestLock);
+        }
+    }
+
+    /**
+     * Moves every customer from the current layout to a layout with another shard count.
+     * Requires the manifest lock; takes every old shard's commit lock until the old files are gone.
+     */
+    private static void migrate(Path dir, int from, int to) {
+        CustomerJournal[] old = new CustomerJournal[from];
+        for (int i = 0; i < from; i++) {
+            old[i] = journal(dir, i, from);
+        }
+        int locked = 0;
+        try {
+            for (CustomerJournal journal : old) {
+                journal.lock(); // Waits for commits and compactions other processes have under way
+                locked++;
+            }
+            moveCustomers(dir, old, to);
+        } finally {
+            for (int i = 0; i < locked; i++) {
+                old[i].unlock();
+            }
+        }
+    }
+
+    /**
+     * Writes the customers in the old journals into a layout with to shards, switches the
+     * manifest to it, then deletes the old files. Requires their commit locks.
+     */
+    private static void moveCustomers(Path dir, CustomerJournal[] old, int to) {
+        int from = old.length;
+        Map<String, Customer> all = new HashMap<>();
+        long highestVersion = 0;
+        for (CustomerJournal journal : old) {
+            all.putAll(journal.load());
+            highestVersion = Math.max(highestVersion, journal.highestVersion());
+        }
+
+        List<List<Customer>> parts = new ArrayList<>();
+        for (int i = 0; i < to; i++) {
+            parts.add(new ArrayList<>());
+        }
+        for (Customer c : all.values()) {
+            parts.get(indexOf(c.getUsername(), to)).add(c);
+        }
+        for (int i = 0; i < to; i++) {
+            CustomerJournal target = journal(dir, i, to);
+            target.deleteLogs(); // Left over from an earlier layout, not live
+            target.raiseHighestVersion(highestVersion); // Removed customers may be re-added in any shard
+            if (!target.writeSnapshot(parts.get(i))) {
+                System.out.println("Customer shard migration abandoned; keeping " + from + " shard(s)");
+                return;
+            }
+        }
+        try {
+            String manifest = to + "\n";
+            AtomicFiles.write(dir.resolve(MANIFEST_NAME), out -> out.write(manifest.getBytes(StandardCharsets.UTF_8)));
+        } catch (IOException e) {
+            System.out.println("Error writing customer shard manifest: " + e.getMessage());
+            return;
+        }
+        for (CustomerJournal journal : old) {
+            journal.deleteFiles();
+        }
+    }
+
+    /**
+     * Takes the manifest lock, shared with every other process using dir, and returns the channel
+     * holding it. If the file cannot be locked the error is reported, only threads of this process
+     * are kept out, and null is returned.
+     */
+    private static FileChannel lockManifest(Path dir) {
+        MANIFEST_LOCK.lock();
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(dir.resolve(MANIFEST_NAME + ".lock"),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            channel.lock(); // Released when the channel is closed
+            return channel;
+        } catch (IOException e) {
+            System.out.println("Error locking customer shard manifest: " + e.getMessage());
+            try {
+                if (channel != null) {
+                    channel.close();
+                }
+            } catch (IOException closeError) {
+                // Nothing was locked through it
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Releases what lockManifest took.
+     */
+    private static void unlockManifest(FileChannel channel) {
+        try {
+            if (channel != null) {
+                channel.close();
+            }
+        } catch (IOException e) {
+            System.out.println("Error unlocking customer shard manifest: " + e.getMessage());
+        } finally {
+            MANIFEST_LOCK.unlock();
+        }
+    }
+
+    private static int readManifest(Path dir) {
+        Path manifest = dir.resolve(MANIFEST_NAME);
+        if (!Files.exists(manifest)) {
+            return 1;
+        }
+        try {
+            return Integer.parseInt(new String(Files.readAllBytes(manifest), StandardCharsets.UTF_8).trim());
+        } catch (IOException | NumberFormatException e) {
+            System.out.println("Error reading customer shard manifest: " + e.getMessage());
+            return 1;
+        }
+    }
+
+    private static CustomerJournal journal(Path dir, int shard, int count) {
+        String name = count == 1 ? BASE_NAME : BASE_NAME + "." + shard + "-of-" + count;
+        return new CustomerJournal(dir.resolve(name + ".txt").toString(), dir.resolve(name + ".log").toString());
+    }
+}
@@ -0,0 +1,1016 @@
+package BookStore.database;
+
+import BookStore.models.Book;
+import BookStore.models.Customer;
+import BookStore.utils.InputValidator;
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Resident in-memory copy of all books and customers, shared by every DatabaseManager.
+ *
+ * Abstraction Function:
+ * - Holds the contents of books.txt and users.txt, loaded once when the store is first used.
+ * - Reads are answered from memory; every change is applied in memory and then written through to the files.
+ * - Customer changes are appended to users.log as small records instead of rewriting users.txt.
+ * - A background compactor periodically folds users.log into a new users.txt snapshot.
+ * - Customers are split into bookstore.customer.shards shards by username hash (see CustomerShard),
+ *   each with its own files and lock, so a compaction rewrites only one shard's snapshot.
+ * - Several processes may share the customer files. Customer changes are optimistic: the new
+ *   value is computed without any lock, then committed under the shard's cross-process commit
+ *   lock (see CustomerJournal) only if the customer's version is still the one it was computed
+ *   from; otherwise just that customer's change is computed again.
+ * - Customer reads never touch the disk. Changes other processes made reach memory when this
+ *   process next commits to the shard, or when a daemon thread catches every shard up, every
+ *   bookstore.customer.refresh milliseconds.
+ * - The catalog is also kept in the binary books.bin format, which loads faster than books.txt.
+ * - The resident catalog is indexed by normalized title, so title checks and removals are hash lookups.
+ *   The first title search also builds a word/prefix search index, which every later change updates.
+ * - A CatalogWatcher notices when another process changes books.txt; only the difference is
+ *   applied to memory and registered CatalogListeners are told what changed.
+ * - With bookstore.catalog.resident=false the catalog is not kept in memory at all: book reads
+ *   stream books.txt and book changes edit the file directly, so any catalog size fits.
+ *
+ * Representation Invariant:
+ * - books and shards are never null; books is empty when the catalog is not resident.
+ * - Each customer is in shards[CustomerShard.indexOf(username, shards.length)] and no other shard.
+ * - Books and customers handed out to callers are copies, so outside changes only reach
+ *   the store through one of its update methods.
+ * - After a write completes, the files hold the same data as memory.
+ * - Files are replaced atomically, and concurrent saves are coalesced by a GroupCommitter.
+ * - booksOnDisk is the catalog as this program last read or wrote books.txt. Outside changes
+ *   are measured against it rather than against memory, so changes not yet flushed survive.
+ * - Customer records are appended while the shard's commit lock is held and memory has caught
+ *   up with the log, so each shard's log order matches the order the changes were made in, across
+ *   processes. The lock covers only the check and the append, never the computation of a change.
+ * - A stored customer's version grows by one with each change that is logged.
+ * - Customer objects inside the map are never modified; a change stores a new object.
+ */
+class DataStore implements Storage {
+    static final String BOOKS_FILE = Paths.get(StoreConfig.dataDir(), "Books.txt").toString();
+    private static final String BOOKS_BINARY_FILE = Paths.get(StoreConfig.dataDir(), "Books.bin").toString();
+
+    private final boolean residentCatalog = StoreConfig.residentCatalog();
+    private final BookCatalog books = new BookCatalog();
+    private final ReadWriteLock booksLock = new ReentrantReadWriteLock();
+    private final GroupCommitter booksCommitter =
+            new GroupCommitter(this::flushBooks, StoreConfig.commitWindowMicros() * 1000);
+    private final ReentrantLock booksFileLock = new ReentrantLock();
+    private final ReentrantLock booksSyncLock = new ReentrantLock();
+    private List<Book> booksOnDisk = new ArrayList<>();
+    private final Set<CatalogListener> catalogListeners =
+            Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+
+    private final CustomerShard[] shards;
+    private final ReentrantLock compactionLock = new ReentrantLock();
+    private final CustomerCompactor compactor;
+
+    /**
+     * Holds the single store instance; the class is only initialized on first use.
+     */
+    private static class Holder {
+        private static final DataStore INSTANCE = new DataStore();
+    }
+
+    /**
+     * Creates the store and loads both data files into memory.
+     *
+     * Requires: none
+     * Modifies: this
+     * Effects: Fills books from books.txt and customers from the customer shards (loaded in
+     *          parallel, after migrating them if the shard count changed), finishes any interrupted
+     *          compaction, starts the background compactor and the customer refresh timer, and
+     *          starts watching books.txt.
+     */
+    private DataStore() {
+        if (residentCatalog) {
+            booksOnDisk = readBooksFile();
+            for (Book book : booksOnDisk) {
+                books.add(book);
+            }
+            if (StoreConfig.watchCatalog()) {
+                try {
+                    new CatalogWatcher(Paths.get(BOOKS_FILE), this::reloadChangedBooks);
+                } catch (IOException e) {
+                    System.out.println("Error watching books file: " + e.getMessage());
+                }
+            }
+        }
+        shards = CustomerShard.openAll(Paths.get(StoreConfig.dataDir()), StoreConfig.customerShards());
+        compactCustomersIfDue();
+        long interval = StoreConfig.snapshotIntervalSeconds();
+        compactor = new CustomerCompactor(this::compactCustomersIfDue, Math.max(1, interval / 4));
+        ScheduledExecutorService refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "customer-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long refreshMillis = StoreConfig.customerRefreshMillis();
+        refresher.scheduleWithFixedDelay(this::refreshCustomers, refreshMillis, refreshMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Returns the shared store, loading it on first call.
+     *
+     * Requires: none
+     * Modifies: none
+     * Effects: Returns the one resident store for this program.
+     */
+    static DataStore get() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Returns copies of all books in file order.
+     *
+     * Requires: none
+     * Modifies: none
+     * Effects: Returns a new list the caller may change freely.
+     */
+    @Override
+    public List<Book> getBooks() {
+        if (!residentCatalog) {
+            List<Book> loaded = new ArrayList<>();
+            try (Stream<Book> stream = streamBooks()) {
+                stream.forEach(loaded::add);
+            }
+            return loaded;
+        }
+        booksLock.readLock().lock();
+        try {
+            List<Book> copy = new ArrayList<>(books.size());
+            for (Book book : books) {
+                copy.add(copyOf(book));
+            }
+            return copy;
+        } finally {
+            booksLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Streams copies of all books in file order.
+     *
+     * Requires: none
+     * Modifies: none
+     * Effects: Returns a lazy stream that must be closed. When the catalog is resident it walks
+     *          a snapshot of memory; otherwise it parses books.txt one line at a time, so memory
+     *          use does not depend on the catalog size.
+     */
+    @Override
+    public Stream<Book> streamBooks() {
+        if (residentCatalog) {
+            List<Book> snapshot;
+            booksLock.readLock().lock();
+            try {
+                snapshot = books.toList();
+            } finally {
+                booksLock.readLock().unlock();
+            }
+            return snapshot.stream().map(DataStore::copyOf);
+        }
+        try {
+            return BookTextFile.stream(Paths.get(BOOKS_FILE));
+        } catch (IOException e) {
+            System.out.println("Error reading books file: " + e.getMessage());
+            return Stream.empty();
+        }
+    }
+
+    /**
+     * Returns one page of the catalog.
+     *
+     * Requires: offset ≥ 0, limit ≥ 0
+     * Modifies: none
+     * Effects: Returns copies of at most limit books starting at position offset. When the catalog
+     *          is resident the page is cut from the catalog's list snapshot by index, so the cost
+     *          depends on limit, not on offset or the catalog size.
+     */
+    @Override
+    public List<Book> getBooksPage(long offset, int limit) {
+        if (!residentCatalog) {
+            return Storage.super.getBooksPage(offset, limit);
+        }
+        List<Book> snapshot;
+        booksLock.readLock().lock();
+        try {
+            snapshot = books.toList();
+        } finally {
+            booksLock.readLock().unlock();
+        }
+        int from = (int) Math.min(offset, snapshot.size());
+        int to = (int) Math.min((long) from + limit, snapshot.size());
+        return copiesOf(snapshot.subList(from, to));
+    }
+
+    /**
+     * Checks whether a book with the title exists, ignoring case and surrounding spaces.
+     *
+     * Requires: title is not null.
+     * Modifies: none
+     * Effects: Returns true if a matching book is in the catalog.
+     */
+    @Override
+    public boolean containsBook(String title) {
+        if (residentCatalog) {
+            booksLock.readLock().lock();
+            try {
+                return books.contains(title.trim());
+            } finally {
+                booksLock.readLock().unlock();
+            }
+        }
+        try (Stream<Book> stream = streamBooks()) {
+            return InputValidator.bookAlreadyExists(stream::iterator, title);
+        }
+    }
+
+    /**
+     * Looks up a book by title, ignoring case.
+     *
+     * Requires: title is not null.
+     * Modifies: none
+     * Effects: Returns a copy of the first book with the title, or null if there is none.
+     */
+    @Override
+    public Book findBook(String title) {
+        if (residentCatalog) {
+            booksLock.readLock().lock();
+            try {
+                Book book = books.find(title);
+                return book == null ? null : copyOf(book);
+            } finally {
+                booksLock.readLock().unlock();
+            }
+        }
+        try (Stream<Book> stream = streamBooks()) {
+            return stream.filter(book -> book.getTitle().equalsIgnoreCase(title)).findFirst().orElse(null);
+        }
+    }
+
+    /**
+     * Finds the titles in a batch that are already in the catalog or repeat within the batch.
+     *
+     * Requires: titles is not null and holds no nulls.
+     * Modifies: none
+     * Effects: Returns the duplicate titles in batch order. Uses the title index when the
+     *          catalog is resident, or a single pass over books.txt when it is not.
+     */
+    @Override
+    public List<String> findDuplicateTitles(List<String> titles) {
+        if (residentCatalog) {
+            booksLock.readLock().lock();
+            try {
+                return InputValidator.duplicateTitles(titles, books::contains);
+            } finally {
+                booksLock.readLock().unlock();
+            }
+        }
+        try (Stream<Book> stream = streamBooks()) {
+            return InputValidator.duplicateTitles(stream::iterator, titles);
+        }
+    }
+
+    /**
+     * Searches book titles by prefix and words.
+     *
+     * Requires: query is not null, limit ≥ 0
+     * Modifies: none (the first search builds the search index)
+     * Effects: Returns at most limit copies of the best matching books, best first.
+     *          Uses the in-memory search index when the catalog is resident.
+     */
+    @Override
+    public List<Book> searchBooks(String query, int limit) {
+        if (!residentCatalog) {
+            return Storage.super.searchBooks(query, limit);
+        }
+        booksLock.readLock().lock();
+        try {
+            if (books.hasSearchIndex()) {
+                return copiesOf(books.search(query, limit));
+            }
+        } finally {
+            booksLock.readLock().unlock();
+        }
+        booksLock.writeLock().lock();
+        try {
+            books.buildSearchIndex();
+            return copiesOf(books.search(query, limit));
+        } finally {
+            booksLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Writes the catalog to another text file.
+     *
+     * Requires: target is not null.
+     * Modifies: target file
+     * Effects: Streams every book into target in books.txt format. Throws IOException on failure.
+     */
+    @Override
+    public void exportBooks(Path target) throws IOException {
+        try (Stream<Book> stream = streamBooks()) {
+            BookTextFile.write(target, stream.iterator());
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Replaces all books with the given list.
+     *
+     * Requires: newBooks is not null.
+     * Modifies: this, books.txt file
+     * Effects: Stores copies of newBooks in memory and rewrites the file.
+     */
+    @Override
+    public void replaceBooks(List<Book> newBooks) {
+        if (!residentCatalog) {
+            booksFileLock.lock();
+            try {
+                try {
+                    BookTextFile.write(Paths.get(BOOKS_FILE), newBooks);
+                } catch (IOException e) {
+                    System.out.println("Error writing to books file: " + e.getMessage());
+                }
+            } finally {
+                booksFileLock.unlock();
+            }
+            return;
+        }
+        booksLock.writeLock().lock();
+        try {
+            books.clear();
+            for (Book book : newBooks) {
+                books.add(copyOf(book));
+            }
+        } finally {
+            booksLock.writeLock().unlock();
+        }
+        persistBooks();
+    }
+
+    /**
+     * Adds one book to the end of the catalog.
+     *
+     * Requires: book is not null.
+     * Modifies: this, books.txt file
+     * Effects: Appends a copy of the book and rewrites the file.
+     *          A non-resident catalog only appends one line to the file.
+     */
+    @Override
+    public void addBook(Book book) {
+        if (!residentCatalog) {
+            booksFileLock.lock();
+            try {
+                try {
+                    BookTextFile.append(Paths.get(BOOKS_FILE), book);
+                } catch (IOException e) {
+                    System.out.println("Error writing to books file: " + e.getMessage());
+                }
+            } finally {
+                booksFileLock.unlock();
+            }
+            return;
+        }
+        booksLock.writeLock().lock();
+        try {
+            books.add(copyOf(book));
+        } finally {
+            booksLock.writeLock().unlock();
+        }
+        persistBooks();
+    }
+
+    /**
+     * Removes every book whose title matches, ignoring case.
+     *
+     * Requires: title is not null.
+     * Modifies: this, books.txt file
+     * Effects: Deletes matching books and rewrites the file if anything was removed.
+     *          A non-resident catalog is rewritten by streaming it line by line.
+     */
+    @Override
+    public void removeBook(String title) {
+        if (!residentCatalog) {
+            booksFileLock.lock();
+            try {
+                try {
+                    BookTextFile.removeIf(Paths.get(BOOKS_FILE), book -> book.getTitle().equalsIgnoreCase(title));
+                } catch (IOException e) {
+                    System.out.println("Error writing to books file: " + e.getMessage());
+                }
+            } finally {
+                booksFileLock.unlock();
+            }
+            return;
+        }
+        boolean removed;
+        booksLock.writeLock().lock();
+        try {
+            removed = !books.remove(title).isEmpty();
+        } finally {
+            booksLock.writeLock().unlock();
+        }
+        if (removed) {
+            persistBooks();
+        }
+    }
+
+    @Override
+    public void addCatalogListener(CatalogListener listener) {
+        catalogListeners.add(listener);
+    }
+
+    @Override
+    public void removeCatalogListener(CatalogListener listener) {
+        catalogListeners.remove(listener);
+    }
+
+    /**
+     * Applies an outside change to books.txt.
+     *
+     * Requires: none
+     * Modifies: this
+     * Effects: Reads books.txt, works out which books were added, removed or re-priced since this
+     *          program last read or wrote it, applies just those changes to memory and tells the
+     *          catalog listeners. Does nothing when the file matches what was last written.
+     */
+    void reloadChangedBooks() {
+        CatalogDelta delta;
+        booksSyncLock.lock();
+        try {
+            List<Book> onDisk;
+            try {
+                onDisk = BookTextFile.read(Paths.get(BOOKS_FILE));
+            } catch (IOException e) {
+                System.out.println("Error reading books file: " + e.getMessage());
+                return;
+            }
+            delta = CatalogDelta.between(booksOnDisk, onDisk);
+            booksOnDisk = onDisk;
+            if (delta.isEmpty()) {
+                return;
+            }
+            booksLock.writeLock().lock();
+            try {
+                for (Book book : delta.getRemoved()) {
+                    books.remove(book.getTitle());
+                }
+                for (Book book : delta.getAdded()) {
+                    if (!books.contains(book.getTitle())) {
+                        books.add(copyOf(book));
+                    }
+                }
+                for (Book book : delta.getRepriced()) {
+                    books.reprice(book.getTitle(), book.getPriceCents());
+                }
+            } finally {
+                booksLock.writeLock().unlock();
+            }
+        } finally {
+            booksSyncLock.unlock();
+        }
+        List<CatalogListener> listeners;
+        synchronized (catalogListeners) {
+            listeners = new ArrayList<>(catalogListeners);
+        }
+        for (CatalogListener listener : listeners) {
+            listener.catalogChanged(delta);
+        }
+    }
+
+    /**
+     * Returns copies of all customers.
+     *
+     * Requires: none
+     * Modifies: none
+     * Effects: Returns a new map keyed by username that the caller may change freely, read from
+     *          memory only.
+     */
+    @Override
+    public Map<String, Customer> getCustomers() {
+        Map<String, Customer> copy = new HashMap<>();
+        for (CustomerShard shard : shards) {
+            for (Customer c : shard.customers.values()) {
+                copy.put(c.getUsername(), copyOf(c));
+            }
+        }
+        return copy;
+    }
+
+    /**
+     * Looks up one customer by username.
+     *
+     * Requires: username is not null.
+     * Modifies: none
+     * Effects: Returns a copy of the customer, with its version, or null if not found. Read from
+     *          memory only.
+     */
+    @Override
+    public Customer getCustomer(String username) {
+        CustomerShard shard = shardOf(username);
+        Customer c = shard.customers.get(username);
+        return c == null ? null : copyOf(c);
+    }
+
+    /**
+     * Replaces all customers with the given map.
+     *
+     * Requires: newCustomers is not null.
+     * Modifies: this, users.log file
+     * Effects: Stores copies of the customers in memory and logs one record for each
+     *          customer that was removed, added or changed. Each shard is replaced as one step.
+     *          A customer whose record cannot be logged keeps its old value in memory.
+     */
+    @Override
+    public void replaceCustomers(Map<String, Customer> newCustomers) {
+        List<List<Customer>> byShard = new ArrayList<>(shards.length);
+        for (int i = 0; i < shards.length; i++) {
+            byShard.add(new ArrayList<>());
+        }
+        for (Customer c : newCustomers.values()) {
+            byShard.get(CustomerShard.indexOf(c.getUsername(), shards.length)).add(c);
+        }
+        for (int i = 0; i < shards.length; i++) {
+            CustomerShard shard = shards[i];
+            shard.journal.lock();
+            try {
+                shard.journal.catchUp(shard.customers);
+                for (String username : new ArrayList<>(shard.customers.keySet())) {
+                    if (!newCustomers.containsKey(username)) {
+                        shard.journal.recordRemoval(shard.customers.get(username));
+                        shard.customers.remove(username);
+                    }
+                }
+                for (Customer c : byShard.get(i)) {
+                    store(shard, shard.customers.get(c.getUsername()), c);
+                }
+            } catch (IOException e) {
+                System.out.println("Error appending to customer log: " + e.getMessage());
+            } finally {
+                shard.journal.unlock();
+            }
+            afterCustomerChange(shard);
+        }
+    }
+
+    /**
+     * Adds a customer, or replaces the one with the same username whatever its version.
+     *
+     * Requires: customer is not null.
+     * Modifies: this, users.log file
+     * Effects: Stores a copy of the customer and logs what changed. If the change cannot be logged
+     *          the error is reported and the stored customer is left as it was.
+     */
+    @Override
+    public void putCustomer(Customer customer) {
+        CustomerShard shard = shardOf(customer.getUsername());
+        shard.journal.lock();
+        try {
+            shard.journal.catchUp(shard.customers);
+            store(shard, shard.customers.get(customer.getUsername()), customer);
+        } catch (IOException e) {
+            System.out.println("Error appending to customer log: " + e.getMessage());
+        } finally {
+            shard.journal.unlock();
+        }
+        afterCustomerChange(shard);
+    }
+
+    /**
+     * Replaces a customer only if nobody changed it since it was read.
+     *
+     * Requires: customer is not null.
+     * Modifies: this, users.log file
+     * Effects: If the stored customer exists and has customer's version, stores a copy of customer,
+     *          logs what changed and makes the record durable, and returns true. Otherwise, or if
+     *          the record cannot be written or made durable, leaves the customer as it was and
+     *          returns false.
+     */
+    @Override
+    public boolean compareAndPutCustomer(Customer customer) {
+        CustomerShard shard = shardOf(customer.getUsername());
+        Customer current;
+        Customer stored;
+        shard.journal.lock();
+        try {
+            shard.journal.catchUp(shard.customers);
+            current = shard.customers.get(customer.getUsername());
+            if (current == null || current.getVersion() != customer.getVersion()) {
+                return false;
+            }
+            stored = store(shard, current, customer);
+        } catch (IOException e) {
+            System.out.println("Error appending to customer log: " + e.getMessage());
+            return false;
+        } finally {
+            shard.journal.unlock();
+        }
+        if (!afterCustomerChange(shard)) {
+            rollBack(shard, List.of(current), List.of(stored));
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Removes a customer by username.
+     *
+     * Requires: username is not null.
+     * Modifies: this, users.log file
+     * Effects: Deletes the customer and logs the removal if the customer existed. If the removal
+     *          cannot be logged the error is reported and the customer is kept.
+     */
+    @Override
+    public void removeCustomer(String username) {
+        CustomerShard shard = shardOf(username);
+        shard.journal.lock();
+        try {
+            shard.journal.catchUp(shard.customers);
+            Customer current = shard.customers.get(username);
+            if (current != null) {
+                shard.journal.recordRemoval(current);
+                shard.customers.remove(username);
+            }
+        } catch (IOException e) {
+            System.out.println("Error appending to customer log: " + e.getMessage());
+        } finally {
+            shard.journal.unlock();
+        }
+        afterCustomerChange(shard);
+    }
+
+    /**
+     * Applies a change to one customer as a single step.
+     *
+     * Requires: username and change are not null; change only modifies the customer it is given.
+     * Modifies: this, users.log file
+     * Effects: Runs change on a copy of the customer, without holding any lock. If it returns true
+     *          and the customer was not changed meanwhile (by this or another process), the copy
+     *          replaces the stored customer and the change is logged. If it was changed meanwhile,
+     *          change runs again on the new value, so change may run more than once.
+     *          Returns false if the customer does not exist or the change was rejected, and also
+     *          if the change could not be logged or made durable, in which case it is undone.
+     */
+    @Override
+    public boolean modifyCustomer(String username, Predicate<Customer> change) {
+        CustomerShard shard = shardOf(username);
+        while (true) {
+            Customer base = shard.customers.get(username);
+            Customer working = base == null ? null : copyOf(base);
+            boolean accepted = working != null && change.test(working);
+            Customer current;
+            Customer stored;
+            shard.journal.lock();
+            try {
+                shard.journal.catchUp(shard.customers);
+                current = shard.customers.get(username);
+                if (current == null ? base != null : base == null || current.getVersion() != base.getVersion()) {
+                    continue; // Changed since change ran; a rejection may no longer hold either
+                }
+                if (!accepted) {
+                    return false;
+                }
+                stored = store(shard, current, working);
+            } catch (IOException e) {
+                System.out.println("Error appending to customer log: " + e.getMessage());
+                return false;
+            } finally {
+                shard.journal.unlock();
+            }
+            if (!afterCustomerChange(shard)) {
+                rollBack(shard, List.of(current), List.of(stored));
+                return false;
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Applies many changes with one commit per shard.
+     *
+     * Requires: changes is not null; each change only modifies the customer it is given.
+     * Modifies: this, users.log file
+     * Effects: For each shard the changes touch, takes its commit lock once, catches up once, runs
+     *          that shard's changes in list order on copies (each change seeing the accepted changes
+     *          before it), logs every changed customer in one write and flushes once. Each change
+     *          runs exactly once. Returns, for each change, false if its customer does not exist or
+     *          the change was rejected, true if it was stored. If a shard's records cannot be
+     *          logged or made durable, that shard's changes are undone and all return false.
+     */
+    @Override
+    public boolean[] modifyCustomers(List<Map.Entry<String, Predicate<Customer>>> changes) {
+        boolean[] accepted = new boolean[changes.size()];
+        List<List<Integer>> byShard = new ArrayList<>(shards.length);
+        for (int i = 0; i < shards.length; i++) {
+            byShard.add(new ArrayList<>());
+        }
+        for (int i = 0; i < accepted.length; i++) {
+            byShard.get(CustomerShard.indexOf(changes.get(i).getKey(), shards.length)).add(i);
+        }
+        for (int i = 0; i < shards.length; i++) {
+            if (byShard.get(i).isEmpty()) {
+                continue;
+            }
+            CustomerShard shard = shards[i];
+            List<Customer> before;
+            List<Customer> after;
+            shard.journal.lock();
+            try {
+                shard.journal.catchUp(shard.customers);
+                Map<String, Customer> working = new LinkedHashMap<>();
+                for (int index : byShard.get(i)) {
+                    String username = changes.get(index).getKey();
+                    Customer customer = working.get(username);
+                    if (customer == null) {
+                        customer = shard.customers.get(username);
+                        if (customer == null) {
+                            continue;
+                        }
+                    }
+                    Customer attempt = copyOf(customer);
+                    if (changes.get(index).getValue().test(attempt)) {
+                        working.put(username, attempt);
+                        accepted[index] = true;
+                    }
+                }
+                after = new ArrayList<>(working.values());
+                before = storeAll(shard, after);
+            } catch (IOException e) {
+                System.out.println("Error appending to customer log: " + e.getMessage());
+                reject(accepted, byShard.get(i));
+                continue;
+            } finally {
+                shard.journal.unlock();
+            }
+            if (!afterCustomerChange(shard)) {
+                rollBack(shard, before, after);
+                reject(accepted, byShard.get(i));
+            }
+        }
+        return accepted;
+    }
+
+    /**
+     * Writes a new snapshot for each customer shard whose snapshot triggers have fired.
+     *
+     * Requires: none
+     * Modifies: customer snapshot and log files
+     * Effects: For every shard that logged enough records, or whose oldest record has waited long
+     *          enough, folds its log into a new snapshot so startup only replays newer records.
+     *          Shards that are not due are left alone. Commits to a shard wait while it is compacted.
+     */
+    void compactCustomersIfDue() {
+        compactionLock.lock();
+        try {
+            long maxAgeMillis = StoreConfig.snapshotIntervalSeconds() * 1000;
+            for (CustomerShard shard : shards) {
+                if (!shard.journal.snapshotDue(StoreConfig.snapshotRecordThreshold(), maxAgeMillis)) {
+                    continue;
+                }
+                shard.journal.lock();
+                try {
+                    shard.journal.catchUp(shard.customers);
+                    // Another process may have compacted this shard while we waited for the lock
+                    if (shard.journal.snapshotDue(StoreConfig.snapshotRecordThreshold(), maxAgeMillis)) {
+                        // Stored customers are replaced on change, never modified, so sharing them is safe
+                        List<Customer> snapshot = new ArrayList<>(shard.customers.values());
+                        shard.journal.rotate();
+                        shard.journal.writeSnapshot(snapshot);
+                    }
+                } finally {
+                    shard.journal.unlock();
+                }
+            }
+        } finally {
+            compactionLock.unlock();
+        }
+    }
+
+    /**
+     * Stores a copy of customer as the next version after current and logs what changed, and
+     * returns what is stored now. Requires the shard's commit lock, after catching up. Memory is
+     * only changed once the record is written; if it cannot be, IOException is thrown.
+     */
+    private static Customer store(CustomerShard shard, Customer current, Customer customer) throws IOException {
+        Customer copy = copyOf(customer);
+        copy.setVersion(current == null ? shard.journal.newCustomerVersion() : current.getVersion() + 1);
+        if (!shard.journal.recordChange(current, copy)) {
+            return current;
+        }
+        shard.customers.put(copy.getUsername(), copy);
+        return copy;
+    }
+
+    /**
+     * Stores each customer as the next version after the stored one, logging them in one write,
+     * and returns the previously stored values in the same order. Requires the shard's commit lock,
+     * after catching up; the customers must not be shared. Memory is only changed once the records
+     * are written; if they cannot be, IOException is thrown.
+     */
+    private static List<Customer> storeAll(CustomerShard shard, Collection<Customer> customers) throws IOException {
+        List<Customer> before = new ArrayList<>(customers.size());
+        List<Customer> after = new ArrayList<>(customers.size());
+        for (Customer customer : customers) {
+            Customer current = shard.customers.get(customer.getUsername());
+            customer.setVersion(current == null ? shard.journal.newCustomerVersion() : current.getVersion() + 1);
+            before.add(current);
+            after.add(customer);
+        }
+        boolean[] written = shard.journal.recordChanges(before, after);
+        for (int i = 0; i < written.length; i++) {
+            if (written[i]) {
+                shard.customers.put(after.get(i).getUsername(), after.get(i));
+            }
+        }
+        return before;
+    }
+
+    /**
+     * Undoes changes whose records were written but could not be made durable, by logging each
+     * customer's previous value as a newer version. A customer changed again since is left alone,
+     * as is one that did not exist before.
+     */
+    private void rollBack(CustomerShard shard, List<Customer> before, List<Customer> after) {
+        shard.journal.lock();
+        try {
+            shard.journal.catchUp(shard.customers);
+            List<Customer> restored = new ArrayList<>();
+            for (int i = 0; i < after.size(); i++) {
+                Customer current = shard.customers.get(after.get(i).getUsername());
+                if (before.get(i) != null && current != null && current.getVersion() == after.get(i).getVersion()) {
+                    restored.add(copyOf(before.get(i)));
+                }
+            }
+            storeAll(shard, restored);
+        } catch (IOException e) {
+            System.out.println("Error undoing customer change: " + e.getMessage());
+        } finally {
+            shard.journal.unlock();
+        }
+        syncJournal(shard.journal);
+    }
+
+    private static void reject(boolean[] accepted, List<Integer> indexes) {
+        for (int index : indexes) {
+            accepted[index] = false;
+        }
+    }
+
+    /**
+     * Flushes the shard's customer log, then hands compaction to the background thread once the
+     * record-count trigger is reached. Returns false if the log could not be made durable.
+     */
+    private boolean afterCustomerChange(CustomerShard shard) {
+        if (!syncJournal(shard.journal)) {
+            return false;
+        }
+        if (compactor != null && shard.journal.snapshotDue(StoreConfig.snapshotRecordThreshold(), Long.MAX_VALUE)) {
+            compactor.request();
+        }
+        return true;
+    }
+
+    /**
+     * Catches every shard up with changes other processes made, skipping any shard that is being
+     * committed to; that commit catches up instead.
+     */
+    private void refreshCustomers() {
+        for (CustomerShard shard : shards) {
+            try {
+                shard.journal.refresh(shard.customers);
+            } catch (RuntimeException e) {
+                // Keep the timer alive; the next run will try again
+                System.out.println("Error reading customer log: " + e.getMessage());
+            }
+        }
+    }
+
+    private CustomerShard shardOf(String username) {
+        return shards[CustomerShard.indexOf(username, shards.length)];
+    }
+
+    /**
+     * Makes the current books durable, sharing one write with any concurrent savers.
+     */
+    private void persistBooks() {
+        try {
+            booksCommitter.commit();
+        } catch (IOException e) {
+            System.out.println("Error writing to books file: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Writes the current books to books.txt.
+     * The snapshot is taken when the write starts, so it holds every change made before it. It is
+     * taken under booksSyncLock, so a reload of outside changes either finishes before it (and is
+     * in the snapshot) or starts after the write (and is measured against what was written).
+     */
+    private void flushBooks() throws IOException {
+        booksSyncLock.lock();
+        try {
+            List<Book> snapshot;
+            booksLock.readLock().lock();
+            try {
+                snapshot = books.toList();
+            } finally {
+                booksLock.readLock().unlock();
+            }
+            writeBooksFile(snapshot);
+            booksOnDisk = snapshot; // Books in memory are replaced, never changed, so sharing is safe
+        } finally {
+            booksSyncLock.unlock();
+        }
+    }
+
+    /**
+     * Makes the logged customer changes durable, sharing one flush with any concurrent writers.
+     * Returns false, after reporting the error, if the flush failed.
+     */
+    private static boolean syncJournal(CustomerJournal journal) {
+        try {
+            journal.sync();
+            return true;
+        } catch (IOException e) {
+            System.out.println("Error appending to customer log: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Loads the catalog, preferring books.bin when it is valid and was written from books.txt as
+     * it is now (see BookCatalogFile.isCurrent).
+     */
+    private static List<Book> readBooksFile() {
+        Path textFile = Paths.get(BOOKS_FILE);
+        Path binaryFile = Paths.get(BOOKS_BINARY_FILE);
+        try {
+            if (StoreConfig.binaryCatalog() && Files.exists(binaryFile)
+                    && (!Files.exists(textFile) || BookCatalogFile.isCurrent(binaryFile, textFile))) {
+                try {
+                    return BookCatalogFile.read(binaryFile);
+                } catch (IOException e) {
+                    System.out.println("Ignoring binary catalog: " + e.getMessage());
+                }
+            }
+            // Described before reading, so an edit made while reading marks books.bin out of date
+            BookCatalogFile.Source source = Files.exists(textFile) ? BookCatalogFile.Source.of(textFile) : null;
+            List<Book> loaded = BookTextFile.read(textFile);
+            if (StoreConfig.binaryCatalog() && source != null) {
+                BookCatalogFile.write(binaryFile, loaded, source); // Faster start next time
+            }
+            return loaded;
+        } catch (IOException e) {
+            System.out.println("Error reading books file: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Saves the catalog to books.txt and, when enabled, to books.bin after it.
+     */
+    private static void writeBooksFile(List<Book> snapshot) throws IOException {
+        BookTextFile.write(Paths.get(BOOKS_FILE), snapshot);
+        if (StoreConfig.binaryCatalog()) {
+            try {
+                BookCatalogFile.write(Paths.get(BOOKS_BINARY_FILE), snapshot,
+                        BookCatalogFile.Source.of(Paths.get(BOOKS_FILE)));
+            } catch (IOException e) {
+                System.out.println("Error writing binary catalog: " + e.getMessage());
+            }
+        }
+    }
+
+    private static List<Book> copiesOf(List<Book> books) {
+        List<Book> copies = new ArrayList<>(books.size());
+        for (Book book : books) {
+            copies.add(copyOf(book));
+        }
+        return copies;
+    }
+
+    private static Book copyOf(Book book) {
+        return new Book(book.getTitle(), book.getPriceCents());
+    }
+
+    static Customer copyOf(Customer customer) {
+        Customer c = new Customer(customer.getUsername(), customer.getPassword(), customer.getBalanceCents());
+        c.setPoints(customer.getPoints());
+        c.setVersion(customer.getVersion());
+        return c;
+    }
+}
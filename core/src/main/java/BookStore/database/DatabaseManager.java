@@ -0,0 +1,441 @@
+package BookStore.database;
+
+import BookStore.metrics.Metrics;
+import BookStore.metrics.Timer;
+import BookStore.models.Book;
+import BookStore.models.Customer;
+import BookStore.models.Purchase;
+import BookStore.utils.StripedLock;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.function.Predicate;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * Manages reading and writing data to files for books and customers.
+ *
+ * Abstraction Function:
+ * - Handles all file operations (loading, saving, updating) for persistent storage.
+ * - Supports both books and customer data.
+ * - Reads are served from a resident in-memory store that is loaded once;
+ *   changes are written through to the files.
+ * - With bookstore.backend=sql, books and customers live in an embedded SQL database instead.
+ * - Changes to one customer in this program are serialized by a striped lock keyed by username,
+ *   so checkouts for the same customer take turns while checkouts for different customers
+ *   run in parallel.
+ * - Every load and save is timed by a "db.<method>" timer in Metrics; db.customerLockWaits
+ *   shows how often changes waited for the striped lock.
+ *
+ * Representation Invariant:
+ * - The file paths must exist and be accessible for reading/writing.
+ * - No null values should be saved into the files.
+ * - Every DatabaseManager shares the same storage.
+ */
+public class DatabaseManager {
+    private static final int CUSTOMER_LOCK_STRIPES = 64;
+    private static final StripedLock CUSTOMER_LOCKS = new StripedLock(CUSTOMER_LOCK_STRIPES);
+
+    private static final Timer LOAD_BOOKS = Metrics.timer("db.loadBooks");
+    private static final Timer LOAD_BOOKS_PAGE = Metrics.timer("db.loadBooksPage");
+    private static final Timer BOOK_EXISTS = Metrics.timer("db.bookExists");
+    private static final Timer FIND_BOOK = Metrics.timer("db.findBook");
+    private static final Timer SEARCH_BOOKS = Metrics.timer("db.searchBooks");
+    private static final Timer FIND_DUPLICATE_TITLES = Metrics.timer("db.findDuplicateTitles");
+    private static final Timer EXPORT_BOOKS = Metrics.timer("db.exportBooks");
+    private static final Timer SAVE_BOOKS = Metrics.timer("db.saveBooks");
+    private static final Timer ADD_BOOK = Metrics.timer("db.addBook");
+    private static final Timer REMOVE_BOOK = Metrics.timer("db.removeBook");
+    private static final Timer LOAD_CUSTOMERS = Metrics.timer("db.loadCustomers");
+    private static final Timer SAVE_CUSTOMERS = Metrics.timer("db.saveCustomers");
+    private static final Timer GET_CUSTOMER = Metrics.timer("db.getCustomer");
+    private static final Timer ADD_CUSTOMER = Metrics.timer("db.addCustomer");
+    private static final Timer REMOVE_CUSTOMER = Metrics.timer("db.removeCustomer");
+    private static final Timer UPDATE_CUSTOMER = Metrics.timer("db.updateCustomer");
+    private static final Timer MODIFY_CUSTOMER = Metrics.timer("db.modifyCustomer");
+    private static final Timer MODIFY_CUSTOMERS = Metrics.timer("db.modifyCustomers");
+    private static final Timer RECORD_PURCHASE = Metrics.timer("db.recordPurchase");
+    private static final Timer RECENT_PURCHASES = Metrics.timer("db.recentPurchases");
+    private static final Timer PURCHASE_AS_OF = Metrics.timer("db.purchaseAsOf");
+
+    static {
+        Metrics.gauge("db.customerLockWaits", () -> LongStream.of(CUSTOMER_LOCKS.contentionCounts()).sum());
+    }
+
+    private final Storage store = storage();
+
+    /**
+     * Loads the resident store so the first screen does not pay for reading the files.
+     *
+     * Requires: none
+     * Modifies: none
+     * Effects: Reads books.txt and users.txt into memory, or opens the database,
+     *          if that has not happened yet.
+     */
+    public static void initialize() {
+        storage();
+    }
+
+    /**
+     * Returns the storage chosen by bookstore.backend.
+     */
+    private static Storage storage() {
+        return StoreConfig.backend().equals("sql") ? SqlStorage.get() : DataStore.get();
+    }
+
+    /**
+     * Loads books from the books.txt file.
+     *
+     * Requires: books.txt file exists and is readable.
+     * Modifies: none
+     * Effects: Returns a list of all books saved in the file, taken from memory.
+     */
+    public List<Book> loadBooks() {
+        return LOAD_BOOKS.time(() -> store.getBooks());
+    }
+
+    /**
+     * Streams books from the books.txt file without building a list.
+     *
+     * Requires: the caller closes the stream, e.g. with try-with-resources.
+     * Modifies: none
+     * Effects: Returns a lazy stream of all books in file order. Memory use stays constant
+     *          when the catalog is not resident (bookstore.catalog.resident=false).
+     */
+    public Stream<Book> streamBooks() {
+        return store.streamBooks();
+    }
+
+    /**
+     * Loads one page of books.
+     *
+     * Requires: offset ≥ 0, limit ≥ 0
+     * Modifies: none
+     * Effects: Returns at most limit books, starting at position offset in the catalog. With the
+     *          resident catalog the page is taken by index, so every page costs the same.
+     */
+    public List<Book> loadBooksPage(long offset, int limit) {
+        return LOAD_BOOKS_PAGE.time(() -> store.getBooksPage(offset, limit));
+    }
+
+    /**
+     * Checks whether a book title is already in the catalog.
+     *
+     * Requires: title is not null.
+     * Modifies: none
+     * Effects: Returns true if a book with the same title (case-insensitive) exists.
+     */
+    public boolean bookExists(String title) {
+        return BOOK_EXISTS.time(() -> store.containsBook(title));
+    }
+
+    /**
+     * Looks up a book by title.
+     *
+     * Requires: title is not null.
+     * Modifies: none
+     * Effects: Returns the first book with the same title (case-insensitive), or null if none exists.
+     */
+    public Book findBook(String title) {
+        return FIND_BOOK.time(() -> store.findBook(title));
+    }
+
+    /**
+     * Searches book titles.
+     *
+     * Requires: query is not null, limit ≥ 0
+     * Modifies: none
+     * Effects: Returns at most limit books, best match first: exact title, then titles starting
+     *          with the query, then titles with a word starting with each word of the query.
+     *          Case is ignored.
+     */
+    public List<Book> searchBooks(String query, int limit) {
+        return SEARCH_BOOKS.time(() -> store.searchBooks(query, limit));
+    }
+
+    /**
+     * Checks a batch of new titles for duplicates in one pass.
+     *
+     * Requires: titles is not null and holds no nulls.
+     * Modifies: none
+     * Effects: Returns, in batch order, the titles that already exist in the catalog or repeat
+     *          an earlier title in the batch (case-insensitive, ignoring surrounding spaces).
+     */
+    public List<String> findDuplicateTitles(List<String> titles) {
+        return FIND_DUPLICATE_TITLES.time(() -> store.findDuplicateTitles(titles));
+    }
+
+    /**
+     * Exports the catalog to a file in books.txt format.
+     *
+     * Requires: path is not null.
+     * Modifies: the file at path
+     * Effects: Streams every book into the file. Throws IOException if it cannot be written.
+     */
+    public void exportBooks(Path path) throws IOException {
+        long start = EXPORT_BOOKS.start();
+        boolean succeeded = false;
+        try {
+            store.exportBooks(path);
+            succeeded = true;
+        } finally {
+            EXPORT_BOOKS.stop(start, succeeded);
+        }
+    }
+
+    /**
+     * Registers a listener for changes other programs make to books.txt.
+     *
+     * Requires: listener is not null; the caller keeps a reference to it, since it is held weakly.
+     * Modifies: none
+     * Effects: listener is told about each change once it has been applied to the catalog.
+     */
+    public void addCatalogListener(CatalogListener listener) {
+        store.addCatalogListener(listener);
+    }
+
+    /**
+     * Unregisters a catalog listener.
+     *
+     * Requires: none
+     * Modifies: none
+     * Effects: listener is no longer told about catalog changes.
+     */
+    public void removeCatalogListener(CatalogListener listener) {
+        store.removeCatalogListener(listener);
+    }
+
+    /**
+     * Saves a list of books to the books.txt file.
+     *
+     * Requires: books list is not null.
+     * Modifies: books.txt file
+     * Effects: Atomically replaces the file with the current list of books; concurrent saves share one write.
+     */
+    public void saveBooks(List<Book> books) {
+        SAVE_BOOKS.time(() -> store.replaceBooks(books));
+    }
+
+    /**
+     * Loads customer data from users.txt file.
+     *
+     * Requires: users.txt exists and is readable.
+     * Modifies: none
+     * Effects: Returns a map of customers, where key = username, taken from memory.
+     *          The store was built from users.txt with the users.log changes replayed on top.
+     */
+    public Map<String, Customer> loadCustomers() {
+        return LOAD_CUSTOMERS.time(() -> store.getCustomers());
+    }
+
+    /**
+     * Saves customer data to users.txt file.
+     *
+     * Requires: customers map is not null.
+     * Modifies: users.log file
+     * Effects: Replaces all customer records, logging only the customers that were added, changed or removed.
+     */
+    public void saveCustomers(Map<String, Customer> customers) {
+        SAVE_CUSTOMERS.time(() -> store.replaceCustomers(customers));
+    }
+
+    /**
+     * Adds a new book to the file.
+     *
+     * Requires: book is not null.
+     * Modifies: books.txt file
+     * Effects: Appends the new book to the file.
+     */
+    public void addBook(Book book) {
+        ADD_BOOK.time(() -> store.addBook(book));
+    }
+
+    /**
+     * Removes a book from the file based on its title.
+     *
+     * Requires: title is not null.
+     * Modifies: books.txt file
+     * Effects: Deletes the book from the list and updates the file.
+     */
+    public void removeBook(String title) {
+        REMOVE_BOOK.time(() -> store.removeBook(title));
+    }
+
+    /**
+     * Adds a new customer to the file.
+     *
+     * Requires: customer is not null.
+     * Modifies: users.log file
+     * Effects: Adds the customer to the map and saves the updated list.
+     */
+    public void addCustomer(Customer customer) {
+        ADD_CUSTOMER.time(() -> store.putCustomer(customer));
+    }
+
+    /**
+     * Removes a customer from the file.
+     *
+     * Requires: username is not null.
+     * Modifies: users.log file
+     * Effects: Deletes the customer from the map and updates the file.
+     */
+    public void removeCustomer(String username) {
+        REMOVE_CUSTOMER.time(() -> store.removeCustomer(username));
+    }
+
+    /**
+     * Retrieves a customer by username.
+     *
+     * Requires: username is not null.
+     * Modifies: none
+     * Effects: Returns the customer object, or null if not found.
+     */
+    public Customer getCustomer(String username) {
+        return GET_CUSTOMER.time(() -> store.getCustomer(username));
+    }
+
+    /**
+     * Updates only the customer's balance.
+     *
+     * Requires: username exists in file.
+     * Modifies: users.log file
+     * Effects: Replaces the customer's balance with the new amount in cents.
+     */
+    public void updateCustomerBalance(String username, long newBalanceCents) {
+        modifyCustomer(username, customer -> {
+            customer.setBalanceCents(newBalanceCents);
+            return true;
+        });
+    }
+
+    /**
+     * Updates a customer’s full profile (balance, points, etc.).
+     *
+     * Requires: customer is not null and was read with getCustomer or loadCustomers.
+     * Modifies: users.log file
+     * Effects: Overwrites the record for this customer in the file, unless someone changed the
+     *          customer after it was read. Returns false, changing nothing, in that case.
+     */
+    public boolean updateCustomer(Customer customer) {
+        return UPDATE_CUSTOMER.time(() -> store.compareAndPutCustomer(customer));
+    }
+
+    /**
+     * Applies a change to one customer, retrying it if someone else changes the customer meanwhile.
+     *
+     * Requires: username and change are not null; change only modifies the customer it is given.
+     * Modifies: users.log file
+     * Effects: Runs change on a fresh copy of the customer and saves the copy if change returns true.
+     *          change may run more than once. Returns false if the customer does not exist or
+     *          change returned false.
+     */
+    public boolean modifyCustomer(String username, Predicate<Customer> change) {
+        // Taking turns here spares the storage from retrying changes that collide in this program
+        return MODIFY_CUSTOMER.time(() -> {
+            CUSTOMER_LOCKS.lock(username);
+            try {
+                return store.modifyCustomer(username, change);
+            } finally {
+                CUSTOMER_LOCKS.unlock(username);
+            }
+        });
+    }
+
+    /**
+     * Applies many customer changes together, paying for one commit instead of one per change.
+     *
+     * Requires: changes is not null; each change only modifies the customer it is given.
+     * Modifies: users.log file
+     * Effects: Runs the changes in list order, each on a copy of its customer that already holds
+     *          the accepted changes before it, and saves the copies with one commit per customer
+     *          shard (one transaction with the SQL backend). Returns, for each change, false if
+     *          its customer does not exist or the change returned false, true if it was saved.
+     */
+    public boolean[] modifyCustomers(List<Map.Entry<String, Predicate<Customer>>> changes) {
+        // The storage holds its commit locks for the whole batch, so the striped lock is not needed
+        return MODIFY_CUSTOMERS.time(() -> store.modifyCustomers(changes));
+    }
+
+    /**
+     * Adds a completed purchase to the purchase ledger.
+     *
+     * Requires: purchase is not null, was paid, and has not been recorded.
+     * Modifies: Purchases.ledger file
+     * Effects: Returns the purchase with its order id and time, or null if the ledger could not
+     *          be written; such calls count as failures of the "db.recordPurchase" timer. The line
+     *          is forced to the disk in the background, so this does not wait for the disk.
+     */
+    public Purchase recordPurchase(Purchase purchase) {
+        long start = RECORD_PURCHASE.start();
+        Purchase recorded = null;
+        try {
+            recorded = PurchaseLedger.get().append(purchase);
+            return recorded;
+        } finally {
+            RECORD_PURCHASE.stop(start, recorded != null);
+        }
+    }
+
+    /**
+     * Returns a customer's most recent purchases.
+     *
+     * Requires: username is not null, n ≥ 0
+     * Modifies: none
+     * Effects: Returns at most n purchases, newest first, using the ledger's per-customer index.
+     */
+    public List<Purchase> recentPurchases(String username, int n) {
+        return RECENT_PURCHASES.time(() -> PurchaseLedger.get().recent(username, n));
+    }
+
+    /**
+     * Returns a customer's last purchase at or before a point in time.
+     *
+     * Requires: username is not null
+     * Modifies: none
+     * Effects: Returns the purchase, whose balance and points after are the customer's state as
+     *          the ledger saw it at time (milliseconds since the epoch), or null if the customer
+     *          had no purchases by then. Changes made outside checkout are not in the ledger.
+     */
+    public Purchase purchaseAsOf(String username, long time) {
+        return PURCHASE_AS_OF.time(() -> PurchaseLedger.get().asOf(username, time));
+    }
+
+    /**
+     * Reports how often customer changes had to wait for one another.
+     *
+     * Requires: none
+     * Modifies: none
+     * Effects: Returns, for each lock stripe, how many times a change waited for it.
+     *          Customers are spread over the stripes by username hash.
+     */
+    public static long[] customerLockContention() {
+        return CUSTOMER_LOCKS.contentionCounts();
+    }
+
+    /**
+     * Deducts money from a customer's balance.
+     *
+     * Requires: username exists, amountCents ≥ 0
+     * Modifies: users.log file
+     * Effects: Subtracts the amount in cents from balance and saves changes.
+     */
+    public void deductBalance(String username, long amountCents) {
+        modifyCustomer(username, customer -> customer.deductBalance(amountCents));
+    }
+
+    /**
+     * Uses points and balance to complete a purchase.
+     * Points are redeemed first, then balance is used for the rest.
+     *
+     * Requires: username exists, amountCents ≥ 0
+     * Modifies: users.log file
+     * Effects: Updates points and balance only if the purchase is successful.
+     */
+    public void redeemPoints(String username, long amountCents) {
+        modifyCustomer(username, customer -> {
+            long newCost = customer.redeemPoints(amountCents);
+            return customer.deductBalance(newCost);
+        });
+    }
+}
@@ -0,0 +1,128 @@
+package BookStore.database;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Coalesces concurrent save requests into as few physical writes as possible.
+ *
+ * Abstraction Function:
+ * - Callers change memory first and then call commit(). Requests that arrive while a write is
+ *   running, or within a short window before it starts, form one batch that is written once.
+ * - The write always saves the latest in-memory state, so one write covers every change made
+ *   by the callers in its batch.
+ *
+ * Representation Invariant:
+ * - open and flushing are only read or changed while holding lock. Waiting is done on a
+ *   Condition rather than a monitor, so a virtual thread waiting for a flush does not pin its
+ *   carrier thread.
+ * - At most one flush runs at a time.
+ * - commit() only returns after a flush that started after the call has finished,
+ *   so every caller keeps the same durability guarantee as if it had written alone.
+ * - If a flush fails, every caller in its batch gets the error, whatever was thrown, and the
+ *   next caller starts a new flush.
+ */
+class GroupCommitter {
+    /**
+     * Writes the current state to disk.
+     */
+    interface Flush {
+        void run() throws IOException;
+    }
+
+    /**
+     * One group of commit calls served by a single flush.
+     */
+    private static class Batch {
+        private boolean done;
+        private Throwable error;
+    }
+
+    private final Flush flush;
+    private final long windowNanos;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition flushed = lock.newCondition();
+    private Batch open;
+    private boolean flushing;
+
+    /**
+     * Creates a committer around a flush action.
+     *
+     * Requires: flush is not null, windowNanos ≥ 0
+     * Modifies: this
+     * Effects: The leader of each batch waits windowNanos for more callers before flushing.
+     */
+    GroupCommitter(Flush flush, long windowNanos) {
+        this.flush = flush;
+        this.windowNanos = windowNanos;
+    }
+
+    /**
+     * Makes all changes made before this call durable.
+     *
+     * Requires: none
+     * Modifies: the files written by the flush action
+     * Effects: Joins the batch being collected, or starts one. Returns when the batch has been
+     *          flushed. If the flush failed, the caller that ran it gets what the flush threw and
+     *          the others in its batch get an IOException caused by it.
+     */
+    void commit() throws IOException {
+        Batch mine;
+        lock.lock();
+        try {
+            if (open == null) {
+                open = new Batch();
+            }
+            mine = open;
+            while (flushing && !mine.done) {
+                try {
+                    flushed.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while waiting for a save");
+                }
+            }
+            if (mine.done) {
+                if (mine.error != null) {
+                    throw new IOException(mine.error.getMessage(), mine.error);
+                }
+                return;
+            }
+            flushing = true; // This caller leads the batch
+        } finally {
+            lock.unlock();
+        }
+
+        if (windowNanos > 0) {
+            LockSupport.parkNanos(windowNanos); // Let concurrent savers join before writing
+        }
+        lock.lock();
+        try {
+            open = null; // Later callers start the next batch
+        } finally {
+            lock.unlock();
+        }
+
+        Throwable error = null;
+        try {
+            flush.run();
+        } catch (Throwable e) {
+            error = e;
+            throw e;
+        } finally {
+            // Even an unchecked failure must end the batch, or every later commit waits forever
+            lock.lock();
+            try {
+                mine.done = true;
+                mine.error = error;
+                flushing = false;
+                flushed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
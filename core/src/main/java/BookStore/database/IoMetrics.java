@@ -0,0 +1,62 @@
+package BookStore.database;
+
+import BookStore.metrics.Counter;
+import BookStore.metrics.Metrics;
+import java.io.BufferedReader;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Counts the bytes the data store reads from and writes to its files.
+ *
+ * Abstraction Function:
+ * - BYTES_READ and BYTES_WRITTEN are the io.bytesRead and io.bytesWritten metrics. Each place
+ *   that moves data to or from a file adds what it moved once the transfer succeeded.
+ * - Memory-mapped files count their whole mapped length when they are parsed.
+ *
+ * Representation Invariant:
+ * - Counting adds no locking to any read or write.
+ */
+final class IoMetrics {
+    static final Counter BYTES_READ = Metrics.counter("io.bytesRead");
+    static final Counter BYTES_WRITTEN = Metrics.counter("io.bytesWritten");
+
+    private IoMetrics() {
+    }
+
+    /**
+     * Opens a text file for reading line by line, counting the bytes read.
+     *
+     * Requires: file is not null.
+     * Modifies: none
+     * Effects: Returns a reader over file in the platform charset, as FileReader would.
+     *          Throws IOException if the file cannot be opened.
+     */
+    static BufferedReader newReader(Path file) throws IOException {
+        InputStream counting = new FilterInputStream(Files.newInputStream(file)) {
+            @Override
+            public int read() throws IOException {
+                int b = super.read();
+                if (b >= 0) {
+                    BYTES_READ.add(1);
+                }
+                return b;
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+                int n = super.read(buffer, offset, length);
+                if (n > 0) {
+                    BYTES_READ.add(n);
+                }
+                return n;
+            }
+        };
+        return new BufferedReader(new InputStreamReader(counting, Charset.defaultCharset()));
+    }
+}
@@ -0,0 +1,363 @@
+package BookStore.database;
+
+import BookStore.models.Book;
+import BookStore.models.Customer;
+import BookStore.utils.Money;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Reads books.txt and users.txt by memory-mapping the file and parsing the bytes in place.
+ *
+ * Abstraction Function:
+ * - Splits the mapped bytes into lines and each line into comma-separated fields
+ *   without creating a String per line or per field.
+ * - Prices and balances (into cents) and points are parsed straight from the bytes; only the title,
+ *   username and password are turned into Strings, when the model object is built.
+ *
+ * Representation Invariant:
+ * - Produces the same books and customers as the BufferedReader + String.split loader:
+ *   same field counts (trailing empty fields are ignored, as split(",") does), same trimming,
+ *   same rules for which lines are skipped.
+ * - A line whose number cannot be parsed is skipped instead of stopping the load, by every
+ *   loader: the buffered loader skips it too.
+ */
+final class MappedRecordParser {
+    private static final long MAX_WINDOW = Integer.MAX_VALUE;
+    private static final int MAX_FAST_DIGITS = 16;
+
+    private MappedRecordParser() {
+    }
+
+    /**
+     * Receives one line of a mapped file as a byte range.
+     */
+    interface LineHandler {
+        /**
+         * Handles the bytes buffer[start, end), which exclude the line terminator.
+         */
+        void line(ByteBuffer buffer, int start, int end);
+    }
+
+    /**
+     * Parses a books file.
+     *
+     * Requires: file is not null.
+     * Modifies: none
+     * Effects: Returns the books in file order. Lines that do not have exactly a title and
+     *          a price are skipped. Throws IOException if the file cannot be read.
+     */
+    static List<Book> parseBooks(Path file) throws IOException {
+        List<Book> books = new ArrayList<>();
+        forEachLine(file, (buffer, start, end) -> {
+            Book book = parseBook(buffer, start, end);
+            if (book != null) {
+                books.add(book);
+            }
+        });
+        return books;
+    }
+
+    /**
+     * Parses a customers file.
+     *
+     * Requires: file is not null.
+     * Modifies: none
+     * Effects: Returns the customers keyed by username; a later line for the same username
+     *          replaces an earlier one. Lines with fewer than four fields are skipped.
+     *          Throws IOException if the file cannot be read.
+     */
+    static Map<String, Customer> parseCustomers(Path file) throws IOException {
+        Map<String, Customer> customers = new HashMap<>();
+        forEachLine(file, (buffer, start, end) -> {
+            Customer customer = parseCustomer(buffer, start, end);
+            if (customer != null) {
+                customers.put(customer.getUsername(), customer);
+            }
+        });
+        return customers;
+    }
+
+    /**
+     * Parses one "title,price" line.
+     *
+     * Requires: 0 ≤ start ≤ end ≤ buffer.limit()
+     * Modifies: none
+     * Effects: Returns the book on the line, or null if the line is malformed.
+     */
+    static Book parseBook(ByteBuffer buffer, int start, int end) {
+        end = stripTrailingCommas(buffer, start, end);
+        int comma = indexOf(buffer, start, end, (byte) ',');
+        if (comma < 0 || indexOf(buffer, comma + 1, end, (byte) ',') >= 0) {
+            return null; // Not exactly two fields
+        }
+        int titleStart = trimStart(buffer, start, comma);
+        int titleEnd = trimEnd(buffer, titleStart, comma);
+        int priceStart = trimStart(buffer, comma + 1, end);
+        int priceEnd = trimEnd(buffer, priceStart, end);
+        long priceCents = parseCents(buffer, priceStart, priceEnd);
+        if (priceCents == Long.MIN_VALUE) {
+            return null;
+        }
+        return new Book(string(buffer, titleStart, titleEnd), priceCents);
+    }
+
+    /**
+     * Parses one "username,password,balance,points[,version]" line.
+     *
+     * Requires: 0 ≤ start ≤ end ≤ buffer.limit()
+     * Modifies: none
+     * Effects: Returns the customer on the line, or null if the line is malformed.
+     *          A missing version is 0; fields after the fifth are ignored.
+     */
+    static Customer parseCustomer(ByteBuffer buffer, int start, int end) {
+        end = stripTrailingCommas(buffer, start, end);
+        int first = indexOf(buffer, start, end, (byte) ',');
+        int second = first < 0 ? -1 : indexOf(buffer, first + 1, end, (byte) ',');
+        int third = second < 0 ? -1 : indexOf(buffer, second + 1, end, (byte) ',');
+        if (third < 0) {
+            return null; // Fewer than four fields
+        }
+        int fourth = indexOf(buffer, third + 1, end, (byte) ',');
+        int pointsEnd = fourth < 0 ? end : fourth;
+
+        // Money.parse ignores surrounding spaces, Integer.parseInt does not
+        int balanceStart = trimStart(buffer, second + 1, third);
+        long balance = parseCents(buffer, balanceStart, trimEnd(buffer, balanceStart, third));
+        long points = parseInt(buffer, third + 1, pointsEnd);
+        if (balance == Long.MIN_VALUE || points == Long.MIN_VALUE) {
+            return null;
+        }
+        Customer customer = new Customer(string(buffer, start, first), string(buffer, first + 1, second), balance);
+        customer.setPoints((int) points); // Restore saved points
+        if (fourth >= 0) {
+            int fifth = indexOf(buffer, fourth + 1, end, (byte) ',');
+            long version = parseLong(buffer, fourth + 1, fifth < 0 ? end : fifth);
+            if (version == Long.MIN_VALUE) {
+                return null;
+            }
+            customer.setVersion(version);
+        }
+        return customer;
+    }
+
+    /**
+     * Maps the file window by window and hands each line to the handler.
+     * A window always ends on a line boundary, so files larger than 2 GB are supported.
+     */
+    static void forEachLine(Path file, LineHandler handler) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            IoMetrics.BYTES_READ.add(size);
+            long position = 0;
+            while (position < size) {
+                long length = Math.min(size - position, MAX_WINDOW);
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                boolean lastWindow = position + length == size;
+                int consumed = forEachLine(buffer, 0, (int) length, lastWindow, handler);
+                if (lastWindow) {
+                    break;
+                }
+                if (consumed == 0) {
+                    throw new IOException("Line longer than " + MAX_WINDOW + " bytes in " + file);
+                }
+                position += consumed;
+            }
+        }
+    }
+
+    /**
+     * Hands every complete line in buffer[from, to) to the handler.
+     * Lines end at "\n", "\r\n" or "\r", like BufferedReader.readLine.
+     *
+     * @return the offset just past the last complete line; everything when atEnd is true.
+     */
+    static int forEachLine(ByteBuffer buffer, int from, int to, boolean atEnd, LineHandler handler) {
+        int lineStart = from;
+        for (int i = from; i < to; i++) {
+            byte b = buffer.get(i);
+            if (b == '\n') {
+                handler.line(buffer, lineStart, i);
+                lineStart = i + 1;
+            } else if (b == '\r') {
+                handler.line(buffer, lineStart, i);
+                if (i + 1 < to && buffer.get(i + 1) == '\n') {
+                    i++;
+                }
+                lineStart = i + 1;
+            }
+        }
+        if (atEnd && lineStart < to) {
+            handler.line(buffer, lineStart, to);
+            lineStart = to;
+        }
+        return lineStart;
+    }
+
+    /**
+     * Parses a decimal dollar amount from the bytes into cents.
+     * Plain amounts with at most two fraction digits are converted straight from the digits;
+     * anything else (exponents, more fraction digits, very long numbers) goes through Money.parse
+     * so results always match it.
+     *
+     * @return the amount in cents, or Long.MIN_VALUE if the bytes are not a number.
+     */
+    static long parseCents(ByteBuffer buffer, int start, int end) {
+        int i = start;
+        boolean negative = false;
+        if (i < end && (buffer.get(i) == '-' || buffer.get(i) == '+')) {
+            negative = buffer.get(i) == '-';
+            i++;
+        }
+        long whole = 0;
+        int digits = 0;
+        for (; i < end && digits < MAX_FAST_DIGITS; i++) {
+            byte b = buffer.get(i);
+            if (b < '0' || b > '9') {
+                break;
+            }
+            whole = whole * 10 + (b - '0');
+            digits++;
+        }
+        long fraction = 0;
+        int fractionDigits = 0;
+        if (i < end && buffer.get(i) == '.') {
+            for (i++; i < end && fractionDigits < 2; i++) {
+                byte b = buffer.get(i);
+                if (b < '0' || b > '9') {
+                    break;
+                }
+                fraction = fraction * 10 + (b - '0');
+                fractionDigits++;
+            }
+        }
+        if (i == end && digits + fractionDigits > 0) {
+            long cents = whole * Money.CENTS_PER_DOLLAR + (fractionDigits == 1 ? fraction * 10 : fraction);
+            return negative ? -cents : cents;
+        }
+        try {
+            return Money.parse(string(buffer, start, end));
+        } catch (NumberFormatException e) {
+            return Long.MIN_VALUE;
+        }
+    }
+
+    /**
+     * Parses an int from the bytes with the same rules as Integer.parseInt.
+     * Plain digits with an optional sign are converted straight from the bytes; anything else
+     * goes through Integer.parseInt so results always match it.
+     *
+     * @return the value, or Long.MIN_VALUE if the bytes are not a valid int.
+     */
+    static long parseInt(ByteBuffer buffer, int start, int end) {
+        int i = start;
+        boolean negative = false;
+        if (i < end && (buffer.get(i) == '-' || buffer.get(i) == '+')) {
+            negative = buffer.get(i) == '-';
+            i++;
+        }
+        if (i < end && end - i <= 9) {
+            long value = 0;
+            for (; i < end; i++) {
+                byte b = buffer.get(i);
+                if (b < '0' || b > '9') {
+                    break;
+                }
+                value = value * 10 + (b - '0');
+            }
+            if (i == end) {
+                return negative ? -value : value;
+            }
+        }
+        try {
+            return Integer.parseInt(string(buffer, start, end));
+        } catch (NumberFormatException e) {
+            return Long.MIN_VALUE;
+        }
+    }
+
+    /**
+     * Parses a long from the bytes with the same rules as Long.parseLong.
+     * Plain digits with an optional sign are converted straight from the bytes; anything else
+     * goes through Long.parseLong so results always match it.
+     *
+     * @return the value, or Long.MIN_VALUE if the bytes are not a valid long.
+     */
+    static long parseLong(ByteBuffer buffer, int start, int end) {
+        int i = start;
+        boolean negative = false;
+        if (i < end && (buffer.get(i) == '-' || buffer.get(i) == '+')) {
+            negative = buffer.get(i) == '-';
+            i++;
+        }
+        if (i < end && end - i <= 18) {
+            long value = 0;
+            for (; i < end; i++) {
+                byte b = buffer.get(i);
+                if (b < '0' || b > '9') {
+                    break;
+                }
+                value = value * 10 + (b - '0');
+            }
+            if (i == end) {
+                return negative ? -value : value;
+            }
+        }
+        try {
+            return Long.parseLong(string(buffer, start, end));
+        } catch (NumberFormatException e) {
+            return Long.MIN_VALUE;
+        }
+    }
+
+    /**
+     * Decodes buffer[start, end) as UTF-8.
+     */
+    static String string(ByteBuffer buffer, int start, int end) {
+        byte[] bytes = new byte[end - start];
+        buffer.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int indexOf(ByteBuffer buffer, int start, int end, byte target) {
+        for (int i = start; i < end; i++) {
+            if (buffer.get(i) == target) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Drops trailing commas, matching String.split(",") which discards trailing empty fields.
+     */
+    private static int stripTrailingCommas(ByteBuffer buffer, int start, int end) {
+        while (end > start && buffer.get(end - 1) == ',') {
+            end--;
+        }
+        return end;
+    }
+
+    /**
+     * Skips leading bytes ≤ ' ', matching String.trim (such bytes are always single ASCII characters in UTF-8).
+     */
+    private static int trimStart(ByteBuffer buffer, int start, int end) {
+        while (start < end && (buffer.get(start) & 0xFF) <= ' ') {
+            start++;
+        }
+        return start;
+    }
+
+    private static int trimEnd(ByteBuffer buffer, int start, int end) {
+        while (end > start && (buffer.get(end - 1) & 0xFF) <= ' ') {
+            end--;
+        }
+        return end;
+    }
+}
@@ -0,0 +1,166 @@
+package BookStore.database;
+
+import BookStore.models.Book;
+import BookStore.models.Customer;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Loads books.txt and users.txt by parsing chunks of the file on all cores.
+ *
+ * Abstraction Function:
+ * - The memory-mapped file is cut into byte ranges that each end just after a newline,
+ *   every range is parsed by MappedRecordParser on the fork/join pool, and the per-range
+ *   results are merged in file order.
+ *
+ * Representation Invariant:
+ * - Ranges cover the file exactly once and never split a line, so the result is the same as
+ *   parsing the whole file in one pass: same order, same skipped lines, and for customers the
+ *   last line for a username still wins.
+ */
+final class ParallelRecordLoader {
+    private static final long MAX_WINDOW = Integer.MAX_VALUE;
+    private static final int MIN_CHUNK = 1 << 20;
+
+    private ParallelRecordLoader() {
+    }
+
+    /**
+     * Parses one byte range of a mapped file.
+     */
+    private interface ChunkParser<T> {
+        T parse(ByteBuffer buffer, int from, int to);
+    }
+
+    /**
+     * Parses a books file in parallel.
+     *
+     * Requires: file is not null.
+     * Modifies: none
+     * Effects: Returns the same books, in the same order, as MappedRecordParser.parseBooks.
+     */
+    static List<Book> parseBooks(Path file) throws IOException {
+        List<List<Book>> chunks = parseChunks(file, (buffer, from, to) -> {
+            List<Book> books = new ArrayList<>();
+            MappedRecordParser.forEachLine(buffer, from, to, true, (b, start, end) -> {
+                Book book = MappedRecordParser.parseBook(b, start, end);
+                if (book != null) {
+                    books.add(book);
+                }
+            });
+            return books;
+        });
+        int total = 0;
+        for (List<Book> chunk : chunks) {
+            total += chunk.size();
+        }
+        List<Book> books = new ArrayList<>(total);
+        for (List<Book> chunk : chunks) {
+            books.addAll(chunk);
+        }
+        return books;
+    }
+
+    /**
+     * Parses a customers file in parallel.
+     *
+     * Requires: file is not null.
+     * Modifies: none
+     * Effects: Returns the same customers as MappedRecordParser.parseCustomers.
+     */
+    static Map<String, Customer> parseCustomers(Path file) throws IOException {
+        List<Map<String, Customer>> chunks = parseChunks(file, (buffer, from, to) -> {
+            Map<String, Customer> customers = new HashMap<>();
+            MappedRecordParser.forEachLine(buffer, from, to, true, (b, start, end) -> {
+                Customer customer = MappedRecordParser.parseCustomer(b, start, end);
+                if (customer != null) {
+                    customers.put(customer.getUsername(), customer);
+                }
+            });
+            return customers;
+        });
+        Map<String, Customer> customers = new HashMap<>();
+        for (Map<String, Customer> chunk : chunks) {
+            customers.putAll(chunk); // Later chunks win, like later lines
+        }
+        return customers;
+    }
+
+    /**
+     * Maps the file window by window, splits each window into line-aligned chunks,
+     * parses the chunks on the fork/join pool and returns their results in file order.
+     */
+    private static <T> List<T> parseChunks(Path file, ChunkParser<T> parser) throws IOException {
+        List<T> results = new ArrayList<>();
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            IoMetrics.BYTES_READ.add(size);
+            long position = 0;
+            while (position < size) {
+                long length = Math.min(size - position, MAX_WINDOW);
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                int windowEnd = (int) length;
+                if (position + length < size) {
+                    windowEnd = lastLineEnd(buffer, windowEnd);
+                    if (windowEnd == 0) {
+                        throw new IOException("Line longer than " + MAX_WINDOW + " bytes in " + file);
+                    }
+                }
+
+                List<Callable<T>> tasks = new ArrayList<>();
+                int chunkSize = Math.max(MIN_CHUNK, windowEnd / (pool.getParallelism() * 4));
+                int from = 0;
+                while (from < windowEnd) {
+                    int to = nextLineEnd(buffer, (int) Math.min((long) from + chunkSize, windowEnd), windowEnd);
+                    int chunkFrom = from;
+                    tasks.add(() -> parser.parse(buffer, chunkFrom, to));
+                    from = to;
+                }
+                for (Future<T> result : pool.invokeAll(tasks)) {
+                    results.add(result.get());
+                }
+                position += windowEnd;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while loading " + file, e);
+        } catch (ExecutionException e) {
+            throw new IOException("Error parsing " + file + ": " + e.getCause(), e.getCause());
+        }
+        return results;
+    }
+
+    /**
+     * Returns the offset just past the first newline at or after from, or limit if there is none.
+     */
+    private static int nextLineEnd(ByteBuffer buffer, int from, int limit) {
+        for (int i = from; i < limit; i++) {
+            if (buffer.get(i) == '\n') {
+                return i + 1;
+            }
+        }
+        return limit;
+    }
+
+    /**
+     * Returns the offset just past the last newline before limit, or 0 if there is none.
+     */
+    private static int lastLineEnd(ByteBuffer buffer, int limit) {
+        for (int i = limit - 1; i >= 0; i--) {
+            if (buffer.get(i) == '\n') {
+                return i + 1;
+            }
+        }
+        return 0;
+    }
+}
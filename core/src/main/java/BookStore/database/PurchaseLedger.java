@@ -0,0 +1,579 @@
+package BookStore.database;
+
+import BookStore.metrics.Counter;
+import BookStore.metrics.Metrics;
+import BookStore.models.Purchase;
+import BookStore.utils.Money;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Append-only record of every completed purchase, with an index by customer.
+ *
+ * Abstraction Function:
+ * - Purchases.ledger holds one line per purchase, oldest first:
+ *   orderId,timestamp,username,cash,pointsSpent,pointsEarned,balanceAfter,pointsAfter,items
+ *   where items is title:quantity pairs separated by ";" with each title URL-encoded.
+ * - histories maps each username to the byte offsets and timestamps of that customer's lines,
+ *   so the last N purchases or the purchase in effect at a time are found without reading
+ *   anyone else's lines.
+ * - Several processes may append to the same ledger. append() locks the whole file with
+ *   FileChannel.lock, indexes the lines other processes added since it last looked, and writes
+ *   its line at the end of the file before unlocking. Only the force to the disk is left to a
+ *   background thread, which covers every line written before it started with one force.
+ * - If a force fails, appends are refused until the background thread has reopened the file,
+ *   written the unforced lines again and forced them; it retries with a growing delay.
+ *   Every failed append or force counts in the "ledger.failures" counter.
+ *
+ * Representation Invariant:
+ * - nextOffset is the length of the ledger as this process last saw it under the lock; every
+ *   line before it is complete and indexed.
+ * - forcedOffset ≤ nextOffset; everything before forcedOffset has been forced to the disk.
+ *   It never moves past a line whose write or force failed: a failed write is truncated away
+ *   before the lock is released, and after a failed force (failed) no more lines are written
+ *   until the lines in unforced have been written again and forced.
+ * - unforced holds this process's lines between forcedOffset and nextOffset, in offset order.
+ * - Order ids increase by one per purchase across all processes; timestamps never decrease.
+ * - A line is only written, and order ids and offsets only handed out, while the file lock is held,
+ *   so a partly written last line seen under the lock was cut off by a crash.
+ * - stateLock guards the fields marked so and is held across file I/O. It is a ReentrantLock
+ *   rather than the monitor, so a virtual thread blocked on the file does not pin its carrier.
+ */
+final class PurchaseLedger {
+    static final String LEDGER_FILE = Paths.get(StoreConfig.dataDir(), "Purchases.ledger").toString();
+
+    private static final int READ_CHUNK = 256;
+    private static final long RETRY_MILLIS = 1000;
+    private static final long MAX_RETRY_MILLIS = 30_000;
+    private static final Counter FAILURES = Metrics.counter("ledger.failures");
+
+    /**
+     * A line this process wrote that may not be on the disk yet.
+     */
+    private static final class Unforced {
+        final long offset;
+        final byte[] bytes;
+
+        Unforced(long offset, byte[] bytes) {
+            this.offset = offset;
+            this.bytes = bytes;
+        }
+    }
+
+    /**
+     * Where one customer's purchases are in the ledger, oldest first.
+     */
+    private static final class History {
+        private long[] offsets = new long[4];
+        private long[] timestamps = new long[4];
+        private int size;
+
+        synchronized void add(long offset, long timestamp) {
+            if (size == offsets.length) {
+                offsets = Arrays.copyOf(offsets, size * 2);
+                timestamps = Arrays.copyOf(timestamps, size * 2);
+            }
+            offsets[size] = offset;
+            timestamps[size] = timestamp;
+            size++;
+        }
+
+        /**
+         * Returns the offsets of the newest n purchases, newest first.
+         */
+        synchronized long[] newest(int n) {
+            long[] result = new long[Math.min(n, size)];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = offsets[size - 1 - i];
+            }
+            return result;
+        }
+
+        /**
+         * Returns the offset of the last purchase at or before time, or -1 if there is none.
+         */
+        synchronized long asOf(long time) {
+            int low = 0;
+            int high = size - 1;
+            while (low <= high) { // Find the last timestamp ≤ time
+                int mid = (low + high) >>> 1;
+                if (timestamps[mid] <= time) {
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            return high < 0 ? -1 : offsets[high];
+        }
+    }
+
+    private static class Holder {
+        static final PurchaseLedger INSTANCE = new PurchaseLedger(Paths.get(LEDGER_FILE));
+    }
+
+    private final Path file;
+    private final Map<String, History> histories = new ConcurrentHashMap<>();
+    private final ReentrantLock stateLock = new ReentrantLock();
+    private final Condition progress = stateLock.newCondition(); // Signalled when lines are written or forced
+    private final List<Unforced> unforced = new ArrayList<>(); // Guarded by stateLock
+    private volatile FileChannel channel; // Replaced under stateLock when the file is reopened
+    private long nextOffset; // Guarded by stateLock
+    private long forcedOffset; // Guarded by stateLock
+    private long nextOrderId; // Guarded by stateLock
+    private long lastTimestamp; // Guarded by stateLock
+    private boolean failed; // Guarded by stateLock
+
+    /**
+     * Opens a ledger and indexes what it holds.
+     *
+     * Requires: file is not null; this process has no other ledger open on file.
+     * Modifies: this, the ledger file
+     * Effects: Creates the file if needed, indexes it under the file lock and starts the thread
+     *          that forces appended lines to the disk. If the file cannot be opened the error is
+     *          reported and the next append tries again.
+     */
+    PurchaseLedger(Path file) {
+        this.file = file;
+        stateLock.lock();
+        try {
+            open();
+            FileLock lock = channel.lock();
+            try {
+                index();
+            } finally {
+                lock.release();
+            }
+            forcedOffset = nextOffset;
+        } catch (IOException e) {
+            System.out.println("Error opening purchase ledger: " + e.getMessage());
+        } finally {
+            stateLock.unlock();
+        }
+        Thread writer = new Thread(this::forceWritten, "purchase-ledger");
+        writer.setDaemon(true);
+        writer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> flush(5, TimeUnit.SECONDS)));
+    }
+
+    /**
+     * Returns the shared ledger, opening it on first call.
+     *
+     * Requires: none
+     * Modifies: none
+     * Effects: Returns the one ledger for this program.
+     */
+    static PurchaseLedger get() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Records a completed purchase.
+     *
+     * Requires: purchase is not null and has not been recorded.
+     * Modifies: this, Purchases.ledger file
+     * Effects: Under the file lock, indexes what other processes appended, gives the purchase the
+     *          next order id and the current time, writes its line at the end of the file and
+     *          indexes it. Returns the recorded purchase, or null (after reporting the error and
+     *          counting it in "ledger.failures") if it could not be written; a partly written line
+     *          is cut off again. While a failed force is being retried every append fails.
+     *          Does not wait for the line to be forced to the disk.
+     */
+    Purchase append(Purchase purchase) {
+        stateLock.lock();
+        try {
+            if (failed) {
+                System.out.println("Error writing purchase ledger: an earlier write is not on the disk yet");
+                FAILURES.add(1);
+                return null;
+            }
+            try {
+                if (channel == null || !channel.isOpen()) {
+                    open(); // Never opened, or closed by an interrupt
+                }
+                FileLock lock = channel.lock();
+                try {
+                    index();
+                    lastTimestamp = Math.max(lastTimestamp, System.currentTimeMillis());
+                    Purchase recorded = purchase.recordedAs(nextOrderId, lastTimestamp);
+                    byte[] bytes = format(recorded).getBytes(StandardCharsets.UTF_8);
+                    long offset = nextOffset;
+                    write(bytes, offset);
+                    IoMetrics.BYTES_WRITTEN.add(bytes.length);
+                    nextOrderId++;
+                    nextOffset = offset + bytes.length;
+                    unforced.add(new Unforced(offset, bytes));
+                    histories.computeIfAbsent(recorded.getUsername(), u -> new History()).add(offset, lastTimestamp);
+                    progress.signalAll(); // Wake the thread that forces
+                    return recorded;
+                } finally {
+                    lock.release();
+                }
+            } catch (IOException e) {
+                System.out.println("Error writing purchase ledger: " + e.getMessage());
+                FAILURES.add(1);
+                return null;
+            }
+        } finally {
+            stateLock.unlock();
+        }
+    }
+
+    /**
+     * Writes a line at offset, cutting it off again if that fails, since nothing may follow a
+     * partial line. Requires stateLock and the file lock.
+     */
+    private void write(byte[] bytes, long offset) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        long position = offset;
+        try {
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+        } catch (IOException e) {
+            try {
+                channel.truncate(offset);
+            } catch (IOException truncateError) {
+                e.addSuppressed(truncateError); // index() cuts it off under the next lock instead
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Returns a customer's most recent purchases.
+     *
+     * Requires: username is not null, n ≥ 0
+     * Modifies: none
+     * Effects: Returns at most n purchases, newest first, reading only that customer's lines.
+     *          Purchases other processes appended are included.
+     */
+    List<Purchase> recent(String username, int n) {
+        catchUp();
+        History history = histories.get(username);
+        if (history == null) {
+            return new ArrayList<>();
+        }
+        List<Purchase> purchases = new ArrayList<>();
+        for (long offset : history.newest(n)) {
+            Purchase purchase = read(offset);
+            if (purchase != null) {
+                purchases.add(purchase);
+            }
+        }
+        return purchases;
+    }
+
+    /**
+     * Returns the purchase in effect for a customer at a point in time.
+     *
+     * Requires: username is not null
+     * Modifies: none
+     * Effects: Returns the customer's last purchase at or before time (milliseconds since the
+     *          epoch), found by binary search over the customer's index, or null if there is none.
+     */
+    Purchase asOf(String username, long time) {
+        catchUp();
+        History history = histories.get(username);
+        long offset = history == null ? -1 : history.asOf(time);
+        return offset < 0 ? null : read(offset);
+    }
+
+    /**
+     * Waits for the appended purchases to be forced to the disk.
+     *
+     * Requires: none
+     * Modifies: none
+     * Effects: Returns true once everything appended before this call is on disk, or false if
+     *          that did not happen within the timeout or a force failed and has not been retried
+     *          successfully yet.
+     */
+    boolean flush(long timeout, TimeUnit unit) {
+        stateLock.lock();
+        try {
+            long target = nextOffset;
+            long deadline = System.nanoTime() + unit.toNanos(timeout);
+            while (forcedOffset < target) {
+                if (failed) {
+                    return false;
+                }
+                long left = deadline - System.nanoTime();
+                if (left <= 0) {
+                    return false;
+                }
+                try {
+                    progress.awaitNanos(left);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+            return true;
+        } finally {
+            stateLock.unlock();
+        }
+    }
+
+    /**
+     * Forces written lines to the disk, one force for everything written since the last one,
+     * for as long as the program runs. After a failed force, retries until the lines are on disk.
+     */
+    private void forceWritten() {
+        while (true) {
+            long target;
+            FileChannel forcing;
+            stateLock.lock();
+            try {
+                while (forcedOffset >= nextOffset) {
+                    try {
+                        progress.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                target = nextOffset;
+                forcing = channel;
+            } finally {
+                stateLock.unlock();
+            }
+            try {
+                forcing.force(false);
+                stateLock.lock();
+                try {
+                    forced(target);
+                } finally {
+                    stateLock.unlock();
+                }
+            } catch (IOException e) {
+                // What was written may not be on the disk, so nothing more is written after it
+                System.out.println("Error writing purchase ledger: " + e.getMessage());
+                FAILURES.add(1);
+                stateLock.lock();
+                try {
+                    failed = true;
+                    progress.signalAll();
+                } finally {
+                    stateLock.unlock();
+                }
+                if (!recover()) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Reopens the ledger and writes and forces this process's unforced lines again, retrying
+     * with a growing delay. Returns true once that worked, or false if interrupted.
+     */
+    private boolean recover() {
+        long delay = RETRY_MILLIS;
+        while (true) {
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                return false;
+            }
+            stateLock.lock();
+            try {
+                open();
+                FileLock lock = channel.lock();
+                try {
+                    // A failed force may have dropped the pages, so the bytes are written again;
+                    // they are the same bytes at the same offsets, so readers see no change
+                    for (Unforced line : unforced) {
+                        write(line.bytes, line.offset);
+                    }
+                    channel.force(false);
+                } finally {
+                    lock.release();
+                }
+                forced(nextOffset);
+                failed = false;
+                return true;
+            } catch (IOException e) {
+                System.out.println("Error writing purchase ledger: " + e.getMessage());
+                FAILURES.add(1);
+            } finally {
+                stateLock.unlock();
+            }
+            delay = Math.min(delay * 2, MAX_RETRY_MILLIS);
+        }
+    }
+
+    /**
+     * Records that everything before target is on the disk. Requires stateLock.
+     */
+    private void forced(long target) {
+        forcedOffset = Math.max(forcedOffset, target);
+        unforced.removeIf(line -> line.offset < target);
+        progress.signalAll();
+    }
+
+    /**
+     * Opens the ledger file, closing the channel it replaces. If that fails the old channel is
+     * kept, so channel is never null once it has been opened. Requires stateLock.
+     */
+    private void open() throws IOException {
+        FileChannel opened = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        FileChannel old = channel;
+        channel = opened;
+        if (old != null) {
+            try {
+                old.close();
+            } catch (IOException e) {
+                // Being replaced because it failed; the new channel is what matters
+            }
+        }
+    }
+
+    /**
+     * Indexes what other processes appended, if the ledger grew since this process last looked.
+     */
+    private void catchUp() {
+        stateLock.lock();
+        try {
+            if (channel != null && channel.isOpen() && channel.size() != nextOffset) {
+                FileLock lock = channel.lock();
+                try {
+                    index();
+                } finally {
+                    lock.release();
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("Error reading purchase ledger: " + e.getMessage());
+        } finally {
+            stateLock.unlock();
+        }
+    }
+
+    /**
+     * Indexes the lines added since nextOffset, cutting off a torn last line.
+     *
+     * Requires: the caller holds stateLock and the file lock.
+     */
+    private void index() throws IOException {
+        long offset = nextOffset;
+        if (channel.size() == offset) {
+            return;
+        }
+        long maxOrderId = nextOrderId - 1;
+        InputStream in = new BufferedInputStream(Channels.newInputStream(channel.position(offset)));
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        int b;
+        while ((b = in.read()) != -1) {
+            if (b != '\n') {
+                line.write(b);
+                continue;
+            }
+            String[] fields = line.toString(StandardCharsets.UTF_8).split(",", 4);
+            try {
+                long orderId = Long.parseLong(fields[0]);
+                long timestamp = Long.parseLong(fields[1]);
+                histories.computeIfAbsent(fields[2], u -> new History()).add(offset, timestamp);
+                maxOrderId = Math.max(maxOrderId, orderId);
+                lastTimestamp = Math.max(lastTimestamp, timestamp);
+            } catch (RuntimeException e) {
+                System.out.println("Skipping bad purchase ledger line at offset " + offset);
+            }
+            offset += line.size() + 1;
+            line.reset();
+        }
+        IoMetrics.BYTES_READ.add(offset + line.size() - nextOffset);
+        if (line.size() > 0) {
+            channel.truncate(offset); // Cut off while being written; the purchase was already paid
+        }
+        nextOffset = offset;
+        nextOrderId = maxOrderId + 1;
+    }
+
+    /**
+     * Returns the purchase whose line starts at offset, or null if it cannot be read.
+     */
+    private Purchase read(long offset) {
+        FileChannel reading = channel;
+        if (reading == null) {
+            return null;
+        }
+        try {
+            ByteArrayOutputStream line = new ByteArrayOutputStream();
+            ByteBuffer buffer = ByteBuffer.allocate(READ_CHUNK);
+            long position = offset;
+            while (true) {
+                buffer.clear();
+                int n = reading.read(buffer, position);
+                if (n <= 0) {
+                    break;
+                }
+                IoMetrics.BYTES_READ.add(n);
+                int newline = indexOf(buffer.array(), n, (byte) '\n');
+                line.write(buffer.array(), 0, newline < 0 ? n : newline);
+                if (newline >= 0) {
+                    break;
+                }
+                position += n;
+            }
+            return parse(line.toString(StandardCharsets.UTF_8));
+        } catch (IOException | RuntimeException e) {
+            System.out.println("Error reading purchase ledger: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static int indexOf(byte[] bytes, int length, byte target) {
+        for (int i = 0; i < length; i++) {
+            if (bytes[i] == target) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String format(Purchase p) {
+        StringBuilder line = new StringBuilder();
+        line.append(p.getOrderId()).append(',').append(p.getTimestamp()).append(',')
+                .append(p.getUsername()).append(',').append(Money.format(p.getCashCents())).append(',')
+                .append(p.getPointsSpent()).append(',').append(p.getPointsEarned()).append(',')
+                .append(Money.format(p.getBalanceAfterCents())).append(',').append(p.getPointsAfter()).append(',');
+        String separator = "";
+        for (Map.Entry<String, Integer> item : p.getItems().entrySet()) {
+            line.append(separator).append(URLEncoder.encode(item.getKey(), StandardCharsets.UTF_8))
+                    .append(':').append(item.getValue());
+            separator = ";";
+        }
+        return line.append('\n').toString();
+    }
+
+    private static Purchase parse(String line) {
+        String[] fields = line.split(",", 9);
+        Map<String, Integer> items = new LinkedHashMap<>();
+        if (!fields[8].isEmpty()) {
+            for (String item : fields[8].split(";")) {
+                int colon = item.lastIndexOf(':');
+                items.put(URLDecoder.decode(item.substring(0, colon), StandardCharsets.UTF_8),
+                        Integer.parseInt(item.substring(colon + 1)));
+            }
+        }
+        Purchase purchase = new Purchase(fields[2], items, Money.parse(fields[3]), Integer.parseInt(fields[4]),
+                Integer.parseInt(fields[5]), Money.parse(fields[6]), Integer.parseInt(fields[7]));
+        return purchase.recordedAs(Long.parseLong(fields[0]), Long.parseLong(fields[1]));
+    }
+}
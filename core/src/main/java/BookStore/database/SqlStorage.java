@@ -0,0 +1,562 @@
+package BookStore.database;
+
+import BookStore.models.Book;
+import BookStore.models.Customer;
+import BookStore.utils.InputValidator;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Books and customers stored in an embedded SQL database (H2 in file mode by default, with
+ * AUTO_SERVER so several processes can open the same database file).
+ *
+ * Abstraction Function:
+ * - The books table holds the catalog in insertion order (by id); the customers table holds
+ *   one row per customer, keyed by username.
+ * - Every operation is a prepared statement on a pooled connection, so a balance or points
+ *   change is a single-row UPDATE instead of a rewrite of users.txt, and readers run
+ *   concurrently with each other and with writers.
+ * - On first use an empty database is filled from books.txt and the customer files.
+ *
+ * Representation Invariant:
+ * - books.title_key is always InputValidator.titleKey(title), and is indexed, so title lookups do not scan.
+ * - Money is stored as DECIMAL(19,2), rounded to the nearest cent.
+ * - Changes that touch several rows run in one transaction, so other connections see
+ *   all of them or none.
+ */
+class SqlStorage implements Storage {
+    private static final String[] SCHEMA = {
+        "CREATE TABLE IF NOT EXISTS books ("
+                + "id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, "
+                + "title VARCHAR(1024) NOT NULL, "
+                + "title_key VARCHAR(1024) NOT NULL, "
+                + "price DECIMAL(19,2) NOT NULL)",
+        "CREATE INDEX IF NOT EXISTS books_title_key ON books(title_key)",
+        "CREATE TABLE IF NOT EXISTS customers ("
+                + "username VARCHAR(255) PRIMARY KEY, "
+                + "password VARCHAR(255) NOT NULL, "
+                + "balance DECIMAL(19,2) NOT NULL, "
+                + "points INT NOT NULL)",
+        // Tables created before versions existed get the column added with every row at version 0
+        "ALTER TABLE customers ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL"
+    };
+    private static final String SELECT_BOOKS = "SELECT title, price FROM books ORDER BY id";
+    private static final String SELECT_BOOKS_PAGE = "SELECT title, price FROM books ORDER BY id LIMIT ? OFFSET ?";
+    private static final String COUNT_BOOKS = "SELECT COUNT(*) FROM books";
+    private static final String BOOK_EXISTS = "SELECT 1 FROM books WHERE title_key = ? LIMIT 1";
+    private static final String FIND_BOOK = "SELECT title, price FROM books WHERE title_key = ? ORDER BY id LIMIT 1";
+    private static final String INSERT_BOOK = "INSERT INTO books (title, title_key, price) VALUES (?, ?, ?)";
+    private static final String DELETE_BOOK = "DELETE FROM books WHERE title_key = ?";
+    private static final String DELETE_BOOKS = "DELETE FROM books";
+    private static final String SELECT_CUSTOMERS = "SELECT username, password, balance, points, version FROM customers";
+    private static final String COUNT_CUSTOMERS = "SELECT COUNT(*) FROM customers";
+    private static final String SELECT_CUSTOMER =
+            "SELECT username, password, balance, points, version FROM customers WHERE username = ?";
+    private static final String LOCK_CUSTOMER =
+            "SELECT username, password, balance, points, version FROM customers WHERE username = ? FOR UPDATE";
+    private static final String MERGE_CUSTOMER =
+            "MERGE INTO customers t USING (VALUES (CAST(? AS VARCHAR(255)), CAST(? AS VARCHAR(255)), "
+                    + "CAST(? AS DECIMAL(19,2)), CAST(? AS INT))) s(username, password, balance, points) "
+                    + "ON t.username = s.username "
+                    + "WHEN MATCHED THEN UPDATE SET password = s.password, balance = s.balance, "
+                    + "points = s.points, version = t.version + 1 "
+                    + "WHEN NOT MATCHED THEN INSERT (username, password, balance, points) "
+                    + "VALUES (s.username, s.password, s.balance, s.points)";
+    private static final String UPDATE_CUSTOMER =
+            "UPDATE customers SET balance = ?, points = ?, version = version + 1 WHERE username = ?";
+    private static final String COMPARE_AND_UPDATE_CUSTOMER =
+            "UPDATE customers SET password = ?, balance = ?, points = ?, version = version + 1 "
+                    + "WHERE username = ? AND version = ?";
+    private static final String DELETE_CUSTOMER = "DELETE FROM customers WHERE username = ?";
+    private static final int STREAM_FETCH_SIZE = 1000;
+
+    private final ConnectionPool pool = new ConnectionPool(StoreConfig.jdbcUrl(), StoreConfig.jdbcPoolSize());
+
+    /**
+     * Holds the single storage instance; the class is only initialized on first use.
+     */
+    private static class Holder {
+        private static final SqlStorage INSTANCE = new SqlStorage();
+    }
+
+    /**
+     * Opens the database and creates the tables if needed.
+     *
+     * Requires: the JDBC driver for StoreConfig.jdbcUrl() is on the class path.
+     * Modifies: the database
+     * Effects: Creates missing tables and index, and imports the text files into empty tables.
+     */
+    private SqlStorage() {
+        try (ConnectionPool.PooledConnection c = pool.borrow()) {
+            for (String ddl : SCHEMA) {
+                c.prepare(ddl).execute();
+            }
+            if (isEmpty(c, COUNT_BOOKS)) {
+                importBooks(c);
+            }
+            if (isEmpty(c, COUNT_CUSTOMERS)) {
+                importCustomers(c);
+            }
+        } catch (SQLException e) {
+            System.out.println("Error opening database: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the shared storage, opening the database on first call.
+     *
+     * Requires: none
+     * Modifies: none
+     * Effects: Returns the one SQL storage for this program.
+     */
+    static SqlStorage get() {
+        return Holder.INSTANCE;
+    }
+
+    @Override
+    public List<Book> getBooks() {
+        List<Book> books = new ArrayList<>();
+        try (ConnectionPool.PooledConnection c = pool.borrow();
+             ResultSet rs = c.prepare(SELECT_BOOKS).executeQuery()) {
+            while (rs.next()) {
+                books.add(readBook(rs));
+            }
+        } catch (SQLException e) {
+            System.out.println("Error reading books: " + e.getMessage());
+        }
+        return books;
+    }
+
+    /**
+     * Reads only the rows of the page.
+     */
+    @Override
+    public List<Book> getBooksPage(long offset, int limit) {
+        List<Book> books = new ArrayList<>();
+        try (ConnectionPool.PooledConnection c = pool.borrow()) {
+            PreparedStatement statement = c.prepare(SELECT_BOOKS_PAGE);
+            statement.setInt(1, limit);
+            statement.setLong(2, offset);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    books.add(readBook(rs));
+                }
+            }
+        } catch (SQLException e) {
+            System.out.println("Error reading books: " + e.getMessage());
+        }
+        return books;
+    }
+
+    /**
+     * Streams the books straight from a result set, so the catalog is never held in memory.
+     * The stream keeps its connection until it is closed.
+     */
+    @Override
+    public Stream<Book> streamBooks() {
+        ConnectionPool.PooledConnection c = null;
+        try {
+            c = pool.borrow();
+            PreparedStatement statement = c.prepare(SELECT_BOOKS);
+            statement.setFetchSize(STREAM_FETCH_SIZE);
+            ResultSet rs = statement.executeQuery();
+            ConnectionPool.PooledConnection connection = c;
+            Spliterator<Book> books = new Spliterators.AbstractSpliterator<Book>(
+                    Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL) {
+                @Override
+                public boolean tryAdvance(Consumer<? super Book> action) {
+                    try {
+                        if (!rs.next()) {
+                            return false;
+                        }
+                        action.accept(readBook(rs));
+                        return true;
+                    } catch (SQLException e) {
+                        throw new UncheckedIOException(new IOException(e));
+                    }
+                }
+            };
+            return StreamSupport.stream(books, false).onClose(() -> {
+                try {
+                    rs.close();
+                } catch (SQLException e) {
+                    System.out.println("Error reading books: " + e.getMessage());
+                }
+                connection.close();
+            });
+        } catch (SQLException e) {
+            System.out.println("Error reading books: " + e.getMessage());
+            if (c != null) {
+                c.close();
+            }
+            return Stream.empty();
+        }
+    }
+
+    @Override
+    public boolean containsBook(String title) {
+        try (ConnectionPool.PooledConnection c = pool.borrow()) {
+            PreparedStatement statement = c.prepare(BOOK_EXISTS);
+            statement.setString(1, titleKey(title.trim()));
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next();
+            }
+        } catch (SQLException e) {
+            System.out.println("Error reading books: " + e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public Book findBook(String title) {
+        try (ConnectionPool.PooledConnection c = pool.borrow()) {
+            PreparedStatement statement = c.prepare(FIND_BOOK);
+            statement.setString(1, titleKey(title));
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() ? readBook(rs) : null;
+            }
+        } catch (SQLException e) {
+            System.out.println("Error reading books: " + e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public void exportBooks(Path target) throws IOException {
+        try (Stream<Book> books = streamBooks()) {
+            BookTextFile.write(target, books.iterator());
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    @Override
+    public void replaceBooks(List<Book> newBooks) {
+        try (ConnectionPool.PooledConnection c = pool.borrow()) {
+            c.begin();
+            c.prepare(DELETE_BOOKS).executeUpdate();
+            insertBooks(c, newBooks);
+            c.commit();
+        } catch (SQLException e) {
+            System.out.println("Error writing books: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void addBook(Book book) {
+        try (ConnectionPool.PooledConnection c = pool.borrow()) {
+            PreparedStatement statement = c.prepare(INSERT_BOOK);
+            bindBook(statement, book);
+            statement.executeUpdate();
+        } catch (SQLException e) {
+            System.out.println("Error writing books: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void removeBook(String title) {
+        try (ConnectionPool.PooledConnection c = pool.borrow()) {
+            PreparedStatement statement = c.prepare(DELETE_BOOK);
+            statement.setString(1, titleKey(title));
+            statement.executeUpdate();
+        } catch (SQLException e) {
+            System.out.println("Error writing books: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public Map<String, Customer> getCustomers() {
+        Map<String, Customer> customers = new HashMap<>();
+        try (ConnectionPool.PooledConnection c = pool.borrow();
+             ResultSet rs = c.prepare(SELECT_CUSTOMERS).executeQuery()) {
+            while (rs.next()) {
+                Customer customer = readCustomer(rs);
+                customers.put(customer.getUsername(), customer);
+            }
+        } catch (SQLException e) {
+            System.out.println("Error reading customers: " + e.getMessage());
+        }
+        return customers;
+    }
+
+    @Override
+    public Customer getCustomer(String username) {
+        try (ConnectionPool.PooledConnection c = pool.borrow()) {
+            PreparedStatement statement = c.prepare(SELECT_CUSTOMER);
+            statement.setString(1, username);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() ? readCustomer(rs) : null;
+            }
+        } catch (SQLException e) {
+            System.out.println("Error reading customers: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Writes only the customers that were removed, added or changed, in one transaction.
+     */
+    @Override
+    public void replaceCustomers(Map<String, Customer> newCustomers) {
+        try (ConnectionPool.PooledConnection c = pool.borrow()) {
+            c.begin();
+            Map<String, Customer> current = new HashMap<>();
+            try (ResultSet rs = c.prepare(SELECT_CUSTOMERS).executeQuery()) {
+                while (rs.next()) {
+                    Customer customer = readCustomer(rs);
+                    current.put(customer.getUsername(), customer);
+                }
+            }
+            PreparedStatement delete = c.prepare(DELETE_CUSTOMER);
+            for (String username : current.keySet()) {
+                if (!newCustomers.containsKey(username)) {
+                    delete.setString(1, username);
+                    delete.addBatch();
+                }
+            }
+            delete.executeBatch();
+            PreparedStatement merge = c.prepare(MERGE_CUSTOMER);
+            for (Customer customer : newCustomers.values()) {
+                if (!sameRow(current.get(customer.getUsername()), customer)) {
+                    bindCustomer(merge, customer);
+                    merge.addBatch();
+                }
+            }
+            merge.executeBatch();
+            c.commit();
+        } catch (SQLException e) {
+            System.out.println("Error writing customers: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void putCustomer(Customer customer) {
+        try (ConnectionPool.PooledConnection c = pool.borrow()) {
+            PreparedStatement statement = c.prepare(MERGE_CUSTOMER);
+            bindCustomer(statement, customer);
+            statement.executeUpdate();
+        } catch (SQLException e) {
+            System.out.println("Error writing customers: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Updates the row only where it still has the customer's version, in one statement.
+     */
+    @Override
+    public boolean compareAndPutCustomer(Customer customer) {
+        try (ConnectionPool.PooledConnection c = pool.borrow()) {
+            PreparedStatement statement = c.prepare(COMPARE_AND_UPDATE_CUSTOMER);
+            statement.setString(1, customer.getPassword());
+            statement.setBigDecimal(2, money(customer.getBalanceCents()));
+            statement.setInt(3, customer.getPoints());
+            statement.setString(4, customer.getUsername());
+            statement.setLong(5, customer.getVersion());
+            return statement.executeUpdate() == 1;
+        } catch (SQLException e) {
+            System.out.println("Error writing customers: " + e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public void removeCustomer(String username) {
+        try (ConnectionPool.PooledConnection c = pool.borrow()) {
+            PreparedStatement statement = c.prepare(DELETE_CUSTOMER);
+            statement.setString(1, username);
+            statement.executeUpdate();
+        } catch (SQLException e) {
+            System.out.println("Error writing customers: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Locks the customer's row, applies the change and writes back only balance and points.
+     */
+    @Override
+    public boolean modifyCustomer(String username, Predicate<Customer> change) {
+        try (ConnectionPool.PooledConnection c = pool.borrow()) {
+            c.begin();
+            PreparedStatement select = c.prepare(LOCK_CUSTOMER);
+            select.setString(1, username);
+            Customer working;
+            try (ResultSet rs = select.executeQuery()) {
+                if (!rs.next()) {
+                    return false;
+                }
+                working = readCustomer(rs);
+            }
+            if (!change.test(working)) {
+                return false;
+            }
+            PreparedStatement update = c.prepare(UPDATE_CUSTOMER);
+            update.setBigDecimal(1, money(working.getBalanceCents()));
+            update.setInt(2, working.getPoints());
+            update.setString(3, username);
+            update.executeUpdate();
+            c.commit();
+            return true;
+        } catch (SQLException e) {
+            System.out.println("Error writing customers: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Locks every customer the changes touch, in username order so concurrent batches cannot
+     * deadlock, applies the changes in list order and writes the changed rows in one batch,
+     * all in one transaction. Each change runs exactly once.
+     */
+    @Override
+    public boolean[] modifyCustomers(List<Map.Entry<String, Predicate<Customer>>> changes) {
+        boolean[] accepted = new boolean[changes.size()];
+        SortedSet<String> usernames = new TreeSet<>();
+        for (Map.Entry<String, Predicate<Customer>> change : changes) {
+            usernames.add(change.getKey());
+        }
+        try (ConnectionPool.PooledConnection c = pool.borrow()) {
+            c.begin();
+            Map<String, Customer> working = new HashMap<>();
+            PreparedStatement select = c.prepare(LOCK_CUSTOMER);
+            for (String username : usernames) {
+                select.setString(1, username);
+                try (ResultSet rs = select.executeQuery()) {
+                    if (rs.next()) {
+                        working.put(username, readCustomer(rs));
+                    }
+                }
+            }
+            Set<String> changed = new LinkedHashSet<>();
+            for (int i = 0; i < accepted.length; i++) {
+                Customer customer = working.get(changes.get(i).getKey());
+                if (customer == null) {
+                    continue;
+                }
+                Customer attempt = DataStore.copyOf(customer);
+                if (changes.get(i).getValue().test(attempt)) {
+                    working.put(attempt.getUsername(), attempt);
+                    changed.add(attempt.getUsername());
+                    accepted[i] = true;
+                }
+            }
+            PreparedStatement update = c.prepare(UPDATE_CUSTOMER);
+            for (String username : changed) {
+                Customer customer = working.get(username);
+                update.setBigDecimal(1, money(customer.getBalanceCents()));
+                update.setInt(2, customer.getPoints());
+                update.setString(3, username);
+                update.addBatch();
+            }
+            update.executeBatch();
+            c.commit();
+            return accepted;
+        } catch (SQLException e) {
+            System.out.println("Error writing customers: " + e.getMessage());
+            return new boolean[changes.size()];
+        }
+    }
+
+    private static boolean isEmpty(ConnectionPool.PooledConnection c, String countQuery) throws SQLException {
+        try (ResultSet rs = c.prepare(countQuery).executeQuery()) {
+            return rs.next() && rs.getLong(1) == 0;
+        }
+    }
+
+    private static void importBooks(ConnectionPool.PooledConnection c) throws SQLException {
+        Path file = Paths.get(DataStore.BOOKS_FILE);
+        if (!Files.exists(file)) {
+            return;
+        }
+        try {
+            c.begin();
+            insertBooks(c, BookTextFile.read(file));
+            c.commit();
+        } catch (IOException e) {
+            System.out.println("Error reading books file: " + e.getMessage());
+        }
+    }
+
+    private static void importCustomers(ConnectionPool.PooledConnection c) throws SQLException {
+        c.begin();
+        PreparedStatement merge = c.prepare(MERGE_CUSTOMER);
+        for (Customer customer : CustomerShard.readAll(Paths.get(StoreConfig.dataDir())).values()) {
+            bindCustomer(merge, customer);
+            merge.addBatch();
+        }
+        merge.executeBatch();
+        c.commit();
+    }
+
+    private static void insertBooks(ConnectionPool.PooledConnection c, List<Book> books) throws SQLException {
+        PreparedStatement insert = c.prepare(INSERT_BOOK);
+        for (Book book : books) {
+            bindBook(insert, book);
+            insert.addBatch();
+        }
+        insert.executeBatch();
+    }
+
+    private static void bindBook(PreparedStatement statement, Book book) throws SQLException {
+        statement.setString(1, book.getTitle());
+        statement.setString(2, titleKey(book.getTitle()));
+        statement.setBigDecimal(3, money(book.getPriceCents()));
+    }
+
+    private static void bindCustomer(PreparedStatement statement, Customer customer) throws SQLException {
+        statement.setString(1, customer.getUsername());
+        statement.setString(2, customer.getPassword());
+        statement.setBigDecimal(3, money(customer.getBalanceCents()));
+        statement.setInt(4, customer.getPoints());
+    }
+
+    private static Book readBook(ResultSet rs) throws SQLException {
+        return new Book(rs.getString(1), cents(rs.getBigDecimal(2)));
+    }
+
+    private static Customer readCustomer(ResultSet rs) throws SQLException {
+        Customer customer = new Customer(rs.getString(1), rs.getString(2), cents(rs.getBigDecimal(3)));
+        customer.setPoints(rs.getInt(4));
+        customer.setVersion(rs.getLong(5));
+        return customer;
+    }
+
+    private static boolean sameRow(Customer stored, Customer customer) {
+        return stored != null
+                && stored.getPassword().equals(customer.getPassword())
+                && stored.getBalanceCents() == customer.getBalanceCents()
+                && stored.getPoints() == customer.getPoints();
+    }
+
+    /**
+     * The indexed form of a title: equal keys exactly when the titles are equal ignoring case.
+     */
+    private static String titleKey(String title) {
+        return InputValidator.titleKey(title);
+    }
+
+    /**
+     * Converts cents to the DECIMAL(19,2) column value, exactly.
+     */
+    private static BigDecimal money(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    /**
+     * Converts a DECIMAL(19,2) column value to cents; the scale is always 2, so this is exact.
+     */
+    private static long cents(BigDecimal amount) {
+        return amount.movePointRight(2).longValueExact();
+    }
+}
@@ -0,0 +1,159 @@
+package BookStore.database;
+
+import BookStore.models.Book;
+import BookStore.models.Customer;
+import BookStore.utils.InputValidator;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Where DatabaseManager keeps books and customers.
+ *
+ * Abstraction Function:
+ * - A catalog of books in insertion order and a set of customers keyed by username.
+ * - DataStore keeps them in memory backed by the text files; SqlStorage keeps them in an
+ *   embedded SQL database. bookstore.backend chooses one (see StoreConfig.backend()).
+ *
+ * Representation Invariant:
+ * - Books and customers handed to or returned from a Storage are copies; callers never
+ *   share objects with the storage.
+ * - Every method is safe to call from several threads at once.
+ */
+interface Storage {
+    /**
+     * Returns copies of all books in catalog order.
+     */
+    List<Book> getBooks();
+
+    /**
+     * Streams copies of all books in catalog order. The stream must be closed.
+     */
+    Stream<Book> streamBooks();
+
+    /**
+     * Returns copies of at most limit books, starting at position offset in catalog order.
+     * This version streams the catalog up to the end of the page.
+     */
+    default List<Book> getBooksPage(long offset, int limit) {
+        try (Stream<Book> books = streamBooks()) {
+            return books.skip(offset).limit(limit).collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Returns true if a book with the title exists, ignoring case and surrounding spaces.
+     */
+    boolean containsBook(String title);
+
+    /**
+     * Returns a copy of the first book whose title matches, ignoring case, or null.
+     */
+    Book findBook(String title);
+
+    /**
+     * Returns, in batch order, the titles that are already in the catalog or repeat an
+     * earlier title in the batch, ignoring case and surrounding spaces.
+     */
+    default List<String> findDuplicateTitles(List<String> titles) {
+        return InputValidator.duplicateTitles(titles, this::containsBook);
+    }
+
+    /**
+     * Returns at most limit copies of the books whose titles best match query
+     * (see TitleSearchIndex for the ranking). This version reads the whole catalog.
+     */
+    default List<Book> searchBooks(String query, int limit) {
+        try (Stream<Book> books = streamBooks()) {
+            return TitleSearchIndex.scan(books::iterator, query, limit);
+        }
+    }
+
+    /**
+     * Writes the catalog to target in books.txt format.
+     */
+    void exportBooks(Path target) throws IOException;
+
+    /**
+     * Replaces the whole catalog with copies of newBooks.
+     */
+    void replaceBooks(List<Book> newBooks);
+
+    /**
+     * Adds one book to the end of the catalog.
+     */
+    void addBook(Book book);
+
+    /**
+     * Removes every book whose title matches, ignoring case.
+     */
+    void removeBook(String title);
+
+    /**
+     * Registers a listener for catalog changes made outside this program. The listener is held
+     * weakly. Storages that cannot see such changes ignore it.
+     */
+    default void addCatalogListener(CatalogListener listener) {
+    }
+
+    /**
+     * Stops notifying a listener.
+     */
+    default void removeCatalogListener(CatalogListener listener) {
+    }
+
+    /**
+     * Returns copies of all customers keyed by username.
+     */
+    Map<String, Customer> getCustomers();
+
+    /**
+     * Returns a copy of one customer, or null if not found.
+     */
+    Customer getCustomer(String username);
+
+    /**
+     * Replaces all customers with copies of newCustomers.
+     */
+    void replaceCustomers(Map<String, Customer> newCustomers);
+
+    /**
+     * Adds a customer, or replaces the one with the same username.
+     */
+    void putCustomer(Customer customer);
+
+    /**
+     * Replaces the stored customer with a copy of customer only if the stored one still has
+     * customer's version. Returns false, changing nothing, if it does not.
+     */
+    boolean compareAndPutCustomer(Customer customer);
+
+    /**
+     * Removes a customer by username.
+     */
+    void removeCustomer(String username);
+
+    /**
+     * Runs change on a copy of the customer and stores the copy if change returns true,
+     * as a single step with respect to other changes to that customer. change may run more than
+     * once if the customer is changed concurrently. Returns false if the customer does not exist or the change was rejected.
+     */
+    boolean modifyCustomer(String username, Predicate<Customer> change);
+
+    /**
+     * Applies many changes, each as modifyCustomer would, in list order; a change sees the
+     * result of the accepted changes before it to the same customer. Returns, for each change,
+     * whether it was stored. This version commits them one at a time.
+     */
+    default boolean[] modifyCustomers(List<Map.Entry<String, Predicate<Customer>>> changes) {
+        boolean[] accepted = new boolean[changes.size()];
+        for (int i = 0; i < accepted.length; i++) {
+            accepted[i] = modifyCustomer(changes.get(i).getKey(), changes.get(i).getValue());
+        }
+        return accepted;
+    }
+}
@@ -0,0 +1,179 @@
+package BookStore.database;
+
+import java.nio.file.Paths;
+
+/**
+ * Tunable settings for the data store, read from Java system properties.
+ *
+ * Abstraction Function:
+ * - Each setting has a system property name and a default used when the property is not set,
+ *   e.g. -Dbookstore.snapshot.records=5000
+ *
+ * Representation Invariant:
+ * - Every getter returns a usable value; bad or missing properties fall back to the default.
+ */
+final class StoreConfig {
+    private StoreConfig() {
+    }
+
+    /**
+     * Number of customer log records that triggers a new snapshot.
+     *
+     * Requires: none
+     * Modifies: none
+     * Effects: Returns bookstore.snapshot.records, or 1000 if unset or not positive.
+     */
+    static long snapshotRecordThreshold() {
+        return positiveLong("bookstore.snapshot.records", 1000);
+    }
+
+    /**
+     * Longest time, in seconds, a customer log record may wait before it is folded into a snapshot.
+     *
+     * Requires: none
+     * Modifies: none
+     * Effects: Returns bookstore.snapshot.interval, or 300 if unset or not positive.
+     */
+    static long snapshotIntervalSeconds() {
+        return positiveLong("bookstore.snapshot.interval", 300);
+    }
+
+    /**
+     * How books.txt and users.txt are read at startup.
+     *
+     * Requires: none
+     * Modifies: none
+     * Effects: Returns bookstore.loader: "mapped" to memory-map the files and parse the bytes in place,
+     *          "parallel" to do the same with chunks of the file parsed on every core,
+     *          or "buffered" (the default) to read them line by line.
+     */
+    static String loaderMode() {
+        String mode = System.getProperty("bookstore.loader", "buffered");
+        return mode.equals("mapped") || mode.equals("parallel") ? mode : "buffered";
+    }
+
+    /**
+     * Whether the catalog is also kept in the binary books.bin format.
+     *
+     * Requires: none
+     * Modifies: none
+     * Effects: Returns false only if bookstore.catalog.binary is set to "false".
+     */
+    static boolean binaryCatalog() {
+        return !System.getProperty("bookstore.catalog.binary", "true").equals("false");
+    }
+
+    /**
+     * How long, in microseconds, a save waits for concurrent saves to join it before writing.
+     *
+     * Requires: none
+     * Modifies: none
+     * Effects: Returns bookstore.commit.window, or 500 if unset or not positive.
+     */
+    static long commitWindowMicros() {
+        return positiveLong("bookstore.commit.window", 500);
+    }
+
+    /**
+     * Whether the book catalog is held in memory.
+     *
+     * Requires: none
+     * Modifies: none
+     * Effects: Returns false only if bookstore.catalog.resident is set to "false", in which case
+     *          books are streamed from books.txt instead so catalogs larger than the heap work.
+     */
+    static boolean residentCatalog() {
+        return !System.getProperty("bookstore.catalog.resident", "true").equals("false");
+    }
+
+    /**
+     * Number of files the customers are spread over, by username hash.
+     *
+     * Requires: none
+     * Modifies: none
+     * Effects: Returns bookstore.customer.shards, or 1 (just users.txt) if unset or not positive.
+     *          Changing it migrates the customer files on the next start.
+     */
+    static int customerShards() {
+        return (int) Math.min(positiveLong("bookstore.customer.shards", 1), 1024);
+    }
+
+    /**
+     * How often, in milliseconds, customers are caught up with changes other processes made.
+     *
+     * Requires: none
+     * Modifies: none
+     * Effects: Returns bookstore.customer.refresh, or 1000 if unset or not positive.
+     *          Commits always catch up first, whatever this is set to.
+     */
+    static long customerRefreshMillis() {
+        return positiveLong("bookstore.customer.refresh", 1000);
+    }
+
+    /**
+     * Whether books.txt is watched for changes made by other processes.
+     *
+     * Requires: none
+     * Modifies: none
+     * Effects: Returns false only if bookstore.catalog.watch is set to "false".
+     */
+    static boolean watchCatalog() {
+        return !System.getProperty("bookstore.catalog.watch", "true").equals("false");
+    }
+
+    /**
+     * Which storage DatabaseManager uses.
+     *
+     * Requires: none
+     * Modifies: none
+     * Effects: Returns bookstore.backend: "sql" for the embedded database (SqlStorage),
+     *          or "files" (the default) for the text files (DataStore).
+     */
+    static String backend() {
+        return System.getProperty("bookstore.backend", "files").equals("sql") ? "sql" : "files";
+    }
+
+    /**
+     * Directory holding the data files: books.txt, users.txt with its logs and shards, and the
+     * purchase ledger.
+     *
+     * Requires: none
+     * Modifies: none
+     * Effects: Returns bookstore.data.dir, or the data directory under the working directory
+     *          (the project root) if unset.
+     */
+    static String dataDir() {
+        return System.getProperty("bookstore.data.dir", "data");
+    }
+
+    /**
+     * JDBC URL of the embedded database used by the "sql" backend.
+     *
+     * Requires: none
+     * Modifies: none
+     * Effects: Returns bookstore.jdbc.url, or an H2 database in file mode in the data directory.
+     *          The default sets AUTO_SERVER, so the first process to open the file serves it to
+     *          the others instead of locking them out. The matching JDBC driver must be on the
+     *          class path.
+     */
+    static String jdbcUrl() {
+        return System.getProperty("bookstore.jdbc.url",
+                "jdbc:h2:file:" + Paths.get(dataDir(), "bookstore").toAbsolutePath() + ";AUTO_SERVER=TRUE");
+    }
+
+    /**
+     * Most connections the "sql" backend keeps open at once.
+     *
+     * Requires: none
+     * Modifies: none
+     * Effects: Returns bookstore.jdbc.pool, or 4 if unset or not positive.
+     */
+    static int jdbcPoolSize() {
+        return (int) Math.min(positiveLong("bookstore.jdbc.pool", 4), 64);
+    }
+
+    private static long positiveLong(String property, long defaultValue) {
+        Long value = Long.getLong(property);
+        return value == null || value <= 0 ? defaultValue : value;
+    }
+}
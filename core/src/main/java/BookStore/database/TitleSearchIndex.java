@@ -0,0 +1,270 @@
+package BookStore.database;
+
+import BookStore.models.Book;
+import BookStore.utils.InputValidator;
+import java.util.*;
+import java.util.function.LongFunction;
+
+/**
+ * Prefix and word search over book titles.
+ *
+ * Abstraction Function:
+ * - titles maps each title key (InputValidator.titleKey) to the catalog sequence numbers of the
+ *   books with that title; terms maps each word of a title key to the same sequence numbers.
+ *   Both are sorted, so every key or word starting with a prefix is one contiguous range.
+ * - A query matches a title in one of three ranks, best first:
+ *     0  the whole title equals the query
+ *     1  the title starts with the query
+ *     2  every word of the query is the start of some word in the title
+ *   All comparisons ignore case.
+ *
+ * Representation Invariant:
+ * - A sequence number is listed under its title key and under each distinct word of it,
+ *   and nowhere else. No set in either map is empty.
+ * - Postings are sorted ascending, which is catalog order.
+ * - Not thread-safe; the owner guards it with its own lock.
+ */
+final class TitleSearchIndex {
+    private final TreeMap<String, Postings> titles = new TreeMap<>();
+    private final TreeMap<String, Postings> terms = new TreeMap<>();
+
+    /**
+     * A sorted, growable array of sequence numbers. Books are added in catalog order,
+     * so adding is almost always an append.
+     */
+    private static final class Postings {
+        private long[] values = new long[1];
+        private int size;
+
+        void add(long sequence) {
+            int at = insertionPoint(sequence);
+            if (at < size && values[at] == sequence) {
+                return;
+            }
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            System.arraycopy(values, at, values, at + 1, size - at);
+            values[at] = sequence;
+            size++;
+        }
+
+        boolean remove(long sequence) {
+            int at = insertionPoint(sequence);
+            if (at == size || values[at] != sequence) {
+                return false;
+            }
+            System.arraycopy(values, at + 1, values, at, size - at - 1);
+            size--;
+            return true;
+        }
+
+        private int insertionPoint(long sequence) {
+            if (size == 0 || values[size - 1] < sequence) {
+                return size;
+            }
+            int at = Arrays.binarySearch(values, 0, size, sequence);
+            return at >= 0 ? at : -at - 1;
+        }
+    }
+
+    /**
+     * Indexes one book.
+     *
+     * Requires: sequence is not already indexed, title is not null.
+     * Modifies: this
+     * Effects: Makes the book findable by its title and by each of its words.
+     */
+    void add(long sequence, String title) {
+        String key = InputValidator.titleKey(title);
+        titles.computeIfAbsent(key, k -> new Postings()).add(sequence);
+        for (String term : words(key)) {
+            terms.computeIfAbsent(term, k -> new Postings()).add(sequence);
+        }
+    }
+
+    /**
+     * Removes one book from the index.
+     *
+     * Requires: title is the title the book was added with.
+     * Modifies: this
+     * Effects: The book is no longer returned by search.
+     */
+    void remove(long sequence, String title) {
+        String key = InputValidator.titleKey(title);
+        unlist(titles, key, sequence);
+        for (String term : words(key)) {
+            unlist(terms, term, sequence);
+        }
+    }
+
+    /**
+     * Finds the best matching books.
+     *
+     * Requires: query is not null, limit ≥ 0, titleOf returns the title of any indexed sequence number.
+     * Modifies: none
+     * Effects: Returns at most limit sequence numbers, best rank first. Within rank 1 titles are
+     *          in alphabetical order, within ranks 0 and 2 in catalog order per matching word.
+     *          Stops as soon as limit results are found, so the cost depends on limit, not on
+     *          the catalog size.
+     */
+    List<Long> search(String query, int limit, LongFunction<String> titleOf) {
+        String key = InputValidator.titleKey(query.trim());
+        LinkedHashSet<Long> found = new LinkedHashSet<>();
+        if (key.isEmpty() || limit <= 0) {
+            return new ArrayList<>(found);
+        }
+
+        // Rank 0 and 1: the title key range starting at the query
+        for (Postings postings : withPrefix(titles, key).values()) {
+            for (int i = 0; i < postings.size; i++) {
+                found.add(postings.values[i]);
+                if (found.size() == limit) {
+                    return new ArrayList<>(found);
+                }
+            }
+        }
+
+        // Rank 2: walk the postings of the query word with the fewest, check the others per title
+        List<String> queryWords = words(key);
+        if (queryWords.isEmpty()) {
+            return new ArrayList<>(found);
+        }
+        String driver = null;
+        long fewest = Long.MAX_VALUE;
+        for (String word : queryWords) {
+            long count = countPostings(word, fewest);
+            if (count < fewest) {
+                fewest = count;
+                driver = word;
+            }
+        }
+        for (Postings postings : withPrefix(terms, driver).values()) {
+            for (int i = 0; i < postings.size; i++) {
+                long sequence = postings.values[i];
+                if (!found.contains(sequence)
+                        && wordsMatch(words(InputValidator.titleKey(titleOf.apply(sequence))), queryWords)) {
+                    found.add(sequence);
+                    if (found.size() == limit) {
+                        return new ArrayList<>(found);
+                    }
+                }
+            }
+        }
+        return new ArrayList<>(found);
+    }
+
+    /**
+     * Ranks books without an index, for storages that do not keep the catalog in memory.
+     *
+     * Requires: books, query are not null, limit ≥ 0
+     * Modifies: none
+     * Effects: Returns at most limit books, best rank first and in catalog order within a rank.
+     *          Reads every book once.
+     */
+    static List<Book> scan(Iterable<Book> books, String query, int limit) {
+        String key = InputValidator.titleKey(query.trim());
+        if (key.isEmpty() || limit <= 0) {
+            return new ArrayList<>();
+        }
+        List<String> queryWords = words(key);
+        List<List<Book>> byRank = Arrays.asList(new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+        for (Book book : books) {
+            int rank = rank(InputValidator.titleKey(book.getTitle()), key, queryWords);
+            if (rank >= 0 && byRank.get(rank).size() < limit) {
+                byRank.get(rank).add(book);
+            }
+        }
+        List<Book> results = new ArrayList<>();
+        for (List<Book> rank : byRank) {
+            for (Book book : rank) {
+                if (results.size() == limit) {
+                    return results;
+                }
+                results.add(book);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Returns 0, 1 or 2 for the rank at which titleKey matches the query (see class comment), or -1.
+     */
+    static int rank(String titleKey, String queryKey, List<String> queryWords) {
+        if (titleKey.equals(queryKey)) {
+            return 0;
+        }
+        if (titleKey.startsWith(queryKey)) {
+            return 1;
+        }
+        return !queryWords.isEmpty() && wordsMatch(words(titleKey), queryWords) ? 2 : -1;
+    }
+
+    /**
+     * Splits a title key into its distinct words: runs of letters and digits.
+     */
+    static List<String> words(String key) {
+        List<String> words = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= key.length(); i++) {
+            boolean wordChar = i < key.length() && Character.isLetterOrDigit(key.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                String word = key.substring(start, i);
+                if (!words.contains(word)) {
+                    words.add(word);
+                }
+                start = -1;
+            }
+        }
+        return words;
+    }
+
+    /**
+     * Returns true if every query word is the start of some title word.
+     */
+    private static boolean wordsMatch(List<String> titleWords, List<String> queryWords) {
+        for (String queryWord : queryWords) {
+            boolean matched = false;
+            for (String titleWord : titleWords) {
+                if (titleWord.startsWith(queryWord)) {
+                    matched = true;
+                    break;
+                }
+            }
+            if (!matched) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Counts the postings of the words starting with prefix, giving up once the count passes limit.
+     */
+    private long countPostings(String prefix, long limit) {
+        long count = 0;
+        for (Postings postings : withPrefix(terms, prefix).values()) {
+            count += postings.size;
+            if (count >= limit) {
+                break;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the part of a sorted index whose keys start with prefix.
+     */
+    private static SortedMap<String, Postings> withPrefix(TreeMap<String, Postings> index, String prefix) {
+        return index.subMap(prefix, prefix + Character.MAX_VALUE);
+    }
+
+    private static void unlist(Map<String, Postings> index, String key, long sequence) {
+        Postings postings = index.get(key);
+        if (postings != null && postings.remove(sequence) && postings.size == 0) {
+            index.remove(key);
+        }
+    }
+}
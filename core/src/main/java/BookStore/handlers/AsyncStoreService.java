@@ -0,0 +1,200 @@
+package BookStore.handlers;
+
+import BookStore.database.CatalogListener;
+import BookStore.database.DatabaseManager;
+import BookStore.models.Book;
+import BookStore.models.Customer;
+import BookStore.models.ShoppingCart;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs store operations on a dedicated I/O thread pool and hands back their results as futures.
+ *
+ * Abstraction Function:
+ * - Each method starts one operation of DatabaseManager or a handler on the I/O pool and returns
+ *   a CompletableFuture that completes with its result, so the caller's thread (the JavaFX
+ *   Application Thread for the scenes) never waits for the disk.
+ * - Callers decide where results are applied; scenes apply them with Platform::runLater.
+ *
+ * Representation Invariant:
+ * - DatabaseManager and the handlers are only created and used on the I/O pool: creating the
+ *   first DatabaseManager loads the data files.
+ * - The I/O threads are daemons, so they never keep the program alive.
+ */
+public class AsyncStoreService {
+    private static final int IO_THREADS = 4; // Reads run side by side; writes serialize in the storage
+
+    private static final ExecutorService IO = Executors.newFixedThreadPool(IO_THREADS, new IoThreadFactory());
+
+    /**
+     * Names the I/O threads and makes them daemons.
+     */
+    private static final class IoThreadFactory implements ThreadFactory {
+        private final AtomicInteger next = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "store-io-" + next.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+    /**
+     * The store and handlers, created by the first operation to run on the I/O pool.
+     */
+    private static class Backend {
+        static final DatabaseManager DB = new DatabaseManager();
+        static final LoginHandler LOGIN = new LoginHandler();
+        static final PaymentHandler PAYMENT = new PaymentHandler();
+        static final OwnerHandler OWNER = new OwnerHandler();
+    }
+
+    /**
+     * Starts loading the data files in the background.
+     *
+     * Requires: none
+     * Modifies: none
+     * Effects: Returns a future that completes once books and customers are loaded.
+     */
+    public static CompletableFuture<Void> initialize() {
+        return CompletableFuture.runAsync(DatabaseManager::initialize, IO);
+    }
+
+    /**
+     * Checks login credentials.
+     *
+     * Requires: username and password are not null.
+     * Modifies: none
+     * Effects: Completes with "owner", "customer" or "invalid", as LoginHandler.validateUser does.
+     */
+    public CompletableFuture<String> validateUser(String username, String password) {
+        return run(() -> Backend.LOGIN.validateUser(username, password));
+    }
+
+    /**
+     * Reads one customer.
+     *
+     * Requires: username is not null.
+     * Modifies: none
+     * Effects: Completes with a copy of the customer, or null if not found.
+     */
+    public CompletableFuture<Customer> getCustomer(String username) {
+        return run(() -> Backend.DB.getCustomer(username));
+    }
+
+    /**
+     * Reads one page of the catalog.
+     *
+     * Requires: offset ≥ 0, limit ≥ 0
+     * Modifies: none
+     * Effects: Completes with at most limit books starting at offset, in catalog order.
+     */
+    public CompletableFuture<List<Book>> loadBooksPage(long offset, int limit) {
+        return run(() -> Backend.DB.loadBooksPage(offset, limit));
+    }
+
+    /**
+     * Searches the catalog by title.
+     *
+     * Requires: query is not null, limit ≥ 0
+     * Modifies: none
+     * Effects: Completes with at most limit best-matching books.
+     */
+    public CompletableFuture<List<Book>> searchBooks(String query, int limit) {
+        return run(() -> Backend.DB.searchBooks(query, limit));
+    }
+
+    /**
+     * Registers a listener for catalog changes made by other programs.
+     *
+     * Requires: listener is not null; the caller keeps a reference to it.
+     * Modifies: none
+     * Effects: Completes once the listener is registered. The listener is called on a
+     *          background thread.
+     */
+    public CompletableFuture<Void> addCatalogListener(CatalogListener listener) {
+        return run(() -> {
+            Backend.DB.addCatalogListener(listener);
+            return null;
+        });
+    }
+
+    /**
+     * Pays for a cart and records the purchase.
+     *
+     * Requires: username exists; cart is not null.
+     * Modifies: customer's balance and points, the purchase ledger
+     * Effects: Copies cart now, on the calling thread, then pays for the copy as
+     *          PaymentHandler.processPayment does. Completes with true if the payment succeeded.
+     */
+    public CompletableFuture<Boolean> processPayment(String username, ShoppingCart cart, boolean usePoints) {
+        ShoppingCart snapshot = new ShoppingCart(cart);
+        return run(() -> Backend.PAYMENT.processPayment(username, snapshot, usePoints));
+    }
+
+    /**
+     * Adds a book to the catalog.
+     *
+     * Requires: title is not null, priceCents ≥ 0
+     * Modifies: books file
+     * Effects: Completes with OwnerHandler.addBook's message.
+     */
+    public CompletableFuture<String> addBook(String title, long priceCents) {
+        return run(() -> Backend.OWNER.addBook(title, priceCents));
+    }
+
+    /**
+     * Removes a book from the catalog.
+     *
+     * Requires: title is not null
+     * Modifies: books file
+     * Effects: Completes with OwnerHandler.removeBook's message.
+     */
+    public CompletableFuture<String> removeBook(String title) {
+        return run(() -> Backend.OWNER.removeBook(title));
+    }
+
+    /**
+     * Adds a customer.
+     *
+     * Requires: username and password are not null, balanceCents ≥ 0
+     * Modifies: customer files
+     * Effects: Completes with OwnerHandler.addCustomer's message.
+     */
+    public CompletableFuture<String> addCustomer(String username, String password, long balanceCents) {
+        return run(() -> Backend.OWNER.addCustomer(username, password, balanceCents));
+    }
+
+    /**
+     * Removes a customer.
+     *
+     * Requires: username is not null
+     * Modifies: customer files
+     * Effects: Completes with OwnerHandler.removeCustomer's message.
+     */
+    public CompletableFuture<String> removeCustomer(String username) {
+        return run(() -> Backend.OWNER.removeCustomer(username));
+    }
+
+    /**
+     * Changes a customer's balance.
+     *
+     * Requires: username is not null
+     * Modifies: customer files
+     * Effects: Completes with OwnerHandler.adjustCustomerBalance's message.
+     */
+    public CompletableFuture<String> adjustCustomerBalance(String username, long amountCents) {
+        return run(() -> Backend.OWNER.adjustCustomerBalance(username, amountCents));
+    }
+
+    private static <T> CompletableFuture<T> run(Supplier<T> operation) {
+        return CompletableFuture.supplyAsync(operation, IO);
+    }
+}
@@ -1,6 +1,5 @@
 package BookStore.handlers;
 
-import BookStore.models.Customer;
 import BookStore.database.DatabaseManager;
 
 /**
@@ -20,7 +19,7 @@ public class CustomerHandler {
     /**
      * Handles the logic for a customer purchasing books.
      *
-     * Requires: username exists in the customer file, totalCost ≥ 0
+     * Requires: username exists in the customer file, totalCostCents ≥ 0
      * Modifies: customer's balance and points
      * Effects:
      * - If usePoints is true, it uses points first to reduce the cost.
@@ -30,25 +29,26 @@ public class CustomerHandler {
      * - Returns true if the purchase is successful, false otherwise.
      *
      * @param username The username of the customer making the purchase.
-     * @param totalCost The full price of the books before any discounts.
+     * @param totalCostCents The full price of the books before any discounts, in cents.
      * @param usePoints Whether to redeem points toward the purchase.
      * @return true if the purchase is completed, false if not enough funds.
      */
-    public boolean purchaseBooks(String username, double totalCost, boolean usePoints) {
-        Customer customer = dbManager.getCustomer(username);
+    public boolean purchaseBooks(String username, long totalCostCents, boolean usePoints) {
+        // Retried on a fresh copy if the customer is changed by another checkout meanwhile
+        return dbManager.modifyCustomer(username, customer -> {
+            long cost = totalCostCents;
+            if (usePoints) {
+                // Try using points first to reduce the cost
+                cost = customer.redeemPoints(cost);
+            }
 
-        if (usePoints) {
-            // Try using points first to reduce the cost
-            totalCost = customer.redeemPoints(totalCost);
-        }
+            if (customer.deductBalance(cost)) {
+                // Earn 10 points for every dollar spent using cash
+                customer.addPoints((int) (cost / 10));
+                return true;
+            }
 
-        if (customer.deductBalance(totalCost)) {
-            // Earn 10 points for every dollar spent using cash
-            customer.addPoints((int) (totalCost * 10));
-            dbManager.updateCustomer(customer);
-            return true;
-        }
-
-        return false; // Not enough money to complete the purchase
+            return false; // Not enough money to complete the purchase
+        });
     }
 }
@@ -3,18 +3,23 @@ package BookStore.handlers;
 import BookStore.models.Customer;
 import BookStore.models.Owner;
 import BookStore.database.DatabaseManager;
+import BookStore.metrics.Metrics;
+import BookStore.metrics.Timer;
 
 /**
  * Handles user authentication logic for the bookstore.
  *
  * Abstraction Function:
  * - Validates whether a user is an owner (admin) or a customer based on credentials.
+ * - Logins are timed by the "login" timer in Metrics; rejected credentials count as failures.
  *
  * Representation Invariant:
  * - dbManager must be initialized properly.
  * - "admin" is treated as a hardcoded owner username.
  */
 public class LoginHandler {
+    private static final Timer LOGIN = Metrics.timer("login");
+
     private DatabaseManager dbManager = new DatabaseManager();
 
     /**
@@ -32,6 +37,17 @@ public class LoginHandler {
      * @return A string representing the role: "owner", "customer", or "invalid".
      */
     public String validateUser(String username, String password) {
+        long start = LOGIN.start();
+        String role = "invalid";
+        try {
+            role = checkCredentials(username, password);
+            return role;
+        } finally {
+            LOGIN.stop(start, !role.equals("invalid"));
+        }
+    }
+
+    private String checkCredentials(String username, String password) {
         // Hardcoded admin login
         if (username.equals("admin") && password.equals("admin")) {
             return "owner";  // Admin role
@@ -0,0 +1,191 @@
+package BookStore.handlers;
+
+import BookStore.models.Book;
+import BookStore.models.Customer;
+import BookStore.database.DatabaseManager;
+import BookStore.metrics.Metrics;
+import BookStore.metrics.Timer;
+import BookStore.utils.InputValidator;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+/**
+ * Handles bookstore owner actions such as managing books and customers.
+ *
+ * Abstraction Function:
+ * - This class allows the owner to add or remove books and customers,
+ *   and update customer balances.
+ * - Each operation is timed by an "owner.<method>" timer in Metrics.
+ *
+ * Representation Invariant:
+ * - databaseManager must be initialized.
+ * - Cannot add books or users that already exist.
+ */
+public class OwnerHandler {
+    private static final Timer ADD_BOOK = Metrics.timer("owner.addBook");
+    private static final Timer REMOVE_BOOK = Metrics.timer("owner.removeBook");
+    private static final Timer EXPORT_BOOKS = Metrics.timer("owner.exportBooks");
+    private static final Timer ADD_CUSTOMER = Metrics.timer("owner.addCustomer");
+    private static final Timer REMOVE_CUSTOMER = Metrics.timer("owner.removeCustomer");
+    private static final Timer ADJUST_BALANCE = Metrics.timer("owner.adjustCustomerBalance");
+
+    private DatabaseManager dbManager = new DatabaseManager();
+
+    /**
+     * Adds a new book to the store if it passes validation.
+     *
+     * Requires: title is not null, priceCents is one of the accepted values ($50, $100, $200, $500).
+     * Modifies: books.txt file
+     * Effects:
+     * - Returns a message based on success or failure.
+     * - Does not allow adding duplicate book titles.
+     *
+     * @param title The title of the book.
+     * @param priceCents The price of the book, in cents.
+     * @return Result message indicating success or reason for failure.
+     */
+    public String addBook(String title, long priceCents) {
+        return ADD_BOOK.time(() -> {
+            if (title.equals("")){
+                return "Invalid book name";
+            }
+        
+            if (!InputValidator.isValidBookPrice(priceCents)) {
+                return "Invalid book price. Must be 50, 100, 200, or 500.";
+            }
+
+            if (dbManager.bookExists(title)) {
+                return "Book already exists. Cannot add duplicate.";
+            }
+
+            Book book = new Book(title, priceCents);
+            dbManager.addBook(book);
+            return "Book added successfully.";
+        });
+    }
+
+    /**
+     * Removes a book from the store based on its title.
+     *
+     * Requires: title is not null
+     * Modifies: books.txt file
+     * Effects: Deletes the book from the file if it exists.
+     *
+     * @param title The title of the book to remove.
+     */
+    public String removeBook(String title) {
+        return REMOVE_BOOK.time(() -> {
+            if (!dbManager.bookExists(title)) {
+                return "Book does not exist";
+            }
+        
+            dbManager.removeBook(title);
+            return "Book removed successfully.";
+        });
+    }
+
+    /**
+     * Exports the whole catalog to a text file.
+     *
+     * Requires: path is not null
+     * Modifies: the file at path
+     * Effects: Writes every book in books.txt format, streaming so any catalog size works.
+     *
+     * @param path Where to write the export.
+     * @return Result message indicating success or reason for failure.
+     */
+    public String exportBooks(String path) {
+        return EXPORT_BOOKS.time(() -> {
+            if (path.equals("")) {
+                return "Invalid export path";
+            }
+            try {
+                dbManager.exportBooks(Paths.get(path));
+            } catch (IOException e) {
+                return "Export failed: " + e.getMessage();
+            }
+            return "Books exported successfully.";
+        });
+    }
+
+    /**
+     * Adds a new customer to the system.
+     *
+     * Requires: username and password are not null, balanceCents ≥ 0
+     * Modifies: users.txt file
+     * Effects:
+     * - Adds a customer if the username is unique and not "admin".
+     * - Returns a success or error message.
+     *
+     * @param username The customer's username.
+     * @param password The customer's password.
+     * @param balanceCents Starting balance for the customer, in cents.
+     * @return Message indicating if the user was added or why it failed.
+     */
+    public String addCustomer(String username, String password, long balanceCents) {
+        return ADD_CUSTOMER.time(() -> {
+            // Prevent creating a user with the admin username
+            if (username.equalsIgnoreCase("admin")) {
+                return "Cannot use 'admin' as a username. It is reserved.";
+            }
+        
+            if (username.equalsIgnoreCase("")) {
+                return "Invalid username entered";
+            }
+
+            if (dbManager.getCustomer(username) != null) {
+                return "Username already exists. Cannot add user.";
+            }
+
+            Customer customer = new Customer(username, password, balanceCents);
+            dbManager.addCustomer(customer);
+            return "User added successfully.";
+        });
+    }
+
+    /**
+     * Removes a customer by username.
+     *
+     * Requires: username is not null
+     * Modifies: users.txt file
+     * Effects: Removes the customer if they exist.
+     *
+     * @param username The username of the customer to remove.
+     */
+    public String removeCustomer(String username) {
+        return REMOVE_CUSTOMER.time(() -> {
+            if (dbManager.getCustomer(username) == null) {
+                return "User does not exist. Cannot remove user.";
+            }
+        
+            dbManager.removeCustomer(username);
+            return "User removed successfully.";
+        });
+    }
+
+    /**
+     * Updates the balance of a specific customer.
+     *
+     * Requires: username is valid, amountCents ≥ 0
+     * Modifies: users.txt file
+     * Effects: Sets the customer's balance to the new value.
+     *
+     * @param username The username of the customer.
+     * @param amountCents The new balance to set, in cents.
+     */
+    public String adjustCustomerBalance(String username, long amountCents) {
+        return ADJUST_BALANCE.time(() -> {
+            if (dbManager.getCustomer(username) == null) {
+                return "User does not exist. Cannot update balance.";
+            }
+        
+            if (amountCents < 0){
+                return "Invalid amount";
+            }
+        
+            dbManager.updateCustomerBalance(username, amountCents);
+            return "Balance updated successfully.";
+        });
+    }
+}
@@ -0,0 +1,283 @@
+package BookStore.handlers;
+
+import BookStore.database.DatabaseManager;
+import BookStore.metrics.Counter;
+import BookStore.metrics.Metrics;
+import BookStore.metrics.Timer;
+import BookStore.models.CartItem;
+import BookStore.models.Customer;
+import BookStore.models.Order;
+import BookStore.models.OrderResult;
+import BookStore.models.Purchase;
+import BookStore.models.ShoppingCart;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Handles payment processing for customers.
+ *
+ * Abstraction Function:
+ * - Processes book purchases using either customer balance or a combination of points and balance.
+ * - Updates customer data accordingly after the purchase, as one compare-and-swap step per
+ *   customer, so concurrent checkouts (even from other processes) never overwrite each other.
+ * - A batch of orders is applied against one view of the customers and saved with one commit.
+ * - Every successful payment is added to the purchase ledger. A payment the ledger cannot take
+ *   still stands (the customer has been charged); it is reported through
+ *   OrderResult.isRecorded() and counted by the "checkout.unrecorded" counter.
+ * - Checkouts are timed by the "checkout" timer in Metrics, where declined payments count as
+ *   failures; whole batches by "checkout.batch".
+ *
+ * Representation Invariant:
+ * - databaseManager must be properly initialized.
+ * - The customer must exist in the system before attempting a payment.
+ */
+public class PaymentHandler {
+    private static final long CENTS_PER_POINT = 10; // 10 points = $1
+
+    private static final Timer CHECKOUT = Metrics.timer("checkout");
+    private static final Timer CHECKOUT_BATCH = Metrics.timer("checkout.batch");
+    private static final Counter UNRECORDED = Metrics.counter("checkout.unrecorded");
+
+    private DatabaseManager dbManager = new DatabaseManager();
+
+    /**
+     * Processes the payment for a customer's cart.
+     *
+     * Requires:
+     * - username must exist in the customer file.
+     * - totalCostCents ≥ 0
+     * - usePoints indicates whether to redeem points first before using balance.
+     *
+     * Modifies: customer’s points, balance, and stored file data.
+     * Effects:
+     * - If points fully cover the cost, deduct points only.
+     * - If points partially cover the cost, deduct remaining cost from balance.
+     * - If not enough points + balance, transaction fails.
+     * - Awards 10 points per $1 spent from balance.
+     * - A successful payment is recorded in the purchase ledger, without any items.
+     *
+     * @param username The customer's username.
+     * @param totalCostCents The total amount to pay, in cents.
+     * @param usePoints Whether to try using points before balance.
+     * @return true if payment succeeds, false otherwise.
+     */
+    public boolean processPayment(String username, long totalCostCents, boolean usePoints) {
+        return checkout(username, totalCostCents, Collections.emptyMap(), usePoints,
+                new OrderResult.Status[1]) != null;
+    }
+
+    /**
+     * Processes the payment for a customer's cart and records what was bought.
+     *
+     * Requires: username must exist in the customer file; cart is not null.
+     * Modifies: customer’s points, balance, and stored file data; the purchase ledger.
+     * Effects: Pays the cart's total as processPayment does and, if that succeeds, records the
+     *          cart's books in the purchase ledger.
+     *
+     * @param username The customer's username.
+     * @param cart The cart being paid for.
+     * @param usePoints Whether to try using points before balance.
+     * @return true if payment succeeds, false otherwise.
+     */
+    public boolean processPayment(String username, ShoppingCart cart, boolean usePoints) {
+        return processOrder(new Order(username, cart, usePoints)).isPaid();
+    }
+
+    /**
+     * Pays for one order and reports what it charged.
+     *
+     * Requires: order is not null.
+     * Modifies: the customer's points, balance, and stored file data; the purchase ledger.
+     * Effects: Pays as processPayment(username, cart, usePoints) does. Returns the outcome; for a
+     *          paid order it holds the purchase with the customer's balance and points afterwards,
+     *          and isRecorded() tells whether the purchase made it into the ledger.
+     *
+     * @param order The order to pay.
+     * @return The outcome of the order.
+     */
+    public OrderResult processOrder(Order order) {
+        OrderResult.Status[] status = new OrderResult.Status[1];
+        Purchase purchase = checkout(order.getUsername(), order.getTotalCostCents(), itemsOf(order.getCart()),
+                order.usesPoints(), status);
+        return new OrderResult(order, status[0], purchase);
+    }
+
+    /**
+     * Pays for one order and records it. Returns the purchase (see record), or null if it was not
+     * paid; status[0] is set to what happened.
+     */
+    private Purchase checkout(String username, long totalCostCents, Map<String, Integer> items, boolean usePoints,
+                              OrderResult.Status[] status) {
+        long start = CHECKOUT.start();
+        status[0] = OrderResult.Status.UNKNOWN_CUSTOMER; // Stays so if the change never runs
+        try {
+            Purchase[] purchase = new Purchase[1];
+            // Runs on a fresh copy and is retried if another checkout changes the customer meanwhile
+            boolean paid = dbManager.modifyCustomer(username, current -> {
+                purchase[0] = charge(current, totalCostCents, items, usePoints);
+                status[0] = purchase[0] != null ? OrderResult.Status.PAID : OrderResult.Status.DECLINED;
+                return purchase[0] != null;
+            });
+            if (!paid) {
+                if (status[0] == OrderResult.Status.PAID) {
+                    status[0] = OrderResult.Status.DECLINED; // Accepted but could not be saved, so it did not happen
+                }
+                return null;
+            }
+            return record(purchase[0]);
+        } finally {
+            CHECKOUT.stop(start, status[0] == OrderResult.Status.PAID);
+        }
+    }
+
+    /**
+     * Adds a paid purchase to the ledger. Returns it as recorded, or, if the ledger could not take
+     * it, reports and counts that and returns it unrecorded (order id -1).
+     */
+    private Purchase record(Purchase purchase) {
+        Purchase recorded = dbManager.recordPurchase(purchase);
+        if (recorded == null) {
+            UNRECORDED.add(1);
+            System.out.println("Error recording purchase: " + purchase.getUsername()
+                    + " was charged, but the purchase is missing from the ledger");
+            return purchase;
+        }
+        return recorded;
+    }
+
+    /**
+     * Processes many orders in one pass, for bulk and institutional purchases.
+     *
+     * Requires: orders is not null; every order's total is ≥ 0.
+     * Modifies: the customers' points, balances, and stored file data.
+     * Effects:
+     * - Pays each order as processPayment would, in list order, so a customer with several
+     *   orders pays them one after another from the balance left by the earlier ones.
+     * - A declined order does not affect the others.
+     * - All the payments are saved together: one commit for the batch instead of one per order.
+     * - Each paid order is recorded in the purchase ledger.
+     * - Returns one result per order, in the same order; a paid result holds its purchase.
+     *
+     * @param orders The orders to pay.
+     * @return The outcome of each order.
+     */
+    public List<OrderResult> processBatch(List<Order> orders) {
+        return CHECKOUT_BATCH.time(() -> payBatch(orders));
+    }
+
+    private List<OrderResult> payBatch(List<Order> orders) {
+        OrderResult.Status[] statuses = new OrderResult.Status[orders.size()];
+        Purchase[] purchases = new Purchase[orders.size()];
+        List<Map.Entry<String, Predicate<Customer>>> changes = new ArrayList<>(orders.size());
+        for (int i = 0; i < orders.size(); i++) {
+            Order order = orders.get(i);
+            int index = i;
+            statuses[i] = OrderResult.Status.UNKNOWN_CUSTOMER; // Stays so if the change never runs
+            Map<String, Integer> items = itemsOf(order.getCart());
+            changes.add(Map.entry(order.getUsername(), current -> {
+                purchases[index] = charge(current, order.getTotalCostCents(), items, order.usesPoints());
+                statuses[index] = purchases[index] != null ? OrderResult.Status.PAID : OrderResult.Status.DECLINED;
+                return purchases[index] != null;
+            }));
+        }
+        boolean[] saved = dbManager.modifyCustomers(changes);
+
+        List<OrderResult> results = new ArrayList<>(orders.size());
+        for (int i = 0; i < orders.size(); i++) {
+            // A payment that was accepted but could not be saved did not happen
+            OrderResult.Status status = statuses[i] == OrderResult.Status.PAID && !saved[i]
+                    ? OrderResult.Status.DECLINED : statuses[i];
+            Purchase purchase = status == OrderResult.Status.PAID ? record(purchases[i]) : null;
+            results.add(new OrderResult(orders.get(i), status, purchase));
+        }
+        return results;
+    }
+
+    /**
+     * Applies one payment to a customer and describes it for the purchase ledger.
+     *
+     * Requires: current and items are not null, totalCostCents ≥ 0
+     * Modifies: current
+     * Effects: Pays as pay does. Returns the unrecorded purchase, with what was paid from the
+     *          balance, the points spent and earned and the customer's state afterwards,
+     *          or null if the customer cannot pay.
+     */
+    private static Purchase charge(Customer current, long totalCostCents, Map<String, Integer> items, boolean usePoints) {
+        long balanceBefore = current.getBalanceCents();
+        int pointsBefore = current.getPoints();
+        if (!pay(current, totalCostCents, usePoints)) {
+            return null;
+        }
+        // pay redeems the points worth the cost, or all of them if they are worth less
+        int pointsSpent = usePoints ? (int) Math.min(pointsBefore, totalCostCents / CENTS_PER_POINT) : 0;
+        int pointsEarned = current.getPoints() - pointsBefore + pointsSpent;
+        return new Purchase(current.getUsername(), items, balanceBefore - current.getBalanceCents(),
+                pointsSpent, pointsEarned, current.getBalanceCents(), current.getPoints());
+    }
+
+    private static Map<String, Integer> itemsOf(ShoppingCart cart) {
+        Map<String, Integer> items = new LinkedHashMap<>();
+        for (CartItem item : cart.getItems()) {
+            items.put(item.getTitle(), item.getQuantity());
+        }
+        return items;
+    }
+
+    /**
+     * Applies one payment to a customer.
+     *
+     * Requires: current is not null, totalCostCents ≥ 0
+     * Modifies: current
+     * Effects: Deducts points and/or balance as described for processPayment and returns true,
+     *          or returns false (possibly after changing current) if the customer cannot pay.
+     */
+    private static boolean pay(Customer current, long totalCostCents, boolean usePoints) {
+        if (usePoints) {
+            int points = current.getPoints();
+            long pointsValue = points * CENTS_PER_POINT;
+            long remainingCost = totalCostCents - pointsValue;
+
+            // Case 1: Points fully cover the cost
+            if (remainingCost <= 0) {
+                current.setPoints(points - (int) (totalCostCents / CENTS_PER_POINT));
+                return true;
+            }
+
+            // Case 2: Points partially cover cost, balance covers rest
+            if (current.getBalanceCents() >= remainingCost) {
+                // Deduct all points
+                current.setPoints(0);
+
+                // Deduct from balance
+                current.setBalanceCents(current.getBalanceCents() - remainingCost);
+
+                // Earn points only on the balance portion
+                int earned = (int) (remainingCost / CENTS_PER_POINT);
+                current.addPoints(earned);
+
+                return true;
+            }
+
+            // Case 3: Not enough points + balance
+            return false;
+        } else {
+            
+            // 💵 Case 4: Pay using only balance (no points)
+            if (current.getBalanceCents() >= totalCostCents) {
+                current.setBalanceCents(current.getBalanceCents() - totalCostCents);
+
+                // Award 10 points per $1 spent
+                int earnedPoints = (int) (totalCostCents / CENTS_PER_POINT);
+                current.addPoints(earnedPoints);
+
+                return true;
+            } else {
+                return false;
+            }
+        }
+    }
+}
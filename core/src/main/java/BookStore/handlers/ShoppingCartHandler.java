@@ -0,0 +1,127 @@
+package BookStore.handlers;
+
+import BookStore.models.Book;
+import BookStore.models.CartItem;
+import BookStore.models.ShoppingCart;
+import java.util.Collection;
+
+/**
+ * Handles shopping cart operations for a customer.
+ *
+ * Abstraction Function:
+ * - Stores the books selected by the customer before checkout as one line per title with a quantity.
+ * - Allows adding, removing, viewing, and clearing items in the cart.
+ * - cart keeps the running total and copy count.
+ * - Free of JavaFX, so headless code (the API, batch jobs) can use it; screens copy the lines
+ *   into their own observable lists.
+ *
+ * Representation Invariant:
+ * - cart should never be null.
+ */
+public class ShoppingCartHandler {
+    private final ShoppingCart cart = new ShoppingCart();
+
+    /**
+     * Adds a book to the shopping cart.
+     *
+     * Requires: book is not null.
+     * Modifies: cart
+     * Effects: Adds one copy of the book, as a new line or by raising the quantity of its line.
+     *
+     * @param book The book to add.
+     */
+    public void addBook(Book book) {
+        cart.addBook(book);
+    }
+
+    /**
+     * Removes a book from the shopping cart.
+     *
+     * Requires: book is not null and exists in the cart.
+     * Modifies: cart
+     * Effects: Removes one copy of the book, dropping its line when none are left.
+     *
+     * @param book The book to remove.
+     */
+    public void removeBook(Book book) {
+        cart.removeBook(book);
+    }
+
+    /**
+     * Checks whether a book is in the shopping cart.
+     *
+     * Requires: book is not null.
+     * Modifies: none
+     * Effects: Returns true if the cart has a line for the book's title.
+     *
+     * @param book The book to look for.
+     * @return Whether the book is in the cart.
+     */
+    public boolean contains(Book book) {
+        return cart.contains(book);
+    }
+
+    /**
+     * Calculates the total cost of all books in the cart.
+     *
+     * Requires: none
+     * Modifies: none
+     * Effects: Returns the sum of prices for all copies in the cart, kept up to date on every change.
+     *
+     * @return Total price of books in the cart, in cents.
+     */
+    public long getTotalCostCents() {
+        return cart.getTotalPriceCents();
+    }
+
+    /**
+     * Counts the books in the shopping cart.
+     *
+     * Requires: none
+     * Modifies: none
+     * Effects: Returns the number of copies in the cart, counting each unit of a line.
+     *
+     * @return Number of books in the cart.
+     */
+    public int getItemCount() {
+        return cart.getItemCount();
+    }
+
+    /**
+     * Gets the lines currently in the shopping cart.
+     *
+     * Requires: none
+     * Modifies: none
+     * Effects: Returns a read-only view of the cart lines, one per title in the order they were
+     *          first added, which follows later changes to the cart.
+     *
+     * @return Lines in the cart.
+     */
+    public Collection<CartItem> getCartItems() {
+        return cart.getItems();
+    }
+
+    /**
+     * Gets the cart behind this handler.
+     *
+     * Requires: none
+     * Modifies: none
+     * Effects: Returns the cart; callers should change it only through this handler.
+     *
+     * @return The shopping cart.
+     */
+    public ShoppingCart getCart() {
+        return cart;
+    }
+
+    /**
+     * Clears all items from the shopping cart.
+     *
+     * Requires: none
+     * Modifies: cart
+     * Effects: Empties the cart completely.
+     */
+    public void clearCart() {
+        cart.clearCart();
+    }
+}
@@ -0,0 +1,50 @@
+package BookStore.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts something that only grows, such as bytes written.
+ *
+ * Abstraction Function:
+ * - count is the sum of everything added since the program started.
+ *
+ * Representation Invariant:
+ * - Adding never blocks; a LongAdder spreads concurrent adds over cells.
+ */
+public final class Counter implements CounterMBean {
+    private final String name;
+    private final long createdNanos = System.nanoTime();
+    private final LongAdder count = new LongAdder();
+
+    Counter(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Returns the counter's name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Adds to the count.
+     *
+     * Requires: amount ≥ 0
+     * Modifies: this
+     * Effects: Raises the count by amount.
+     */
+    public void add(long amount) {
+        count.add(amount);
+    }
+
+    @Override
+    public long getCount() {
+        return count.sum();
+    }
+
+    @Override
+    public double getRatePerSecond() {
+        return getCount() / ((System.nanoTime() - createdNanos) / 1e9);
+    }
+}
@@ -0,0 +1,10 @@
+package BookStore.metrics;
+
+/**
+ * What JMX shows of a Counter.
+ */
+public interface CounterMBean {
+    long getCount();
+
+    double getRatePerSecond();
+}
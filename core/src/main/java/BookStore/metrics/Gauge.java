@@ -0,0 +1,35 @@
+package BookStore.metrics;
+
+import java.util.function.LongSupplier;
+
+/**
+ * A value read from elsewhere whenever it is shown, such as how often customer changes waited
+ * for a lock.
+ *
+ * Abstraction Function:
+ * - The gauge's value is whatever value returns at the moment it is read.
+ *
+ * Representation Invariant:
+ * - value is never null and is safe to call from any thread.
+ */
+public final class Gauge implements GaugeMBean {
+    private final String name;
+    private final LongSupplier value;
+
+    Gauge(String name, LongSupplier value) {
+        this.name = name;
+        this.value = value;
+    }
+
+    /**
+     * Returns the gauge's name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public long getValue() {
+        return value.getAsLong();
+    }
+}
@@ -0,0 +1,8 @@
+package BookStore.metrics;
+
+/**
+ * What JMX shows of a Gauge.
+ */
+public interface GaugeMBean {
+    long getValue();
+}
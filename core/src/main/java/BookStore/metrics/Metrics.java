@@ -0,0 +1,121 @@
+package BookStore.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.time.Instant;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * The program's timers, counters and gauges, by name.
+ *
+ * Abstraction Function:
+ * - Each metric is created the first time its name is asked for and lives as long as the program.
+ *   Callers keep the returned metric in a static field, so recording never looks anything up.
+ * - Every metric is also registered as a JMX MBean named BookStore:type=Timer|Counter|Gauge,name=<name>,
+ *   so jconsole or any JMX client can read it.
+ * - With -Dbookstore.metrics.dump=<seconds>, a daemon thread prints dump() to standard output
+ *   at that interval.
+ *
+ * Representation Invariant:
+ * - A name is used by at most one metric of each kind.
+ */
+public final class Metrics {
+    private static final ConcurrentMap<String, Timer> TIMERS = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, Counter> COUNTERS = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<String, Gauge> GAUGES = new ConcurrentHashMap<>();
+
+    static {
+        long interval = Long.getLong("bookstore.metrics.dump", 0);
+        if (interval > 0) {
+            ScheduledExecutorService dumper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "metrics-dump");
+                thread.setDaemon(true);
+                return thread;
+            });
+            dumper.scheduleAtFixedRate(() -> System.out.print(dump()), interval, interval, TimeUnit.SECONDS);
+        }
+    }
+
+    private Metrics() {
+    }
+
+    /**
+     * Returns the timer with a name, creating it if needed.
+     *
+     * Requires: name is not null and contains none of , = : " * ?
+     * Modifies: the registry
+     * Effects: Returns the one timer with this name.
+     */
+    public static Timer timer(String name) {
+        return TIMERS.computeIfAbsent(name, n -> register("Timer", n, new Timer(n)));
+    }
+
+    /**
+     * Returns the counter with a name, creating it if needed.
+     *
+     * Requires: name is not null and contains none of , = : " * ?
+     * Modifies: the registry
+     * Effects: Returns the one counter with this name.
+     */
+    public static Counter counter(String name) {
+        return COUNTERS.computeIfAbsent(name, n -> register("Counter", n, new Counter(n)));
+    }
+
+    /**
+     * Registers a gauge, unless one with the name exists.
+     *
+     * Requires: name is not null and contains none of , = : " * ?; value is safe to call from
+     *           any thread.
+     * Modifies: the registry
+     * Effects: Returns the gauge with this name; value is ignored if it already existed.
+     */
+    public static Gauge gauge(String name, LongSupplier value) {
+        return GAUGES.computeIfAbsent(name, n -> register("Gauge", n, new Gauge(n, value)));
+    }
+
+    /**
+     * Describes every metric as text.
+     *
+     * Requires: none
+     * Modifies: none
+     * Effects: Returns a table of the timers, then the counters, then the gauges, each sorted by
+     *          name. Times are in milliseconds.
+     */
+    public static String dump() {
+        StringBuilder out = new StringBuilder("Metrics at " + Instant.now() + "\n");
+        out.append(String.format("%-28s %10s %8s %9s %9s %9s %9s %9s %9s%n",
+                "timer", "count", "failures", "rate/s", "mean ms", "p50 ms", "p99 ms", "p999 ms", "max ms"));
+        for (Timer t : new TreeMap<>(TIMERS).values()) {
+            out.append(String.format("%-28s %10d %8d %9.1f %9.3f %9.3f %9.3f %9.3f %9.3f%n",
+                    t.getName(), t.getCount(), t.getFailures(), t.getRatePerSecond(), t.getMeanMillis(),
+                    t.getP50Millis(), t.getP99Millis(), t.getP999Millis(), t.getMaxMillis()));
+        }
+        out.append(String.format("%-28s %10s %9s%n", "counter", "count", "rate/s"));
+        for (Counter c : new TreeMap<>(COUNTERS).values()) {
+            out.append(String.format("%-28s %10d %9.1f%n", c.getName(), c.getCount(), c.getRatePerSecond()));
+        }
+        out.append(String.format("%-28s %10s%n", "gauge", "value"));
+        for (Map.Entry<String, Gauge> g : new TreeMap<>(GAUGES).entrySet()) {
+            out.append(String.format("%-28s %10d%n", g.getKey(), g.getValue().getValue()));
+        }
+        return out.toString();
+    }
+
+    private static <T> T register(String type, String name, T metric) {
+        try {
+            ManagementFactory.getPlatformMBeanServer()
+                    .registerMBean(metric, new ObjectName("BookStore:type=" + type + ",name=" + name));
+        } catch (JMException e) {
+            System.out.println("Error registering metric " + name + ": " + e.getMessage());
+        }
+        return metric;
+    }
+}
@@ -0,0 +1,148 @@
+package BookStore.metrics;
+
+import BookStore.utils.LatencyHistogram;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Times one kind of operation: how many ran, how long they took and how many failed.
+ *
+ * Abstraction Function:
+ * - latencies holds the duration of every operation timed since the program started; its count
+ *   is the number of operations.
+ * - failures counts operations that threw, or that the caller reported as unsuccessful
+ *   (e.g. a declined payment).
+ *
+ * Representation Invariant:
+ * - Recording never blocks: it is a handful of atomic adds, so timers can sit on hot paths.
+ */
+public final class Timer implements TimerMBean {
+    private final String name;
+    private final long createdNanos = System.nanoTime();
+    private final LatencyHistogram latencies = new LatencyHistogram();
+    private final LongAdder failures = new LongAdder();
+
+    Timer(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Returns the timer's name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Starts timing one operation.
+     *
+     * Requires: none
+     * Modifies: none
+     * Effects: Returns the start time to hand to stop.
+     */
+    public long start() {
+        return System.nanoTime();
+    }
+
+    /**
+     * Records a successful operation.
+     *
+     * Requires: start was returned by start().
+     * Modifies: this
+     * Effects: Records the time since start.
+     */
+    public void stop(long start) {
+        latencies.record(System.nanoTime() - start);
+    }
+
+    /**
+     * Records an operation that may have failed.
+     *
+     * Requires: start was returned by start().
+     * Modifies: this
+     * Effects: Records the time since start and, if succeeded is false, one failure.
+     */
+    public void stop(long start, boolean succeeded) {
+        stop(start);
+        if (!succeeded) {
+            failures.increment();
+        }
+    }
+
+    /**
+     * Runs and times an operation.
+     *
+     * Requires: operation is not null.
+     * Modifies: this, whatever operation changes
+     * Effects: Returns the operation's result. If it throws, records a failure and rethrows.
+     */
+    public <T> T time(Supplier<T> operation) {
+        long start = start();
+        boolean succeeded = false;
+        try {
+            T result = operation.get();
+            succeeded = true;
+            return result;
+        } finally {
+            stop(start, succeeded);
+        }
+    }
+
+    /**
+     * Runs and times an operation with no result.
+     *
+     * Requires: operation is not null.
+     * Modifies: this, whatever operation changes
+     * Effects: As time(Supplier).
+     */
+    public void time(Runnable operation) {
+        long start = start();
+        boolean succeeded = false;
+        try {
+            operation.run();
+            succeeded = true;
+        } finally {
+            stop(start, succeeded);
+        }
+    }
+
+    @Override
+    public long getCount() {
+        return latencies.count();
+    }
+
+    @Override
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    @Override
+    public double getRatePerSecond() {
+        return getCount() / ((System.nanoTime() - createdNanos) / 1e9);
+    }
+
+    @Override
+    public double getMeanMillis() {
+        return latencies.mean() / 1e6;
+    }
+
+    @Override
+    public double getP50Millis() {
+        return latencies.percentile(0.50) / 1e6;
+    }
+
+    @Override
+    public double getP99Millis() {
+        return latencies.percentile(0.99) / 1e6;
+    }
+
+    @Override
+    public double getP999Millis() {
+        return latencies.percentile(0.999) / 1e6;
+    }
+
+    @Override
+    public double getMaxMillis() {
+        return latencies.max() / 1e6;
+    }
+}
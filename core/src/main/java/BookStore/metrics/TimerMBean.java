@@ -0,0 +1,22 @@
+package BookStore.metrics;
+
+/**
+ * What JMX shows of a Timer; all times are in milliseconds and cover the life of the program.
+ */
+public interface TimerMBean {
+    long getCount();
+
+    long getFailures();
+
+    double getRatePerSecond();
+
+    double getMeanMillis();
+
+    double getP50Millis();
+
+    double getP99Millis();
+
+    double getP999Millis();
+
+    double getMaxMillis();
+}
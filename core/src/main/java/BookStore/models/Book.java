@@ -1,30 +1,32 @@
 package BookStore.models;
 
+import BookStore.utils.Money;
+
 /**
  * Represents a book in the bookstore.
  *
  * Abstraction Function:
- * - A book has a title (like "Harry Potter") and a price (like 50.0).
+ * - A book has a title (like "Harry Potter") and a price in cents (like 5000 for $50.00).
  * - The book object stores this basic information so it can be displayed, added to cart, or bought.
  *
  * Representation Invariant:
  * - title should not be null or empty.
- * - price should be greater than or equal to 0.
+ * - priceCents should be greater than or equal to 0.
  */
 public class Book {
     private String title;
-    private double price;
+    private long priceCents;
 
     /**
      * Creates a new book with a title and a price.
      *
-     * Requires: title is not null, and price is a positive number (≥ 0).
+     * Requires: title is not null, and priceCents ≥ 0.
      * Modifies: this
-     * Effects: Initializes the book with the given title and price.
+     * Effects: Initializes the book with the given title and price in cents.
      */
-    public Book(String title, double price) {
+    public Book(String title, long priceCents) {
         this.title = title;
-        this.price = price;
+        this.priceCents = priceCents;
     }
 
     /**
@@ -43,21 +45,21 @@ public class Book {
      *
      * Requires: none
      * Modifies: none
-     * Effects: Returns the book's price.
+     * Effects: Returns the book's price in cents.
      */
-    public double getPrice() {
-        return price;
+    public long getPriceCents() {
+        return priceCents;
     }
 
     /**
      * Sets the price of the book.
      *
-     * Requires: price ≥ 0
+     * Requires: priceCents ≥ 0
      * Modifies: this
-     * Effects: Changes the book's price to the new value.
+     * Effects: Changes the book's price to the new value in cents.
      */
-    public void setPrice(double price) {
-        this.price = price;
+    public void setPriceCents(long priceCents) {
+        this.priceCents = priceCents;
     }
 
     /**
@@ -65,10 +67,10 @@ public class Book {
      *
      * Requires: none
      * Modifies: none
-     * Effects: Returns a string like "Harry Potter - $50.0".
+     * Effects: Returns a string like "Harry Potter - $50.00".
      */
     @Override
     public String toString() {
-        return title + " - $" + price;
+        return title + " - $" + Money.format(priceCents);
     }
 }
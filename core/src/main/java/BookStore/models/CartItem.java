@@ -0,0 +1,76 @@
+package BookStore.models;
+
+/**
+ * One line of a shopping cart: a book and how many copies of it are in the cart.
+ *
+ * Abstraction Function:
+ * - quantity copies of book, each at the book's price.
+ *
+ * Representation Invariant:
+ * - book is not null.
+ * - quantity ≥ 1 while the item is in a cart; only ShoppingCart changes it.
+ */
+public class CartItem {
+    private final Book book;
+    private int quantity;
+
+    /**
+     * Creates a cart line holding one copy of a book.
+     *
+     * Requires: book is not null
+     * Modifies: this
+     * Effects: Initializes the line with quantity 1.
+     */
+    CartItem(Book book) {
+        this.book = book;
+        this.quantity = 1;
+    }
+
+    /**
+     * Gets the book on this line.
+     *
+     * Requires: none
+     * Modifies: none
+     * Effects: Returns the book.
+     */
+    public Book getBook() {
+        return book;
+    }
+
+    /**
+     * Gets the title of the book on this line.
+     *
+     * Requires: none
+     * Modifies: none
+     * Effects: Returns the book's title.
+     */
+    public String getTitle() {
+        return book.getTitle();
+    }
+
+    /**
+     * Gets how many copies are in the cart.
+     *
+     * Requires: none
+     * Modifies: none
+     * Effects: Returns the quantity.
+     */
+    public int getQuantity() {
+        return quantity;
+    }
+
+    /**
+     * Gets the price of all copies on this line.
+     *
+     * Requires: none
+     * Modifies: none
+     * Effects: Returns the book's price times the quantity, in cents.
+     */
+    public long getLineTotalCents() {
+        return book.getPriceCents() * quantity;
+    }
+
+    void setQuantity(int quantity) {
+        this.quantity = quantity;
+    }
+}
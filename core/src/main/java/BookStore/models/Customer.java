@@ -1,6 +1,7 @@
 package BookStore.models;
 
 import BookStore.state.CustomerState;
+import BookStore.utils.Money;
 import BookStore.state.SilverState;
 
 /**
@@ -9,29 +10,33 @@ import BookStore.state.SilverState;
  *
  * Abstraction Function:
  * - A customer is a type of user who can buy books, earn points, and redeem points.
- * - The customer's balance is used to make purchases.
+ * - The customer's balance, held in cents, is used to make purchases.
  * - The customer's points and status change depending on how much they spend.
+ * - version counts the stored changes to this customer; the store uses it to detect
+ *   a change made by someone else between reading a customer and writing it back.
  *
  * Representation Invariant:
- * - balance should be ≥ 0
+ * - balanceCents should be ≥ 0
  * - points should be ≥ 0
  * - state should never be null
+ * - version should be ≥ 0
  */
 public class Customer extends User {
-    private double balance;
+    private long balanceCents;
     private int points;
     private CustomerState state;
+    private long version;
 
     /**
      * Creates a customer with a username, password, and starting balance.
      *
-     * Requires: username and password are not null, balance ≥ 0
+     * Requires: username and password are not null, balanceCents ≥ 0
      * Modifies: this
      * Effects: Initializes a new customer with default points (0) and Silver status.
      */
-    public Customer(String username, String password, double balance) {
+    public Customer(String username, String password, long balanceCents) {
         super(username, password);
-        this.balance = balance;
+        this.balanceCents = balanceCents;
         this.points = 0;
         this.state = new SilverState(); // Default state is Silver
     }
@@ -41,34 +46,34 @@ public class Customer extends User {
      *
      * Requires: none
      * Modifies: none
-     * Effects: Returns how much money the customer has.
+     * Effects: Returns how much money the customer has, in cents.
      */
-    public double getBalance() {
-        return balance;
+    public long getBalanceCents() {
+        return balanceCents;
     }
 
     /**
      * Updates the customer's balance.
      *
-     * Requires: balance ≥ 0
+     * Requires: balanceCents ≥ 0
      * Modifies: this
-     * Effects: Sets a new balance amount for the customer.
+     * Effects: Sets a new balance amount for the customer, in cents.
      */
-    public void setBalance(double balance) {
-        this.balance = balance;
+    public void setBalanceCents(long balanceCents) {
+        this.balanceCents = balanceCents;
     }
 
     /**
      * Deducts a certain amount from the customer's balance.
      *
-     * Requires: amount ≥ 0
+     * Requires: amountCents ≥ 0
      * Modifies: this
-     * Effects: Subtracts amount from balance if the customer can afford it.
+     * Effects: Subtracts amountCents from the balance if the customer can afford it.
      * Returns true if successful, false otherwise.
      */
-    public boolean deductBalance(double amount) {
-        if (amount > balance) return false;
-        this.balance -= amount;
+    public boolean deductBalance(long amountCents) {
+        if (amountCents > balanceCents) return false;
+        this.balanceCents -= amountCents;
         return true;
     }
 
@@ -109,17 +114,38 @@ public class Customer extends User {
 
     /**
      * Redeems points to reduce the total cost of a purchase.
-     * Every 100 points = $1 discount.
+     * Every 100 points = $1 discount, so each point takes one cent off.
      *
-     * Requires: cost ≥ 0
+     * Requires: costCents ≥ 0
      * Modifies: this
-     * Effects: Subtracts redeemable points and returns the discounted cost.
+     * Effects: Subtracts redeemable points and returns the discounted cost in cents.
      */
-    public double redeemPoints(double cost) {
-        int redeemablePoints = (int) Math.min(points, cost * 100);
-        double discount = redeemablePoints / 100.0;
+    public long redeemPoints(long costCents) {
+        int redeemablePoints = (int) Math.min(points, costCents);
         points -= redeemablePoints;
-        return cost - discount;
+        return costCents - redeemablePoints;
+    }
+
+    /**
+     * Gets the version of the stored record this customer was read from.
+     *
+     * Requires: none
+     * Modifies: none
+     * Effects: Returns the number of changes stored for this customer before it was read.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Sets the version of the stored record this customer stands for.
+     *
+     * Requires: version ≥ 0
+     * Modifies: this
+     * Effects: Replaces the customer's version; only the store should call this.
+     */
+    public void setVersion(long version) {
+        this.version = version;
     }
 
     /**
@@ -153,6 +179,6 @@ public class Customer extends User {
      */
     @Override
     public String toString() {
-        return username + " | Balance: $" + balance + " | Points: " + points + " | Status: " + getStatus();
+        return username + " | Balance: $" + Money.format(balanceCents) + " | Points: " + points + " | Status: " + getStatus();
     }
 }
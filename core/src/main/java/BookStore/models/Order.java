@@ -0,0 +1,73 @@
+package BookStore.models;
+
+/**
+ * One customer's checkout request: whose account pays, for which cart, and whether to spend points.
+ *
+ * Abstraction Function:
+ * - username pays for every book in cart, redeeming points first if usePoints is true.
+ *
+ * Representation Invariant:
+ * - username and cart are not null.
+ */
+public class Order {
+    private final String username;
+    private final ShoppingCart cart;
+    private final boolean usePoints;
+
+    /**
+     * Creates an order.
+     *
+     * Requires: username and cart are not null.
+     * Modifies: this
+     * Effects: Initializes the order for the given customer and cart.
+     */
+    public Order(String username, ShoppingCart cart, boolean usePoints) {
+        this.username = username;
+        this.cart = cart;
+        this.usePoints = usePoints;
+    }
+
+    /**
+     * Gets the username of the paying customer.
+     *
+     * Requires: none
+     * Modifies: none
+     * Effects: Returns the username.
+     */
+    public String getUsername() {
+        return username;
+    }
+
+    /**
+     * Gets the cart being paid for.
+     *
+     * Requires: none
+     * Modifies: none
+     * Effects: Returns the cart.
+     */
+    public ShoppingCart getCart() {
+        return cart;
+    }
+
+    /**
+     * Checks whether points should be redeemed before balance.
+     *
+     * Requires: none
+     * Modifies: none
+     * Effects: Returns true if points are used first.
+     */
+    public boolean usesPoints() {
+        return usePoints;
+    }
+
+    /**
+     * Gets the amount to pay.
+     *
+     * Requires: none
+     * Modifies: none
+     * Effects: Returns the cart's total in cents.
+     */
+    public long getTotalCostCents() {
+        return cart.getTotalPriceCents();
+    }
+}
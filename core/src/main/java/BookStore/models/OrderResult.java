@@ -0,0 +1,111 @@
+package BookStore.models;
+
+/**
+ * The outcome of one order in a batch checkout.
+ *
+ * Abstraction Function:
+ * - order was PAID, DECLINED because the customer could not cover it, or rejected because
+ *   no customer has its username (UNKNOWN_CUSTOMER).
+ * - purchase describes a paid order: what was charged and the customer's balance and points
+ *   afterwards. It has an order id once it is in the purchase ledger; a paid order whose
+ *   purchase could not be recorded keeps order id -1.
+ *
+ * Representation Invariant:
+ * - order and status are not null.
+ * - purchase is not null exactly when status is PAID.
+ */
+public class OrderResult {
+    /**
+     * What happened to an order.
+     */
+    public enum Status {
+        PAID,
+        DECLINED,
+        UNKNOWN_CUSTOMER
+    }
+
+    private final Order order;
+    private final Status status;
+    private final Purchase purchase;
+
+    /**
+     * Creates a result for an order that was not paid.
+     *
+     * Requires: order is not null; status is DECLINED or UNKNOWN_CUSTOMER.
+     * Modifies: this
+     * Effects: Initializes the result for the order.
+     */
+    public OrderResult(Order order, Status status) {
+        this(order, status, null);
+    }
+
+    /**
+     * Creates a result.
+     *
+     * Requires: order and status are not null; purchase is not null exactly when status is PAID.
+     * Modifies: this
+     * Effects: Initializes the result for the order.
+     */
+    public OrderResult(Order order, Status status, Purchase purchase) {
+        this.order = order;
+        this.status = status;
+        this.purchase = purchase;
+    }
+
+    /**
+     * Gets the order this result is for.
+     *
+     * Requires: none
+     * Modifies: none
+     * Effects: Returns the order.
+     */
+    public Order getOrder() {
+        return order;
+    }
+
+    /**
+     * Gets what happened to the order.
+     *
+     * Requires: none
+     * Modifies: none
+     * Effects: Returns the status.
+     */
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * Checks whether the order was paid.
+     *
+     * Requires: none
+     * Modifies: none
+     * Effects: Returns true if the status is PAID.
+     */
+    public boolean isPaid() {
+        return status == Status.PAID;
+    }
+
+    /**
+     * Gets what a paid order charged.
+     *
+     * Requires: none
+     * Modifies: none
+     * Effects: Returns the purchase, as recorded in the ledger if isRecorded() is true, or null
+     *          if the order was not paid.
+     */
+    public Purchase getPurchase() {
+        return purchase;
+    }
+
+    /**
+     * Checks whether a paid order made it into the purchase ledger.
+     *
+     * Requires: none
+     * Modifies: none
+     * Effects: Returns true if the order was paid and its purchase was recorded. A paid order
+     *          that returns false was charged, but is missing from the ledger's history.
+     */
+    public boolean isRecorded() {
+        return purchase != null && purchase.getOrderId() >= 0;
+    }
+}
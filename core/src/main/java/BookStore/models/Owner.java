@@ -82,15 +82,15 @@ public class Owner extends User {
     /**
      * Updates the balance for a specific customer.
      *
-     * Requires: username is not null, amount ≥ 0
+     * Requires: username is not null, amountCents ≥ 0
      * Modifies: customer's balance
-     * Effects: Sets the customer's balance to the new amount and returns true.
+     * Effects: Sets the customer's balance to the new amount in cents and returns true.
      *          Returns false if the customer is not found.
      */
-    public boolean adjustCustomerBalance(String username, double amount) {
+    public boolean adjustCustomerBalance(String username, long amountCents) {
         for (Customer customer : customers) {
             if (customer.getUsername().equals(username)) {
-                customer.setBalance(amount);
+                customer.setBalanceCents(amountCents);
                 return true;
             }
         }
@@ -0,0 +1,168 @@
+package BookStore.models;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * One completed checkout as recorded in the purchase ledger.
+ *
+ * Abstraction Function:
+ * - Order orderId, paid by username at timestamp (milliseconds since the epoch), bought
+ *   items (title → quantity), paying cashCents from the balance, spending pointsSpent points
+ *   and earning pointsEarned.
+ * - balanceAfterCents and pointsAfter are the customer's balance and points right after the
+ *   purchase, so the customer's state at any recorded moment can be read from one entry.
+ * - A purchase that has not been written to the ledger yet has orderId -1 and timestamp 0.
+ *
+ * Representation Invariant:
+ * - username and items are not null; items is never modified.
+ * - cashCents, pointsSpent, pointsEarned, balanceAfterCents and pointsAfter are ≥ 0.
+ */
+public class Purchase {
+    private final long orderId;
+    private final long timestamp;
+    private final String username;
+    private final Map<String, Integer> items;
+    private final long cashCents;
+    private final int pointsSpent;
+    private final int pointsEarned;
+    private final long balanceAfterCents;
+    private final int pointsAfter;
+
+    /**
+     * Creates a purchase that has not been recorded yet.
+     *
+     * Requires: username and items are not null; the amounts are ≥ 0.
+     * Modifies: this
+     * Effects: Initializes the purchase with a copy of items, orderId -1 and timestamp 0.
+     */
+    public Purchase(String username, Map<String, Integer> items, long cashCents, int pointsSpent,
+                    int pointsEarned, long balanceAfterCents, int pointsAfter) {
+        this(-1, 0, username, items, cashCents, pointsSpent, pointsEarned, balanceAfterCents, pointsAfter);
+    }
+
+    private Purchase(long orderId, long timestamp, String username, Map<String, Integer> items, long cashCents,
+                     int pointsSpent, int pointsEarned, long balanceAfterCents, int pointsAfter) {
+        this.orderId = orderId;
+        this.timestamp = timestamp;
+        this.username = username;
+        this.items = Collections.unmodifiableMap(new LinkedHashMap<>(items));
+        this.cashCents = cashCents;
+        this.pointsSpent = pointsSpent;
+        this.pointsEarned = pointsEarned;
+        this.balanceAfterCents = balanceAfterCents;
+        this.pointsAfter = pointsAfter;
+    }
+
+    /**
+     * Returns this purchase as recorded under an order id and time.
+     *
+     * Requires: orderId ≥ 0
+     * Modifies: none
+     * Effects: Returns a copy of this purchase with the given order id and timestamp.
+     */
+    public Purchase recordedAs(long orderId, long timestamp) {
+        return new Purchase(orderId, timestamp, username, items, cashCents, pointsSpent, pointsEarned,
+                balanceAfterCents, pointsAfter);
+    }
+
+    /**
+     * Gets the order id.
+     *
+     * Requires: none
+     * Modifies: none
+     * Effects: Returns the order id, or -1 if the purchase has not been recorded.
+     */
+    public long getOrderId() {
+        return orderId;
+    }
+
+    /**
+     * Gets when the purchase was recorded.
+     *
+     * Requires: none
+     * Modifies: none
+     * Effects: Returns the time in milliseconds since the epoch.
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * Gets the username of the customer who paid.
+     *
+     * Requires: none
+     * Modifies: none
+     * Effects: Returns the username.
+     */
+    public String getUsername() {
+        return username;
+    }
+
+    /**
+     * Gets the books bought.
+     *
+     * Requires: none
+     * Modifies: none
+     * Effects: Returns a read-only map from title to quantity, in cart order.
+     */
+    public Map<String, Integer> getItems() {
+        return items;
+    }
+
+    /**
+     * Gets how much was paid from the balance.
+     *
+     * Requires: none
+     * Modifies: none
+     * Effects: Returns the amount in cents.
+     */
+    public long getCashCents() {
+        return cashCents;
+    }
+
+    /**
+     * Gets how many points were redeemed.
+     *
+     * Requires: none
+     * Modifies: none
+     * Effects: Returns the points spent.
+     */
+    public int getPointsSpent() {
+        return pointsSpent;
+    }
+
+    /**
+     * Gets how many points the purchase earned.
+     *
+     * Requires: none
+     * Modifies: none
+     * Effects: Returns the points earned.
+     */
+    public int getPointsEarned() {
+        return pointsEarned;
+    }
+
+    /**
+     * Gets the customer's balance right after the purchase.
+     *
+     * Requires: none
+     * Modifies: none
+     * Effects: Returns the balance in cents.
+     */
+    public long getBalanceAfterCents() {
+        return balanceAfterCents;
+    }
+
+    /**
+     * Gets the customer's points right after the purchase.
+     *
+     * Requires: none
+     * Modifies: none
+     * Effects: Returns the points.
+     */
+    public int getPointsAfter() {
+        return pointsAfter;
+    }
+}
@@ -0,0 +1,160 @@
+package BookStore.models;
+
+import BookStore.utils.InputValidator;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Represents a shopping cart that holds selected books for a customer.
+ *
+ * Abstraction Function:
+ * - A shoppingCart is a set of lines, one per distinct title, each with a quantity.
+ * - Each book has a price in cents, and the cart keeps the total cost and the number of copies
+ *   up to date as books are added and removed, so reading them never re-sums the cart.
+ *
+ * Representation Invariant:
+ * - items should not be null; it maps the title key (InputValidator.titleKey) of each line's
+ *   book to that line, in the order the titles were first added.
+ * - Every line has quantity ≥ 1.
+ * - totalCents is the sum of the line totals and itemCount the sum of the quantities.
+ */
+public class ShoppingCart {
+    private final Map<String, CartItem> items;
+    private long totalCents;
+    private int itemCount;
+
+    /**
+     * Creates a new, empty shopping cart.
+     *
+     * Requires: none
+     * Modifies: this
+     * Effects: Initializes the cart with no lines.
+     */
+    public ShoppingCart() {
+        items = new LinkedHashMap<>();
+    }
+
+    /**
+     * Creates a copy of another cart.
+     *
+     * Requires: other is not null
+     * Modifies: this
+     * Effects: Initializes the cart with the same lines and quantities as other; later changes
+     *          to either cart do not affect the other.
+     */
+    public ShoppingCart(ShoppingCart other) {
+        this();
+        for (Map.Entry<String, CartItem> entry : other.items.entrySet()) {
+            CartItem item = new CartItem(entry.getValue().getBook());
+            item.setQuantity(entry.getValue().getQuantity());
+            items.put(entry.getKey(), item);
+        }
+        totalCents = other.totalCents;
+        itemCount = other.itemCount;
+    }
+
+    /**
+     * Adds one copy of a book to the cart.
+     *
+     * Requires: book is not null
+     * Modifies: this
+     * Effects: Adds a line for the book's title with quantity 1, or raises the quantity of the
+     *          existing line by one (at the price the line was created with). Returns the line.
+     */
+    public CartItem addBook(Book book) {
+        CartItem item = items.get(InputValidator.titleKey(book.getTitle()));
+        if (item == null) {
+            item = new CartItem(book);
+            items.put(InputValidator.titleKey(book.getTitle()), item);
+        } else {
+            item.setQuantity(item.getQuantity() + 1);
+        }
+        totalCents += item.getBook().getPriceCents();
+        itemCount++;
+        return item;
+    }
+
+    /**
+     * Removes one copy of a book from the cart.
+     *
+     * Requires: book is not null
+     * Modifies: this
+     * Effects: Lowers the quantity of the book's line by one, dropping the line when it reaches 0.
+     *          Returns the quantity left, or -1 if the book was not in the cart.
+     */
+    public int removeBook(Book book) {
+        String key = InputValidator.titleKey(book.getTitle());
+        CartItem item = items.get(key);
+        if (item == null) {
+            return -1;
+        }
+        int left = item.getQuantity() - 1;
+        if (left == 0) {
+            items.remove(key);
+        } else {
+            item.setQuantity(left);
+        }
+        totalCents -= item.getBook().getPriceCents();
+        itemCount--;
+        return left;
+    }
+
+    /**
+     * Checks whether a book's title is in the cart.
+     *
+     * Requires: book is not null
+     * Modifies: none
+     * Effects: Returns true if the cart has a line for the book's title.
+     */
+    public boolean contains(Book book) {
+        return items.containsKey(InputValidator.titleKey(book.getTitle()));
+    }
+
+    /**
+     * Returns the total price of all books in the cart.
+     *
+     * Requires: none
+     * Modifies: none
+     * Effects: Returns the total cost in cents of every copy in the cart, without re-summing.
+     */
+    public long getTotalPriceCents() {
+        return totalCents;
+    }
+
+    /**
+     * Returns how many copies are in the cart.
+     *
+     * Requires: none
+     * Modifies: none
+     * Effects: Returns the sum of the quantities of all lines.
+     */
+    public int getItemCount() {
+        return itemCount;
+    }
+
+    /**
+     * Clears all books from the cart.
+     *
+     * Requires: none
+     * Modifies: this
+     * Effects: Empties the shopping cart.
+     */
+    public void clearCart() {
+        items.clear();
+        totalCents = 0;
+        itemCount = 0;
+    }
+
+    /**
+     * Returns the lines in the cart.
+     *
+     * Requires: none
+     * Modifies: none
+     * Effects: Returns a read-only view of the lines, in the order their titles were first added.
+     */
+    public Collection<CartItem> getItems() {
+        return Collections.unmodifiableCollection(items.values());
+    }
+}
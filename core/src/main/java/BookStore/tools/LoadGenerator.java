@@ -0,0 +1,303 @@
+package BookStore.tools;
+
+import BookStore.database.DatabaseManager;
+import BookStore.handlers.LoginHandler;
+import BookStore.handlers.PaymentHandler;
+import BookStore.handlers.ShoppingCartHandler;
+import BookStore.models.Book;
+import BookStore.models.Customer;
+import BookStore.models.Order;
+import BookStore.models.OrderResult;
+import BookStore.models.Purchase;
+import BookStore.utils.LatencyHistogram;
+import BookStore.utils.Money;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Simulates many customers shopping at once to measure what the store can sustain.
+ *
+ * Abstraction Function:
+ * - Each shopper is a thread that repeatedly logs in with LoginHandler.validateUser, fills a
+ *   cart with ShoppingCartHandler and checks out with PaymentHandler.processOrder, pausing
+ *   for a random think time (thinkMillis on average) between visits.
+ * - Shoppers use the accounts "loadtest-0" .. "loadtest-(accounts-1)", shopper i using account
+ *   i % accounts; fewer accounts than shoppers means concurrent checkouts on the same customer.
+ * - The accounts are reset to START_BALANCE and no points before the run, so afterwards each
+ *   one's balance and points must equal what its paid checkouts in the purchase ledger say.
+ *   An account that disagrees lost an update. Paid checkouts the ledger refused (reported by
+ *   OrderResult.isRecorded) are counted separately, since they explain a disagreement.
+ *
+ * Representation Invariant:
+ * - One histogram and one error counter per operation; latencies exclude think time.
+ * - paid[a] counts the checkouts of account a that processOrder reported as paid, recorded or not.
+ */
+public class LoadGenerator {
+    private static final String ACCOUNT_PREFIX = "loadtest-";
+    private static final String PASSWORD = "loadtest";
+    private static final long START_BALANCE = Money.ofDollars(1_000_000_000); // Keeps declines rare
+    private static final int CATALOG_SAMPLE = 1000;
+
+    private final int shoppers;
+    private final int accounts;
+    private final long durationMillis;
+    private final long thinkMillis;
+    private final double pointsShare;
+    private final int booksPerCart;
+
+    private final LatencyHistogram loginTimes = new LatencyHistogram();
+    private final LatencyHistogram cartTimes = new LatencyHistogram();
+    private final LatencyHistogram checkoutTimes = new LatencyHistogram();
+    private final AtomicLong loginErrors = new AtomicLong();
+    private final AtomicLong cartErrors = new AtomicLong();
+    private final AtomicLong checkoutErrors = new AtomicLong();
+    private final AtomicLong declined = new AtomicLong();
+    private final AtomicLong unrecorded = new AtomicLong();
+    private final AtomicIntegerArray paid;
+
+    private final DatabaseManager dbManager = new DatabaseManager();
+    private List<Book> catalog;
+
+    /**
+     * Creates a load generator.
+     *
+     * Requires: shoppers > 0, 0 < accounts, durationMillis > 0, thinkMillis ≥ 0,
+     *           0 ≤ pointsShare ≤ 1, booksPerCart > 0
+     * Modifies: none
+     * Effects: Sets up a run; nothing happens until run() is called.
+     *
+     * @param pointsShare The fraction of checkouts that redeem points first.
+     */
+    public LoadGenerator(int shoppers, int accounts, long durationMillis, long thinkMillis,
+                         double pointsShare, int booksPerCart) {
+        this.shoppers = shoppers;
+        this.accounts = accounts;
+        this.durationMillis = durationMillis;
+        this.thinkMillis = thinkMillis;
+        this.pointsShare = pointsShare;
+        this.booksPerCart = booksPerCart;
+        this.paid = new AtomicIntegerArray(accounts);
+    }
+
+    /**
+     * Runs the load and prints a report.
+     *
+     * Requires: the catalog has at least one book.
+     * Modifies: the loadtest accounts, the purchase ledger
+     * Effects: Resets the loadtest accounts, runs all shoppers for the configured duration,
+     *          then prints throughput, latency percentiles per operation, errors and lost updates.
+     */
+    public void run() throws InterruptedException {
+        catalog = dbManager.loadBooksPage(0, CATALOG_SAMPLE);
+        if (catalog.isEmpty()) {
+            System.out.println("Error running load: the catalog has no books");
+            return;
+        }
+        for (int a = 0; a < accounts; a++) {
+            dbManager.addCustomer(new Customer(ACCOUNT_PREFIX + a, PASSWORD, START_BALANCE));
+        }
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>(shoppers);
+        for (int i = 0; i < shoppers; i++) {
+            int account = i % accounts;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                    shop(account, System.currentTimeMillis() + durationMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }, "shopper-" + i);
+            thread.setDaemon(true);
+            threads.add(thread);
+            thread.start();
+        }
+
+        long began = System.nanoTime();
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        long elapsed = System.nanoTime() - began;
+        report(elapsed);
+    }
+
+    private void shop(int account, long deadline) throws InterruptedException {
+        String username = ACCOUNT_PREFIX + account;
+        LoginHandler loginHandler = new LoginHandler();
+        PaymentHandler paymentHandler = new PaymentHandler();
+        ShoppingCartHandler cartHandler = new ShoppingCartHandler();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        while (System.currentTimeMillis() < deadline) {
+            try {
+                long t0 = System.nanoTime();
+                String role = loginHandler.validateUser(username, PASSWORD);
+                loginTimes.record(System.nanoTime() - t0);
+                if (!role.equals("customer")) {
+                    loginErrors.incrementAndGet();
+                    continue;
+                }
+            } catch (RuntimeException e) {
+                loginErrors.incrementAndGet();
+                continue;
+            }
+
+            try {
+                for (int b = 0; b < booksPerCart; b++) {
+                    Book book = catalog.get(random.nextInt(catalog.size()));
+                    long t0 = System.nanoTime();
+                    cartHandler.addBook(book);
+                    cartTimes.record(System.nanoTime() - t0);
+                }
+            } catch (RuntimeException e) {
+                cartErrors.incrementAndGet();
+                cartHandler.clearCart();
+                continue;
+            }
+
+            try {
+                boolean usePoints = random.nextDouble() < pointsShare;
+                long t0 = System.nanoTime();
+                OrderResult result = paymentHandler.processOrder(new Order(username, cartHandler.getCart(), usePoints));
+                checkoutTimes.record(System.nanoTime() - t0);
+                if (result.isPaid()) {
+                    paid.incrementAndGet(account);
+                    if (!result.isRecorded()) {
+                        unrecorded.incrementAndGet();
+                    }
+                } else {
+                    declined.incrementAndGet();
+                }
+            } catch (RuntimeException e) {
+                checkoutErrors.incrementAndGet();
+            } finally {
+                cartHandler.clearCart();
+            }
+
+            if (thinkMillis > 0) {
+                TimeUnit.MILLISECONDS.sleep(random.nextLong(2 * thinkMillis + 1));
+            }
+        }
+    }
+
+    /**
+     * Compares every account with its paid checkouts and returns {accounts that disagree,
+     * paid checkouts missing from the ledger}.
+     */
+    private long[] findLostUpdates() {
+        long wrongAccounts = 0;
+        long missingPurchases = 0;
+        for (int a = 0; a < accounts; a++) {
+            String username = ACCOUNT_PREFIX + a;
+            List<Purchase> purchases = dbManager.recentPurchases(username, paid.get(a));
+            long expectedBalance = START_BALANCE;
+            long expectedPoints = 0;
+            for (Purchase purchase : purchases) {
+                expectedBalance -= purchase.getCashCents();
+                expectedPoints += purchase.getPointsEarned() - purchase.getPointsSpent();
+            }
+            Customer customer = dbManager.getCustomer(username);
+            missingPurchases += paid.get(a) - purchases.size();
+            if (customer == null || customer.getBalanceCents() != expectedBalance
+                    || customer.getPoints() != expectedPoints || purchases.size() != paid.get(a)) {
+                wrongAccounts++;
+            }
+        }
+        return new long[] {wrongAccounts, missingPurchases};
+    }
+
+    private void report(long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        long checkouts = checkoutTimes.count();
+        long paidTotal = checkouts - declined.get();
+        long[] lost = findLostUpdates();
+
+        System.out.printf("Shoppers: %d on %d accounts, %.1f s, think time %d ms, %.0f%% paying with points%n",
+                shoppers, accounts, seconds, thinkMillis, pointsShare * 100);
+        System.out.printf("%-12s %9s %8s %9s %9s %9s %9s %9s%n",
+                "operation", "count", "errors", "ops/s", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        printRow("login", loginTimes, loginErrors.get(), seconds);
+        printRow("add-to-cart", cartTimes, cartErrors.get(), seconds);
+        printRow("checkout", checkoutTimes, checkoutErrors.get(), seconds);
+        System.out.printf("Checkouts: %d paid, %d declined, %.1f paid/s%n", paidTotal, declined.get(), paidTotal / seconds);
+        System.out.printf("Lost updates: %d of %d accounts disagree with the ledger, %d paid checkouts missing from it"
+                + " (%d of them reported by checkout as not recorded)%n", lost[0], accounts, lost[1], unrecorded.get());
+    }
+
+    private static void printRow(String name, LatencyHistogram times, long errors, double seconds) {
+        System.out.printf("%-12s %9d %8d %9.1f %9.3f %9.3f %9.3f %9.3f%n", name, times.count(), errors,
+                times.count() / seconds, millis(times.percentile(0.50)), millis(times.percentile(0.99)),
+                millis(times.percentile(0.999)), millis(times.max()));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+
+    /**
+     * Command-line load generator.
+     * Usage: LoadGenerator [--shoppers=50] [--accounts=<shoppers>] [--duration=30] [--think-ms=100]
+     *                      [--points-share=0.3] [--books-per-cart=3]
+     * duration is in seconds. Runs against the store selected by the usual bookstore.* properties.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int shoppers = 50;
+        int accounts = -1;
+        long durationSeconds = 30;
+        long thinkMillis = 100;
+        double pointsShare = 0.3;
+        int booksPerCart = 3;
+        try {
+            for (String arg : args) {
+                int eq = arg.indexOf('=');
+                String name = eq < 0 ? arg : arg.substring(0, eq);
+                String value = eq < 0 ? "" : arg.substring(eq + 1);
+                switch (name) {
+                    case "--shoppers":
+                        shoppers = Integer.parseInt(value);
+                        break;
+                    case "--accounts":
+                        accounts = Integer.parseInt(value);
+                        break;
+                    case "--duration":
+                        durationSeconds = Long.parseLong(value);
+                        break;
+                    case "--think-ms":
+                        thinkMillis = Long.parseLong(value);
+                        break;
+                    case "--points-share":
+                        pointsShare = Double.parseDouble(value);
+                        break;
+                    case "--books-per-cart":
+                        booksPerCart = Integer.parseInt(value);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("unknown option " + arg);
+                }
+            }
+            if (accounts < 0) {
+                accounts = shoppers;
+            }
+            if (shoppers <= 0 || accounts <= 0 || durationSeconds <= 0 || thinkMillis < 0
+                    || pointsShare < 0 || pointsShare > 1 || booksPerCart <= 0) {
+                throw new IllegalArgumentException("option out of range");
+            }
+        } catch (IllegalArgumentException e) {
+            System.out.println("Error reading options: " + e.getMessage());
+            System.out.println("Usage: LoadGenerator [--shoppers=50] [--accounts=<shoppers>] [--duration=30] "
+                    + "[--think-ms=100] [--points-share=0.3] [--books-per-cart=3]");
+            return;
+        }
+
+        DatabaseManager.initialize();
+        new LoadGenerator(shoppers, accounts, TimeUnit.SECONDS.toMillis(durationSeconds), thinkMillis,
+                pointsShare, booksPerCart).run();
+    }
+}
@@ -0,0 +1,179 @@
+package BookStore.utils;
+
+import BookStore.models.Book;
+import BookStore.models.Customer;
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * Utility class to validate user input fields like usernames, passwords, prices, etc.
+ *
+ * Abstraction Function:
+ * - Helps check if user input is empty, numeric, or already exists.
+ * - Ensures that only valid usernames, passwords, and prices are accepted.
+ *
+ * Representation Invariant:
+ * - All input checks return a boolean.
+ * - None of the utility methods should modify program state.
+ */
+public class InputValidator {
+
+    /**
+     * Checks if a given string input is empty or only contains spaces.
+     *
+     * Requires: input can be null or a string
+     * Modifies: none
+     * Effects: Returns true if the input is null or just spaces, false otherwise.
+     */
+    public static boolean isEmpty(String input) {
+        return input == null || input.trim().isEmpty();
+    }
+
+    /**
+     * Checks if a given string is a valid positive amount of money.
+     *
+     * Requires: input is not null
+     * Modifies: none
+     * Effects: Returns true if the input is a number greater than 0 that Money.parse accepts,
+     *          false otherwise.
+     */
+    public static boolean isNumeric(String input) {
+        if (isEmpty(input)) return false;
+        try {
+            return Money.parse(input) > 0;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Validates if a username meets basic rules.
+     *
+     * Requires: username is not null
+     * Modifies: none
+     * Effects: Returns true if the username has at least 3 characters and is not empty.
+     */
+    public static boolean isValidUsername(String username) {
+        return !isEmpty(username) && username.length() >= 3;
+    }
+
+    /**
+     * Validates if a password meets basic rules.
+     *
+     * Requires: password is not null
+     * Modifies: none
+     * Effects: Returns true if the password has at least 6 characters and is not empty.
+     */
+    public static boolean isValidPassword(String password) {
+        return !isEmpty(password) && password.length() >= 6;
+    }
+
+    /**
+     * Checks if a price is one of the allowed bookstore values.
+     *
+     * Requires: priceCents ≥ 0
+     * Modifies: none
+     * Effects: Returns true if the price is exactly $50, $100, $200, or $500.
+     */
+    public static boolean isValidBookPrice(long priceCents) {
+        return priceCents == Money.ofDollars(50) || priceCents == Money.ofDollars(100)
+                || priceCents == Money.ofDollars(200) || priceCents == Money.ofDollars(500);
+    }
+
+    /**
+     * Checks if a book title already exists in the given books.
+     *
+     * Requires: books is not null, title is not null
+     * Modifies: none
+     * Effects: Returns true if a book with the same title (case-insensitive) exists.
+     *          Stops at the first match, so it also works over a streamed catalog.
+     */
+    public static boolean bookAlreadyExists(Iterable<Book> books, String title) {
+        for (Book b : books) {
+            if (b.getTitle().equalsIgnoreCase(title.trim())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Normalizes a book title for case-insensitive hashing.
+     *
+     * Requires: title is not null
+     * Modifies: none
+     * Effects: Returns a key that is the same for two titles exactly when
+     *          String.equalsIgnoreCase says they are equal.
+     */
+    public static String titleKey(String title) {
+        char[] key = null;
+        for (int i = 0; i < title.length(); i++) {
+            char c = title.charAt(i);
+            // equalsIgnoreCase compares characters after upper- then lower-casing them
+            char folded = Character.toLowerCase(Character.toUpperCase(c));
+            if (folded != c) {
+                if (key == null) {
+                    key = title.toCharArray();
+                }
+                key[i] = folded;
+            }
+        }
+        return key == null ? title : new String(key);
+    }
+
+    /**
+     * Finds the titles in a batch that would be duplicates.
+     *
+     * Requires: books is not null, titles is not null and holds no nulls
+     * Modifies: none
+     * Effects: Returns, in batch order, each title that matches a book in books or an earlier
+     *          title in the batch (case-insensitive, ignoring surrounding spaces).
+     *          Reads books once, so the work grows with books + titles, not books × titles.
+     */
+    public static List<String> duplicateTitles(Iterable<Book> books, List<String> titles) {
+        Set<String> wanted = new HashSet<>();
+        for (String title : titles) {
+            wanted.add(titleKey(title.trim()));
+        }
+        Set<String> existing = new HashSet<>();
+        for (Book b : books) {
+            String key = titleKey(b.getTitle());
+            if (wanted.contains(key)) {
+                existing.add(key);
+            }
+        }
+        return duplicateTitles(titles, title -> existing.contains(titleKey(title)));
+    }
+
+    /**
+     * Finds the titles in a batch that would be duplicates, given a way to check the catalog.
+     *
+     * Requires: titles is not null and holds no nulls, exists is not null
+     * Modifies: none
+     * Effects: Returns, in batch order, each title for which exists (given the trimmed title)
+     *          returns true or that matches an earlier title in the batch, ignoring case.
+     */
+    public static List<String> duplicateTitles(List<String> titles, Predicate<String> exists) {
+        List<String> duplicates = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        for (String title : titles) {
+            String trimmed = title.trim();
+            if (!seen.add(titleKey(trimmed)) || exists.test(trimmed)) {
+                duplicates.add(title);
+            }
+        }
+        return duplicates;
+    }
+
+    /**
+     * Checks if a username already exists in the map of customers.
+     *
+     * Requires: customers map is not null, username is not null
+     * Modifies: none
+     * Effects: Returns true if the username is already in the customer map. Usernames are
+     *          case-sensitive, as the map's keys are.
+     */
+    public static boolean userAlreadyExists(Map<String, Customer> customers, String username) {
+        return customers.containsKey(username);
+    }
+}
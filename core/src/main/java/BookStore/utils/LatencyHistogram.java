@@ -0,0 +1,112 @@
+package BookStore.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts latencies in buckets so percentiles can be read without keeping every sample.
+ *
+ * Abstraction Function:
+ * - Values 0..31 ns each have their own bucket. Above that, every power-of-two range is split
+ *   into SUB_BUCKETS equal buckets, so a bucket is at most about 3% wide relative to its values.
+ * - percentile(q) is the upper edge of the bucket holding the q-th value, so it never
+ *   understates a latency by more than one bucket width.
+ * - Many threads can record at once; recording is a few atomic adds and never blocks.
+ *
+ * Representation Invariant:
+ * - counts.length == GROUPS * SUB_BUCKETS.
+ * - Values above MAX_VALUE are counted in the last bucket; max() still reports them exactly.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int MAX_EXPONENT = 44; // 2^45 ns is about 9.8 hours
+    private static final long MAX_VALUE = (1L << (MAX_EXPONENT + 1)) - 1;
+    private static final int GROUPS = MAX_EXPONENT - SUB_BITS + 2;
+
+    private final AtomicLongArray counts = new AtomicLongArray(GROUPS * SUB_BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Records one latency.
+     *
+     * Requires: none
+     * Modifies: this
+     * Effects: Counts nanos (negative values count as 0).
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts.incrementAndGet(indexOf(Math.min(value, MAX_VALUE)));
+        count.incrementAndGet();
+        sum.addAndGet(value);
+        max.accumulateAndGet(value, Math::max);
+    }
+
+    /**
+     * Returns how many latencies were recorded.
+     */
+    public long count() {
+        return count.get();
+    }
+
+    /**
+     * Returns the largest latency recorded, or 0 if none was.
+     */
+    public long max() {
+        return max.get();
+    }
+
+    /**
+     * Returns the mean latency in nanoseconds, or 0 if none was recorded.
+     */
+    public double mean() {
+        long n = count.get();
+        return n == 0 ? 0 : (double) sum.get() / n;
+    }
+
+    /**
+     * Returns a percentile of the recorded latencies.
+     *
+     * Requires: 0 ≤ q ≤ 1
+     * Modifies: none
+     * Effects: Returns, in nanoseconds, a value at least as large as the fraction q of the
+     *          recorded latencies and within one bucket of the true percentile, never more than
+     *          max(). Returns 0 if nothing was recorded.
+     */
+    public long percentile(double q) {
+        long total = count.get();
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(q * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(upperEdge(i), max.get());
+            }
+        }
+        return max.get(); // Recorded concurrently with this read
+    }
+
+    private static int indexOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+        int sub = (int) (value >>> shift) & (SUB_BUCKETS - 1); // The bits after the leading one
+        return (shift + 1) * SUB_BUCKETS + sub;
+    }
+
+    private static long upperEdge(int index) {
+        int group = index / SUB_BUCKETS;
+        int sub = index % SUB_BUCKETS;
+        if (group == 0) {
+            return sub;
+        }
+        int shift = group - 1;
+        return ((long) (SUB_BUCKETS + sub + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,115 @@
+package BookStore.utils;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Helpers for amounts of money held as a whole number of cents in a long.
+ *
+ * Abstraction Function:
+ * - A long value c stands for c / 100 dollars, so 1999 is $19.99.
+ * - Adding, subtracting and comparing amounts is plain long arithmetic: exact and allocation-free.
+ * - Text forms are decimal dollars with two fraction digits, like "19.99".
+ *
+ * Representation Invariant:
+ * - parse(format(c)) == c for every c.
+ * - parse accepts what files written with double amounts contain ("19.99", "20.0",
+ *   "387.01000000000005", "1.0E7"); more than two fraction digits are rounded half-up.
+ */
+public final class Money {
+    public static final long CENTS_PER_DOLLAR = 100;
+
+    private static final int MAX_FAST_DIGITS = 16;
+
+    private Money() {
+    }
+
+    /**
+     * Converts whole dollars to cents.
+     *
+     * Requires: none
+     * Modifies: none
+     * Effects: Returns dollars * 100. Throws ArithmeticException if that overflows a long.
+     */
+    public static long ofDollars(long dollars) {
+        return Math.multiplyExact(dollars, CENTS_PER_DOLLAR);
+    }
+
+    /**
+     * Converts an amount held as a double number of dollars, as older files and APIs do.
+     *
+     * Requires: dollars is finite.
+     * Modifies: none
+     * Effects: Returns the nearest whole number of cents.
+     */
+    public static long fromDouble(double dollars) {
+        return Math.round(dollars * CENTS_PER_DOLLAR);
+    }
+
+    /**
+     * Parses a decimal dollar amount.
+     *
+     * Requires: text is not null.
+     * Modifies: none
+     * Effects: Returns the amount in cents, ignoring surrounding spaces. Plain amounts with at most
+     *          two fraction digits are converted straight from the characters; anything else goes
+     *          through BigDecimal and is rounded half-up to the cent. Throws NumberFormatException
+     *          if text is not a number or does not fit.
+     */
+    public static long parse(String text) {
+        String s = text.trim();
+        int n = s.length();
+        int i = 0;
+        boolean negative = false;
+        if (i < n && (s.charAt(i) == '-' || s.charAt(i) == '+')) {
+            negative = s.charAt(i) == '-';
+            i++;
+        }
+        long whole = 0;
+        int digits = 0;
+        while (i < n && isDigit(s.charAt(i)) && digits < MAX_FAST_DIGITS) {
+            whole = whole * 10 + (s.charAt(i++) - '0');
+            digits++;
+        }
+        long fraction = 0;
+        int fractionDigits = 0;
+        if (i < n && s.charAt(i) == '.') {
+            i++;
+            while (i < n && isDigit(s.charAt(i)) && fractionDigits < 2) {
+                fraction = fraction * 10 + (s.charAt(i++) - '0');
+                fractionDigits++;
+            }
+        }
+        if (i == n && digits + fractionDigits > 0) {
+            long cents = whole * CENTS_PER_DOLLAR + (fractionDigits == 1 ? fraction * 10 : fraction);
+            return negative ? -cents : cents;
+        }
+        return parseSlow(s);
+    }
+
+    /**
+     * Formats cents as a decimal dollar amount.
+     *
+     * Requires: none
+     * Modifies: none
+     * Effects: Returns the amount with exactly two fraction digits and no currency sign, like "19.99"
+     *          or "-0.05".
+     */
+    public static String format(long cents) {
+        long whole = Math.abs(cents / CENTS_PER_DOLLAR);
+        long fraction = Math.abs(cents % CENTS_PER_DOLLAR);
+        return (cents < 0 ? "-" : "") + whole + (fraction < 10 ? ".0" : ".") + fraction;
+    }
+
+    private static long parseSlow(String s) {
+        try {
+            return new BigDecimal(s).setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            throw new NumberFormatException("Amount out of range: " + s);
+        }
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
@@ -0,0 +1,105 @@
+package BookStore.utils;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A fixed table of locks shared out by key hash.
+ *
+ * Abstraction Function:
+ * - Each key maps to one of stripes.length locks. Holders of keys on different stripes never
+ *   wait for each other; holders of the same key always do. Two keys may share a stripe, in
+ *   which case they wait for each other too.
+ * - contention[i] counts how often a thread found stripe i already held and had to wait,
+ *   so hot stripes (and usually hot keys) show up.
+ *
+ * Representation Invariant:
+ * - stripes.length is a power of two and equals contention.length().
+ * - A key always maps to the same stripe.
+ */
+public class StripedLock {
+    private final ReentrantLock[] stripes;
+    private final AtomicLongArray contention;
+
+    /**
+     * Creates a lock table.
+     *
+     * Requires: stripeCount > 0
+     * Modifies: this
+     * Effects: Creates at least stripeCount locks, rounded up to a power of two.
+     */
+    public StripedLock(int stripeCount) {
+        int size = 1;
+        while (size < stripeCount) {
+            size <<= 1;
+        }
+        stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        contention = new AtomicLongArray(size);
+    }
+
+    /**
+     * Returns the stripe a key maps to.
+     *
+     * Requires: key is not null.
+     * Modifies: none
+     * Effects: Returns an index in [0, stripeCount()).
+     */
+    public int stripeOf(Object key) {
+        int h = key.hashCode();
+        h ^= h >>> 16; // Usernames differ mostly in their last characters; mix them into the low bits
+        return h & (stripes.length - 1);
+    }
+
+    /**
+     * Locks the stripe for a key, waiting if another thread holds it.
+     *
+     * Requires: key is not null; the caller calls unlock(key) afterwards.
+     * Modifies: this
+     * Effects: Returns once the current thread holds the key's stripe. Counts a contention
+     *          if it had to wait. The lock is reentrant.
+     */
+    public void lock(Object key) {
+        int stripe = stripeOf(key);
+        ReentrantLock lock = stripes[stripe];
+        if (!lock.tryLock()) {
+            contention.incrementAndGet(stripe);
+            lock.lock();
+        }
+    }
+
+    /**
+     * Unlocks the stripe for a key.
+     *
+     * Requires: the current thread holds the key's stripe.
+     * Modifies: this
+     * Effects: Releases one hold on the stripe.
+     */
+    public void unlock(Object key) {
+        stripes[stripeOf(key)].unlock();
+    }
+
+    /**
+     * Returns how many stripes there are.
+     */
+    public int stripeCount() {
+        return stripes.length;
+    }
+
+    /**
+     * Returns how many times threads had to wait for each stripe.
+     *
+     * Requires: none
+     * Modifies: none
+     * Effects: Returns a new array indexed by stripe.
+     */
+    public long[] contentionCounts() {
+        long[] counts = new long[contention.length()];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = contention.get(i);
+        }
+        return counts;
+    }
+}
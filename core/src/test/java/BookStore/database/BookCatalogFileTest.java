@@ -0,0 +1,74 @@
+package BookStore.database;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import BookStore.models.Book;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Checks that a binary catalog round-trips its books and only stands in for books.txt while
+ * the text file is exactly as it was when the catalog was written from it.
+ */
+class BookCatalogFileTest {
+    private static final List<Book> BOOKS = List.of(new Book("Dune", 999), new Book("Émile", 1250));
+    private static final FileTime EARLIER = FileTime.fromMillis(1_000_000_000_000L);
+
+    @TempDir
+    Path dir;
+
+    private Path text;
+    private Path binary;
+
+    @BeforeEach
+    void writeTextCatalog() throws IOException {
+        text = dir.resolve("Books.txt");
+        binary = dir.resolve("Books.bin");
+        BookTextFile.write(text, BOOKS);
+        Files.setLastModifiedTime(text, EARLIER);
+    }
+
+    @Test
+    void roundTripsTheBooks() throws IOException {
+        BookCatalogFile.write(binary, BOOKS, BookCatalogFile.Source.of(text));
+        List<Book> read = BookCatalogFile.read(binary);
+        assertEquals(2, read.size());
+        assertEquals("Émile", read.get(1).getTitle());
+        assertEquals(1250, read.get(1).getPriceCents());
+    }
+
+    @Test
+    void currentUntilTheTextChanges() throws IOException {
+        BookCatalogFile.write(binary, BOOKS, BookCatalogFile.Source.of(text));
+        assertTrue(BookCatalogFile.isCurrent(binary, text));
+
+        // Same size, so only the modification time gives the edit away
+        Files.write(text, Files.readString(text).replace("9.99", "8.99").getBytes(StandardCharsets.UTF_8));
+        Files.setLastModifiedTime(text, FileTime.fromMillis(EARLIER.toMillis() + 1));
+        assertFalse(BookCatalogFile.isCurrent(binary, text));
+    }
+
+    @Test
+    void notCurrentWhenTheTextMayHaveChangedInTheSameTick() throws IOException {
+        BookCatalogFile.write(binary, BOOKS, BookCatalogFile.Source.of(text));
+        Files.setLastModifiedTime(binary, EARLIER);
+        assertFalse(BookCatalogFile.isCurrent(binary, text));
+    }
+
+    @Test
+    void notCurrentWithoutASource() throws IOException {
+        BookCatalogFile.write(binary, BOOKS);
+        assertFalse(BookCatalogFile.isCurrent(binary, text));
+        assertFalse(BookCatalogFile.isCurrent(dir.resolve("Missing.bin"), text));
+        assertEquals(BOOKS.size(), BookCatalogFile.read(binary).size());
+    }
+}
@@ -0,0 +1,79 @@
+package BookStore.database;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import BookStore.models.Book;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks that the title index finds, reprices and removes books the way a case-insensitive
+ * scan of the list would, and keeps the catalog in insertion order.
+ */
+class BookCatalogTest {
+    private final BookCatalog catalog = new BookCatalog();
+
+    @BeforeEach
+    void addBooks() {
+        catalog.add(new Book("Dune", 1000));
+        catalog.add(new Book("Emma", 800));
+        catalog.add(new Book("DUNE", 1200));
+        catalog.add(new Book("Walden", 500));
+    }
+
+    @Test
+    void findsTitlesIgnoringCase() {
+        assertTrue(catalog.contains("dune"));
+        assertTrue(catalog.contains("eMMa"));
+        assertFalse(catalog.contains("Dune Messiah"));
+        assertFalse(catalog.contains("Dune "));
+        assertEquals(1000, catalog.find("dUnE").getPriceCents()); // The earliest match
+        assertNull(catalog.find("Ulysses"));
+    }
+
+    @Test
+    void removesEveryBookWithTheTitle() {
+        assertEquals(List.of("Dune", "DUNE"), titles(catalog.remove("dune")));
+        assertFalse(catalog.contains("Dune"));
+        assertEquals(List.of(), catalog.remove("dune"));
+        assertEquals(List.of("Emma", "Walden"), titles(catalog.toList()));
+        assertEquals(2, catalog.size());
+    }
+
+    @Test
+    void repriceKeepsCatalogOrder() {
+        assertTrue(catalog.reprice("DUNE", 900));
+        assertFalse(catalog.reprice("Ulysses", 900));
+
+        List<Book> books = catalog.toList();
+        assertEquals(List.of("Dune", "Emma", "DUNE", "Walden"), titles(books));
+        assertEquals(900, books.get(0).getPriceCents());
+        assertEquals(900, books.get(2).getPriceCents());
+        assertEquals(800, books.get(1).getPriceCents());
+    }
+
+    @Test
+    void readdedTitlesGoToTheEnd() {
+        catalog.remove("Emma");
+        catalog.add(new Book("emma", 700));
+        assertEquals(List.of("Dune", "DUNE", "Walden", "emma"), titles(catalog.toList()));
+        assertEquals(700, catalog.find("EMMA").getPriceCents());
+
+        catalog.clear();
+        assertFalse(catalog.contains("Dune"));
+        assertEquals(0, catalog.size());
+    }
+
+    private static List<String> titles(Iterable<Book> books) {
+        List<String> titles = new ArrayList<>();
+        for (Book book : books) {
+            titles.add(book.getTitle());
+        }
+        return titles;
+    }
+}
@@ -0,0 +1,212 @@
+package BookStore.database;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import BookStore.models.Customer;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Checks that the customer log replays to the state it recorded, survives compaction and
+ * an interrupted compaction, drops a torn last record, and remembers removed customers' versions.
+ */
+class CustomerJournalTest {
+    @TempDir
+    Path dir;
+
+    private Path base;
+    private Path log;
+
+    @BeforeEach
+    void writeSnapshot() throws IOException {
+        base = dir.resolve("Users.txt");
+        log = dir.resolve("Users.log");
+        Files.write(base, List.of("alice,pw,10.00,0,0", "bob,pw,5.00,2,0"), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void replaysRecordedChanges() throws IOException {
+        CustomerJournal journal = open();
+        Map<String, Customer> customers = journal.load();
+        commit(journal, customers, customer("alice", "pw", 750, 3, 1));
+        commit(journal, customers, customer("carol", "secret", 100, 0, 0));
+        journal.lock();
+        try {
+            journal.recordRemoval(customers.get("bob"));
+            customers.remove("bob");
+            journal.sync();
+        } finally {
+            journal.unlock();
+        }
+
+        Map<String, Customer> replayed = open().load();
+        assertEquals(describe(customers), describe(replayed));
+        assertEquals("alice|pw|750|3|1", describe(replayed.get("alice")));
+        assertNull(replayed.get("bob"));
+    }
+
+    @Test
+    void writesOnlyTheFieldThatChanged() throws IOException {
+        CustomerJournal journal = open();
+        Map<String, Customer> customers = journal.load();
+        commit(journal, customers, customer("alice", "pw", 900, 0, 1));
+        commit(journal, customers, customer("bob", "pw", 500, 7, 1));
+
+        assertEquals(List.of("BAL,alice,9.00,1", "PTS,bob,7,1"), Files.readAllLines(log));
+    }
+
+    @Test
+    void compactionFoldsTheLogIntoTheSnapshot() throws IOException {
+        CustomerJournal journal = open();
+        Map<String, Customer> customers = journal.load();
+        commit(journal, customers, customer("alice", "pw", 1, 0, 1));
+        assertTrue(journal.snapshotDue(1, Long.MAX_VALUE));
+
+        journal.lock();
+        try {
+            journal.rotate();
+            assertTrue(journal.writeSnapshot(customers.values()));
+        } finally {
+            journal.unlock();
+        }
+
+        assertFalse(Files.exists(log));
+        assertFalse(Files.exists(dir.resolve("Users.log.old")));
+        assertFalse(journal.snapshotDue(1, Long.MAX_VALUE));
+        assertEquals(describe(customers), describe(open().load()));
+    }
+
+    @Test
+    void interruptedCompactionReplaysTheOldLog() throws IOException {
+        CustomerJournal journal = open();
+        Map<String, Customer> customers = journal.load();
+        commit(journal, customers, customer("alice", "pw", 1, 0, 1));
+        journal.lock();
+        try {
+            journal.rotate(); // Stops before the snapshot is written
+        } finally {
+            journal.unlock();
+        }
+        commit(journal, customers, customer("bob", "pw", 2, 2, 1));
+
+        assertTrue(Files.exists(dir.resolve("Users.log.old")));
+        CustomerJournal reopened = open();
+        assertEquals(describe(customers), describe(reopened.load()));
+        assertTrue(reopened.snapshotDue(Long.MAX_VALUE, Long.MAX_VALUE));
+    }
+
+    @Test
+    void tornLastRecordIsSkippedAndOverwritten() throws IOException {
+        CustomerJournal journal = open();
+        Map<String, Customer> customers = journal.load();
+        commit(journal, customers, customer("alice", "pw", 300, 0, 1));
+        Files.write(log, "BAL,bob,99".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        CustomerJournal reopened = open();
+        Map<String, Customer> replayed = reopened.load();
+        assertEquals(500, replayed.get("bob").getBalanceCents());
+
+        commit(reopened, replayed, customer("bob", "pw", 400, 2, 1));
+        assertEquals(List.of("BAL,alice,3.00,1", "BAL,bob,4.00,1"), Files.readAllLines(log));
+        assertEquals(describe(replayed), describe(open().load()));
+    }
+
+    @Test
+    void catchUpAppliesRecordsFromAnotherWriter() throws IOException {
+        CustomerJournal first = open();
+        CustomerJournal second = open();
+        Map<String, Customer> firstView = first.load();
+        Map<String, Customer> secondView = second.load();
+
+        commit(first, firstView, customer("alice", "pw", 42, 0, 1));
+        second.lock();
+        try {
+            second.catchUp(secondView);
+        } finally {
+            second.unlock();
+        }
+
+        assertEquals(describe(firstView), describe(secondView));
+    }
+
+    @Test
+    void removedCustomersKeepTheirVersionsUsedAcrossCompaction() throws IOException {
+        CustomerJournal journal = open();
+        Map<String, Customer> customers = journal.load();
+        commit(journal, customers, customer("bob", "pw", 600, 2, 5));
+        journal.lock();
+        try {
+            journal.recordRemoval(customers.remove("bob"));
+            journal.sync();
+        } finally {
+            journal.unlock();
+        }
+        assertNull(open().load().get("bob"));
+        assertEquals(6L, replayedNewCustomerVersion());
+
+        journal.lock();
+        try {
+            journal.rotate();
+            assertTrue(journal.writeSnapshot(customers.values()));
+        } finally {
+            journal.unlock();
+        }
+        assertEquals(List.of("VERSIONS,5", "alice,pw,10.00,0,0"), Files.readAllLines(base));
+        assertEquals(6L, replayedNewCustomerVersion());
+    }
+
+    private long replayedNewCustomerVersion() {
+        CustomerJournal reopened = open();
+        reopened.load();
+        return reopened.newCustomerVersion();
+    }
+
+    private CustomerJournal open() {
+        return new CustomerJournal(base.toString(), log.toString());
+    }
+
+    /**
+     * Logs after as the next value of its customer, the way DataStore commits a change.
+     */
+    private static void commit(CustomerJournal journal, Map<String, Customer> customers, Customer after)
+            throws IOException {
+        journal.lock();
+        try {
+            journal.catchUp(customers);
+            journal.recordChange(customers.get(after.getUsername()), after);
+            customers.put(after.getUsername(), after);
+            journal.sync();
+        } finally {
+            journal.unlock();
+        }
+    }
+
+    private static Customer customer(String username, String password, long balanceCents, int points, long version) {
+        Customer c = new Customer(username, password, balanceCents);
+        c.setPoints(points);
+        c.setVersion(version);
+        return c;
+    }
+
+    private static String describe(Customer c) {
+        return c.getUsername() + "|" + c.getPassword() + "|" + c.getBalanceCents() + "|" + c.getPoints()
+                + "|" + c.getVersion();
+    }
+
+    private static String describe(Map<String, Customer> customers) {
+        StringBuilder out = new StringBuilder();
+        customers.keySet().stream().sorted().forEach(u -> out.append(describe(customers.get(u))).append('\n'));
+        return out.toString();
+    }
+}
@@ -0,0 +1,129 @@
+package BookStore.database;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import BookStore.models.Customer;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Checks that changing the shard count moves every customer, including changes still in the
+ * log, into the new layout and removes the old one, also when several openers race to migrate.
+ */
+class CustomerShardTest {
+    @TempDir
+    Path dir;
+
+    @BeforeEach
+    void writeOneShardLayout() throws IOException {
+        StringBuilder snapshot = new StringBuilder();
+        for (int i = 0; i < 20; i++) {
+            snapshot.append("user").append(i).append(",pw,").append(i).append(".00,").append(i).append(",0\n");
+        }
+        Files.write(dir.resolve("Users.txt"), snapshot.toString().getBytes(StandardCharsets.UTF_8));
+        Files.write(dir.resolve("Users.log"), "BAL,user3,99.00,1\nDEL,user4\n".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void migratesToMoreShardsAndBack() throws IOException {
+        Map<String, String> expected = describe(CustomerShard.openAll(dir, 1));
+        assertEquals(19, expected.size());
+        assertEquals("pw|9900|3|1", expected.get("user3"));
+
+        CustomerShard[] four = CustomerShard.openAll(dir, 4);
+        assertEquals(expected, describe(four));
+        for (int i = 0; i < four.length; i++) {
+            for (String username : four[i].customers.keySet()) {
+                assertEquals(i, CustomerShard.indexOf(username, 4), username);
+            }
+            assertTrue(Files.exists(dir.resolve("Users." + i + "-of-4.txt")));
+        }
+        assertFalse(Files.exists(dir.resolve("Users.txt")));
+        assertFalse(Files.exists(dir.resolve("Users.log")));
+        assertEquals("4", manifest());
+
+        assertEquals(expected, describe(CustomerShard.openAll(dir, 1)));
+        assertTrue(Files.exists(dir.resolve("Users.txt")));
+        for (int i = 0; i < 4; i++) {
+            assertFalse(Files.exists(dir.resolve("Users." + i + "-of-4.txt")));
+        }
+        assertEquals("1", manifest());
+    }
+
+    @Test
+    void sameCountOpensWithoutMigrating() throws IOException {
+        List<String> before = Files.readAllLines(dir.resolve("Users.txt"));
+        CustomerShard.openAll(dir, 1);
+        assertEquals(before, Files.readAllLines(dir.resolve("Users.txt")));
+        assertTrue(Files.exists(dir.resolve("Users.log")));
+        assertFalse(Files.exists(dir.resolve("Users.shards")));
+    }
+
+    @Test
+    void readAllReadsTheLiveLayoutWithoutMigrating() throws IOException {
+        Map<String, String> expected = describe(CustomerShard.openAll(dir, 4));
+        List<String> before = Files.readAllLines(dir.resolve("Users.0-of-4.txt"));
+
+        Map<String, String> read = new TreeMap<>();
+        for (Customer c : CustomerShard.readAll(dir).values()) {
+            read.put(c.getUsername(), c.getPassword() + "|" + c.getBalanceCents() + "|" + c.getPoints()
+                    + "|" + c.getVersion());
+        }
+        assertEquals(expected, read);
+        assertEquals(before, Files.readAllLines(dir.resolve("Users.0-of-4.txt")));
+        assertFalse(Files.exists(dir.resolve("Users.txt")));
+        assertEquals("4", manifest());
+    }
+
+    @Test
+    void concurrentOpenersMigrateOnce() throws Exception {
+        Map<String, String> expected = describe(CustomerShard.openAll(dir, 1));
+        List<Callable<Map<String, String>>> openers = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            openers.add(() -> describe(CustomerShard.openAll(dir, 4)));
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(openers.size());
+        try {
+            for (Future<Map<String, String>> opened : pool.invokeAll(openers)) {
+                assertEquals(expected, opened.get()); // A late opener must not read the deleted layout
+            }
+        } catch (ExecutionException e) {
+            throw new AssertionError(e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals("4", manifest());
+        assertFalse(Files.exists(dir.resolve("Users.txt")));
+    }
+
+    private String manifest() throws IOException {
+        return new String(Files.readAllBytes(dir.resolve("Users.shards")), StandardCharsets.UTF_8).trim();
+    }
+
+    private static Map<String, String> describe(CustomerShard[] shards) {
+        Map<String, String> described = new TreeMap<>();
+        for (CustomerShard shard : shards) {
+            for (Customer c : shard.customers.values()) {
+                described.put(c.getUsername(), c.getPassword() + "|" + c.getBalanceCents() + "|" + c.getPoints()
+                        + "|" + c.getVersion());
+            }
+        }
+        return described;
+    }
+}
@@ -0,0 +1,164 @@
+package BookStore.database;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks that commits arriving during a flush share the next one, and that a failed flush
+ * fails every caller in its batch without blocking later commits.
+ */
+class GroupCommitterTest {
+    private static final int WAITERS = 5;
+
+    @Test
+    void commitsDuringAFlushShareTheNextFlush() throws Exception {
+        AtomicInteger flushes = new AtomicInteger();
+        CountDownLatch firstStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        GroupCommitter committer = new GroupCommitter(() -> {
+            if (flushes.incrementAndGet() == 1) {
+                firstStarted.countDown();
+                await(releaseFirst);
+            }
+        }, 0);
+
+        List<Throwable> errors = new ArrayList<>();
+        Thread leader = start(committer, errors);
+        assertTrue(firstStarted.await(5, TimeUnit.SECONDS));
+        List<Thread> waiters = new ArrayList<>();
+        for (int i = 0; i < WAITERS; i++) {
+            waiters.add(start(committer, errors));
+        }
+        for (Thread waiter : waiters) {
+            awaitBlocked(waiter);
+        }
+        releaseFirst.countDown();
+
+        leader.join(5000);
+        for (Thread waiter : waiters) {
+            waiter.join(5000);
+        }
+        assertTrue(errors.isEmpty(), errors.toString());
+        assertEquals(2, flushes.get()); // The first flush, then one for all the waiters
+    }
+
+    @Test
+    void failedFlushFailsEveryCallerInItsBatch() throws Exception {
+        CountDownLatch firstStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        AtomicInteger flushes = new AtomicInteger();
+        GroupCommitter committer = new GroupCommitter(() -> {
+            if (flushes.incrementAndGet() == 1) {
+                firstStarted.countDown();
+                await(releaseFirst);
+                return;
+            }
+            throw new IOException("disk full");
+        }, 0);
+
+        List<Throwable> errors = new ArrayList<>();
+        Thread leader = start(committer, errors);
+        assertTrue(firstStarted.await(5, TimeUnit.SECONDS));
+        List<Thread> waiters = new ArrayList<>();
+        for (int i = 0; i < WAITERS; i++) {
+            waiters.add(start(committer, errors));
+        }
+        for (Thread waiter : waiters) {
+            awaitBlocked(waiter);
+        }
+        releaseFirst.countDown();
+
+        leader.join(5000);
+        for (Thread waiter : waiters) {
+            waiter.join(5000);
+        }
+        assertEquals(WAITERS, errors.size());
+        for (Throwable error : errors) {
+            assertEquals("disk full", error.getMessage());
+        }
+    }
+
+    @Test
+    void uncheckedFlushFailureEndsTheBatch() throws Exception {
+        CountDownLatch firstStarted = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        AtomicInteger flushes = new AtomicInteger();
+        GroupCommitter committer = new GroupCommitter(() -> {
+            int flush = flushes.incrementAndGet();
+            if (flush == 1) {
+                firstStarted.countDown();
+                await(releaseFirst);
+            } else if (flush == 2) {
+                throw new IllegalStateException("flush bug");
+            }
+        }, 0);
+
+        List<Throwable> errors = new ArrayList<>();
+        Thread leader = start(committer, errors);
+        assertTrue(firstStarted.await(5, TimeUnit.SECONDS));
+        List<Thread> waiters = new ArrayList<>();
+        for (int i = 0; i < WAITERS; i++) {
+            waiters.add(start(committer, errors));
+        }
+        for (Thread waiter : waiters) {
+            awaitBlocked(waiter);
+        }
+        releaseFirst.countDown();
+
+        leader.join(5000);
+        for (Thread waiter : waiters) {
+            waiter.join(5000);
+            assertFalse(waiter.isAlive());
+        }
+        assertEquals(WAITERS, errors.size());
+        for (Throwable error : errors) {
+            assertEquals("flush bug", error.getMessage());
+        }
+        assertTimeoutPreemptively(Duration.ofSeconds(5), committer::commit); // Not stuck behind the failed batch
+        assertEquals(3, flushes.get());
+    }
+
+    private static Thread start(GroupCommitter committer, List<Throwable> errors) {
+        Thread thread = new Thread(() -> {
+            try {
+                committer.commit();
+            } catch (IOException | RuntimeException e) {
+                synchronized (errors) {
+                    errors.add(e);
+                }
+            }
+        });
+        thread.start();
+        return thread;
+    }
+
+    /**
+     * Waits until the thread is parked waiting for the running flush.
+     */
+    private static void awaitBlocked(Thread thread) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (thread.getState() != Thread.State.WAITING && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(Thread.State.WAITING, thread.getState());
+    }
+
+    private static void await(CountDownLatch latch) throws IOException {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw new IOException(e);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package BookStore.database;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import BookStore.models.Book;
+import BookStore.models.Customer;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Checks that the buffered, mapped and parallel loaders read the same files the same way,
+ * including which damaged lines they skip.
+ */
+class LoaderParityTest {
+    private static final String[] MODES = {"buffered", "mapped", "parallel"};
+
+    private static final String BOOKS = String.join("\n",
+            "Dune,9.99",
+            "  Spaced Title , 12.5 ",
+            "Bad Price,abc",
+            "Signed Price,+5",
+            "Too,Many,Fields",
+            "No Price",
+            "",
+            "Exponent,1.0E2",
+            "Half Up,1.005",
+            "Trailing Commas,3.00,,",
+            ",4.00",
+            "Windows Line,7.25\r",
+            "Last Line Without Newline,1");
+
+    private static final String CUSTOMERS = String.join("\n",
+            "alice,pw,10.50,3,2",
+            "bob,pw,+5,+7",
+            "carol,pw,1.00,x",
+            "dave,pw,1.00,2,bad",
+            "erin,pw,1.00,2,+4",
+            "frank,pw, 2.5 ,0",
+            "short,pw,1",
+            "gina,pw,1.00,99999999999",
+            "hank,pw,1.00,2,,",
+            "ivan,pw,1.00,2,5,extra",
+            "judy,pw,1.00,2,",
+            "alice,pw2,11.00,4,3");
+
+    @TempDir
+    Path dir;
+
+    @AfterEach
+    void clearLoaderMode() {
+        System.clearProperty("bookstore.loader");
+    }
+
+    @Test
+    void booksMatchAcrossLoaders() throws IOException {
+        Path file = dir.resolve("Books.txt");
+        Files.write(file, BOOKS.getBytes(StandardCharsets.UTF_8));
+
+        List<String> expected = List.of("Dune|999", "Spaced Title|1250", "Signed Price|500",
+                "Exponent|10000", "Half Up|101", "Trailing Commas|300", "|400", "Windows Line|725",
+                "Last Line Without Newline|100");
+        for (String mode : MODES) {
+            System.setProperty("bookstore.loader", mode);
+            assertEquals(expected, describeBooks(BookTextFile.read(file)), mode);
+        }
+    }
+
+    @Test
+    void customersMatchAcrossLoaders() throws IOException {
+        Path base = dir.resolve("Users.txt");
+        Files.write(base, CUSTOMERS.getBytes(StandardCharsets.UTF_8));
+
+        Map<String, String> expected = new TreeMap<>(Map.of(
+                "alice", "pw2|1100|4|3",
+                "bob", "pw|500|7|0",
+                "erin", "pw|100|2|4",
+                "frank", "pw|250|0|0",
+                "hank", "pw|100|2|0",
+                "ivan", "pw|100|2|5",
+                "judy", "pw|100|2|0"));
+        for (String mode : MODES) {
+            System.setProperty("bookstore.loader", mode);
+            CustomerJournal journal = new CustomerJournal(base.toString(), dir.resolve("Users.log").toString());
+            assertEquals(expected, describeCustomers(journal.load()), mode);
+        }
+    }
+
+    private static List<String> describeBooks(List<Book> books) {
+        List<String> described = new ArrayList<>();
+        for (Book book : books) {
+            described.add(book.getTitle() + "|" + book.getPriceCents());
+        }
+        return described;
+    }
+
+    private static Map<String, String> describeCustomers(Map<String, Customer> customers) {
+        Map<String, String> described = new TreeMap<>();
+        for (Customer c : customers.values()) {
+            described.put(c.getUsername(), c.getPassword() + "|" + c.getBalanceCents() + "|" + c.getPoints()
+                    + "|" + c.getVersion());
+        }
+        return described;
+    }
+}
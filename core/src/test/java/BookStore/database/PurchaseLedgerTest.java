@@ -0,0 +1,126 @@
+package BookStore.database;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import BookStore.models.Purchase;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Checks that the ledger's per-customer index answers recent and as-of queries, is rebuilt the
+ * same from the file, that a torn last line is cut off, and that a failed append does not stop
+ * later ones.
+ */
+class PurchaseLedgerTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void indexesPurchasesByCustomer() throws InterruptedException {
+        PurchaseLedger ledger = new PurchaseLedger(dir.resolve("Purchases.ledger"));
+        Purchase a1 = append(ledger, "alice", 1000);
+        Purchase b1 = append(ledger, "bob", 200);
+        Purchase a2 = append(ledger, "alice", 300);
+        Purchase a3 = append(ledger, "alice", 50);
+
+        assertEquals(List.of(0L, 1L, 2L, 3L), List.of(a1.getOrderId(), b1.getOrderId(), a2.getOrderId(),
+                a3.getOrderId()));
+        assertEquals(List.of(a3.getOrderId(), a2.getOrderId()), orderIds(ledger.recent("alice", 2)));
+        assertEquals(List.of(b1.getOrderId()), orderIds(ledger.recent("bob", 10)));
+        assertEquals(List.of(), ledger.recent("carol", 10));
+
+        assertNull(ledger.asOf("alice", a1.getTimestamp() - 1));
+        assertEquals(a1.getOrderId(), ledger.asOf("alice", a1.getTimestamp()).getOrderId());
+        assertEquals(a2.getOrderId(), ledger.asOf("alice", a3.getTimestamp() - 1).getOrderId());
+        assertEquals(a3.getOrderId(), ledger.asOf("alice", Long.MAX_VALUE).getOrderId());
+        assertTrue(ledger.flush(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void reopeningRebuildsTheSameIndex() throws InterruptedException {
+        Path file = dir.resolve("Purchases.ledger");
+        PurchaseLedger ledger = new PurchaseLedger(file);
+        Purchase a1 = append(ledger, "alice", 1000);
+        append(ledger, "bob", 200);
+        Purchase a2 = append(ledger, "alice", 300);
+        assertTrue(ledger.flush(5, TimeUnit.SECONDS));
+
+        PurchaseLedger reopened = new PurchaseLedger(file);
+        List<Purchase> recent = reopened.recent("alice", 10);
+        assertEquals(List.of(a2.getOrderId(), a1.getOrderId()), orderIds(recent));
+        Purchase read = recent.get(0);
+        assertEquals(300, read.getCashCents());
+        assertEquals(Map.of("Dune, Part 2", 2), read.getItems());
+        assertEquals(a2.getTimestamp(), read.getTimestamp());
+        assertEquals(3, append(reopened, "bob", 1).getOrderId());
+    }
+
+    @Test
+    void seesPurchasesAppendedThroughAnotherLedger() throws InterruptedException {
+        Path file = dir.resolve("Purchases.ledger");
+        PurchaseLedger first = new PurchaseLedger(file);
+        PurchaseLedger second = new PurchaseLedger(file);
+        Purchase a1 = append(first, "alice", 1000);
+        Purchase a2 = append(second, "alice", 300);
+
+        assertEquals(a1.getOrderId() + 1, a2.getOrderId());
+        assertEquals(List.of(a2.getOrderId(), a1.getOrderId()), orderIds(first.recent("alice", 10)));
+    }
+
+    @Test
+    void tornLastLineIsCutOff() throws IOException, InterruptedException {
+        Path file = dir.resolve("Purchases.ledger");
+        PurchaseLedger ledger = new PurchaseLedger(file);
+        append(ledger, "alice", 1000);
+        assertTrue(ledger.flush(5, TimeUnit.SECONDS));
+        long length = Files.size(file);
+        Files.write(file, "1,17,bob,2.0".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        PurchaseLedger reopened = new PurchaseLedger(file);
+        assertEquals(length, Files.size(file));
+        assertEquals(List.of(), reopened.recent("bob", 10));
+        assertEquals(1, append(reopened, "bob", 5).getOrderId());
+        assertEquals(1, reopened.recent("bob", 10).size());
+    }
+
+    @Test
+    void reopensAfterAnInterruptClosesTheFile() throws InterruptedException {
+        PurchaseLedger ledger = new PurchaseLedger(dir.resolve("Purchases.ledger"));
+        Purchase a1 = append(ledger, "alice", 1000);
+        assertTrue(ledger.flush(5, TimeUnit.SECONDS)); // Nothing left for the forcing thread
+
+        Thread.currentThread().interrupt(); // Closes the channel under the next append
+        assertNull(ledger.append(new Purchase("alice", Map.of(), 1, 0, 0, 0, 0)));
+        assertTrue(Thread.interrupted());
+
+        Purchase a2 = append(ledger, "alice", 300);
+        assertEquals(a1.getOrderId() + 1, a2.getOrderId());
+        assertEquals(List.of(a2.getOrderId(), a1.getOrderId()), orderIds(ledger.recent("alice", 10)));
+        assertTrue(ledger.flush(5, TimeUnit.SECONDS));
+    }
+
+    private static Purchase append(PurchaseLedger ledger, String username, long cashCents)
+            throws InterruptedException {
+        Thread.sleep(2); // Distinct timestamps, so as-of queries can tell purchases apart
+        return ledger.append(new Purchase(username, Map.of("Dune, Part 2", 2), cashCents, 0, 1, 10_000 - cashCents, 1));
+    }
+
+    private static List<Long> orderIds(List<Purchase> purchases) {
+        List<Long> ids = new ArrayList<>();
+        for (Purchase purchase : purchases) {
+            ids.add(purchase.getOrderId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,97 @@
+package BookStore.database;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import BookStore.models.Customer;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks the SQL storage's compare-and-swap path: a write based on a stale version is refused
+ * and leaves the row alone, and every accepted change bumps the version.
+ *
+ * Uses the in-memory H2 database the build points bookstore.jdbc.url at.
+ */
+class SqlStorageTest {
+    private static final String USERNAME = "cas-user";
+
+    private final SqlStorage storage = SqlStorage.get();
+
+    @BeforeEach
+    void addCustomer() {
+        storage.removeCustomer(USERNAME);
+        storage.putCustomer(new Customer(USERNAME, "pw", 1000));
+    }
+
+    @Test
+    void staleCompareAndPutIsRefused() {
+        Customer first = storage.getCustomer(USERNAME);
+        Customer second = storage.getCustomer(USERNAME);
+        assertEquals(first.getVersion(), second.getVersion());
+
+        first.setBalanceCents(700);
+        assertTrue(storage.compareAndPutCustomer(first));
+        second.setBalanceCents(1);
+        assertFalse(storage.compareAndPutCustomer(second));
+
+        Customer stored = storage.getCustomer(USERNAME);
+        assertEquals(700, stored.getBalanceCents());
+        assertEquals(first.getVersion() + 1, stored.getVersion());
+    }
+
+    @Test
+    void retryWithTheNewVersionSucceeds() {
+        Customer stale = storage.getCustomer(USERNAME);
+        Customer winner = storage.getCustomer(USERNAME);
+        winner.setPoints(5);
+        assertTrue(storage.compareAndPutCustomer(winner));
+
+        stale.setBalanceCents(500);
+        assertFalse(storage.compareAndPutCustomer(stale));
+        Customer fresh = storage.getCustomer(USERNAME);
+        fresh.setBalanceCents(500);
+        assertTrue(storage.compareAndPutCustomer(fresh));
+
+        Customer stored = storage.getCustomer(USERNAME);
+        assertEquals(500, stored.getBalanceCents());
+        assertEquals(5, stored.getPoints());
+        assertEquals(stale.getVersion() + 2, stored.getVersion());
+    }
+
+    @Test
+    void modifyBumpsTheVersionAndRejectionsChangeNothing() {
+        long version = storage.getCustomer(USERNAME).getVersion();
+
+        assertTrue(storage.modifyCustomer(USERNAME, c -> {
+            c.setBalanceCents(c.getBalanceCents() - 250);
+            return true;
+        }));
+        assertFalse(storage.modifyCustomer(USERNAME, c -> false));
+        assertFalse(storage.modifyCustomer("no-such-user", c -> true));
+
+        Customer stored = storage.getCustomer(USERNAME);
+        assertEquals(750, stored.getBalanceCents());
+        assertEquals(version + 1, stored.getVersion());
+    }
+
+    @Test
+    void batchAppliesChangesInOrder() {
+        Predicate<Customer> pay = c -> {
+            if (c.getBalanceCents() < 600) {
+                return false;
+            }
+            c.setBalanceCents(c.getBalanceCents() - 600);
+            return true;
+        };
+        boolean[] accepted = storage.modifyCustomers(List.of(Map.entry(USERNAME, pay), Map.entry(USERNAME, pay)));
+
+        assertTrue(accepted[0]);
+        assertFalse(accepted[1]); // Sees the first payment's balance
+        assertEquals(400, storage.getCustomer(USERNAME).getBalanceCents());
+    }
+}
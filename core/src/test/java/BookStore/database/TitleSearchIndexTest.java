@@ -0,0 +1,72 @@
+package BookStore.database;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks that prefix queries return exactly the titles and words in the prefix's key range,
+ * best rank first.
+ */
+class TitleSearchIndexTest {
+    private static final List<String> TITLES = List.of(
+            "Harry Potter",          // 0
+            "Harrow Hill",           // 1
+            "Harry",                 // 2
+            "The Harry Chronicles",  // 3
+            "Harrz Zone",            // 4
+            "Dune",                  // 5
+            "Potter's Field");       // 6
+
+    private final TitleSearchIndex index = new TitleSearchIndex();
+
+    @BeforeEach
+    void indexTitles() {
+        for (int i = 0; i < TITLES.size(); i++) {
+            index.add(i, TITLES.get(i));
+        }
+    }
+
+    @Test
+    void exactTitleComesFirstThenPrefixesInOrder() {
+        // "harry" exactly, then "harry potter"; "harrz zone" sorts just past the range
+        assertEquals(List.of(2L, 0L, 3L), search("harry", 10));
+    }
+
+    @Test
+    void prefixRangeStopsAtTheNextKey() {
+        assertEquals(List.of(1L, 2L, 0L, 4L), search("Harr", 4));
+        assertEquals(List.of(1L, 2L, 0L, 4L, 3L), search("Harr", 10));
+        assertEquals(List.of(4L), search("harrz", 10));
+        assertEquals(List.of(), search("harrza", 10));
+    }
+
+    @Test
+    void matchesWordPrefixesAnywhereInTheTitle() {
+        assertEquals(List.of(6L, 0L), search("pot", 10));
+        assertEquals(List.of(0L), search("pot har", 10));
+        assertEquals(List.of(3L), search("chron", 10));
+    }
+
+    @Test
+    void ignoresCaseAndRespectsTheLimit() {
+        assertEquals(search("harry", 10), search("HARRY", 10));
+        assertEquals(List.of(2L), search("harry", 1));
+        assertEquals(List.of(), search("harry", 0));
+        assertEquals(List.of(), search("   ", 10));
+    }
+
+    @Test
+    void removedTitlesAreNoLongerFound() {
+        index.remove(0, TITLES.get(0));
+        assertEquals(List.of(2L, 3L), search("harry", 10));
+        assertEquals(List.of(6L), search("pot", 10));
+    }
+
+    private List<Long> search(String query, int limit) {
+        return new ArrayList<>(index.search(query, limit, sequence -> TITLES.get((int) sequence)));
+    }
+}
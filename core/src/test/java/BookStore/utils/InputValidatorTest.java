@@ -0,0 +1,50 @@
+package BookStore.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import BookStore.models.Book;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks that title keys are equal exactly when equalsIgnoreCase says the titles are, and that
+ * batch duplicate checks catch titles already in the catalog and repeats within the batch.
+ */
+class InputValidatorTest {
+    private static final List<String> TITLES = List.of(
+            "Dune", "DUNE", "dune", "Dune ", "Emma",
+            "STRASSE", "straße",      // Differ under equalsIgnoreCase; ß has no one-char upper case
+            "İstanbul", "istanbul",   // Dotted capital I lower-cases to a plain i
+            "ǅ", "ǆ", "Ǆ",            // Title-case, lower and upper forms of one letter
+            "Ωmega", "ωMEGA", "");
+
+    @Test
+    void titleKeysAgreeWithEqualsIgnoreCase() {
+        for (String a : TITLES) {
+            for (String b : TITLES) {
+                assertEquals(a.equalsIgnoreCase(b),
+                        InputValidator.titleKey(a).equals(InputValidator.titleKey(b)), a + " vs " + b);
+            }
+        }
+    }
+
+    @Test
+    void duplicateTitlesChecksTheCatalogAndTheBatch() {
+        List<Book> books = List.of(new Book("Dune", 1000), new Book("Emma", 800));
+        List<String> batch = List.of("dune", "Walden", " emma ", "walden", "Ulysses", "WALDEN");
+
+        assertEquals(List.of("dune", " emma ", "walden", "WALDEN"), InputValidator.duplicateTitles(books, batch));
+        assertEquals(List.of(), InputValidator.duplicateTitles(books, List.of()));
+        assertEquals(List.of("Walden"), InputValidator.duplicateTitles(List.of(), List.of("Walden", "Walden")));
+    }
+
+    @Test
+    void bothOverloadsAgree() {
+        List<Book> books = List.of(new Book("Dune", 1000), new Book("Emma", 800));
+        List<String> batch = List.of("DUNE", "Walden", "walden ", "Emma", "Ulysses");
+
+        assertEquals(InputValidator.duplicateTitles(books, batch),
+                InputValidator.duplicateTitles(batch, title -> title.equalsIgnoreCase("Dune")
+                        || title.equalsIgnoreCase("Emma")));
+    }
+}
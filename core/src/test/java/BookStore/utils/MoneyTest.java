@@ -0,0 +1,76 @@
+package BookStore.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks that amounts are parsed to the cent, rounded half-up, and formatted back unchanged.
+ */
+class MoneyTest {
+    @Test
+    void parsesPlainAmounts() {
+        assertEquals(1999, Money.parse("19.99"));
+        assertEquals(2000, Money.parse("20"));
+        assertEquals(2050, Money.parse("20.5"));
+        assertEquals(50, Money.parse(".5"));
+        assertEquals(500, Money.parse("5."));
+        assertEquals(0, Money.parse("0.00"));
+    }
+
+    @Test
+    void parsesSignsAndSurroundingSpaces() {
+        assertEquals(-5, Money.parse("-0.05"));
+        assertEquals(500, Money.parse("+5"));
+        assertEquals(1250, Money.parse("  12.50 \t"));
+    }
+
+    @Test
+    void parsesAmountsWrittenAsDoubles() {
+        assertEquals(2000, Money.parse("20.0"));
+        assertEquals(38701, Money.parse("387.01000000000005"));
+        assertEquals(1_000_000_000, Money.parse("1.0E7"));
+    }
+
+    @Test
+    void roundsExtraFractionDigitsHalfUp() {
+        assertEquals(101, Money.parse("1.005"));
+        assertEquals(100, Money.parse("1.004999"));
+        assertEquals(-101, Money.parse("-1.005"));
+        assertEquals(13, Money.parse("0.125"));
+    }
+
+    @Test
+    void rejectsWhatIsNotAnAmount() {
+        assertThrows(NumberFormatException.class, () -> Money.parse("abc"));
+        assertThrows(NumberFormatException.class, () -> Money.parse(""));
+        assertThrows(NumberFormatException.class, () -> Money.parse("+"));
+        assertThrows(NumberFormatException.class, () -> Money.parse("1e400"));
+    }
+
+    @Test
+    void formatsWithTwoFractionDigits() {
+        assertEquals("19.99", Money.format(1999));
+        assertEquals("20.00", Money.format(2000));
+        assertEquals("0.05", Money.format(5));
+        assertEquals("-0.05", Money.format(-5));
+        assertEquals("-12.30", Money.format(-1230));
+    }
+
+    @Test
+    void parseUndoesFormat() {
+        long[] amounts = {0, 1, -1, 99, 100, 123456789, -987654321, Long.MAX_VALUE, Long.MIN_VALUE + 1};
+        for (long cents : amounts) {
+            assertEquals(cents, Money.parse(Money.format(cents)), Money.format(cents));
+        }
+    }
+
+    @Test
+    void convertsDollarsAndDoubles() {
+        assertEquals(700, Money.ofDollars(7));
+        assertThrows(ArithmeticException.class, () -> Money.ofDollars(Long.MAX_VALUE));
+        assertEquals(30, Money.fromDouble(0.1 + 0.2));
+        assertEquals(-1999, Money.fromDouble(-19.99));
+    }
+}
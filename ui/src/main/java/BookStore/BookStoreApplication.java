@@ -2,6 +2,7 @@ package BookStore;
 
 import javafx.application.Application;
 import javafx.stage.Stage;
+import BookStore.handlers.AsyncStoreService;
 import BookStore.scenes.SceneManager;
 
 /**
@@ -23,10 +24,12 @@ public class BookStoreApplication extends Application {
      *
      * Requires: A valid Stage is provided by the JavaFX runtime.
      * Modifies: The primaryStage by setting its title and showing the login screen.
-     * Effects: Creates a window with the title "Book Store" and displays the login page.
+     * Effects: Starts loading the book and customer data into memory in the background, then
+     *          creates a window with the title "Book Store" and displays the login page.
      */
     @Override
     public void start(Stage primaryStage) {
+        AsyncStoreService.initialize(); // Read the data files up front, off the JavaFX thread
         SceneManager sceneManager = new SceneManager(primaryStage);
         sceneManager.showLoginScene(); // Start with login screen
         primaryStage.setTitle("Book Store");
@@ -1,32 +1,31 @@
 package BookStore.scenes;
 
-import BookStore.database.DatabaseManager;
-import BookStore.handlers.PaymentHandler;
+import BookStore.handlers.AsyncStoreService;
 import BookStore.handlers.ShoppingCartHandler;
 import BookStore.models.Customer;
+import BookStore.utils.PriceFormatter;
 import javafx.geometry.Pos;
 import javafx.scene.control.*;
 import javafx.scene.layout.VBox;
 
-import java.util.Map;
-
 /**
  * Displays the final cost of books in the cart and allows the customer to make a payment.
  *
  * Abstraction Function:
  * - This scene provides the user interface for final checkout.
  * - The user can choose to pay with cash or redeem points.
+ * - The customer is read and the payment made in the background; the payment buttons are
+ *   disabled while a payment is in progress so it cannot be sent twice.
  *
  * Representation Invariant:
- * - sceneManager, username, paymentHandler, and cartHandler must be initialized.
+ * - sceneManager, username, store, and cartHandler must be initialized.
  * - All UI elements are organized vertically with proper spacing.
  */
 public class CustomerCostScene extends VBox {
     private SceneManager sceneManager;
     private String username;
-    private PaymentHandler paymentHandler;
+    private AsyncStoreService store;
     private ShoppingCartHandler cartHandler;
-    private DatabaseManager dbManager;
 
     /**
      * Constructs the final cost screen where the customer can pay.
@@ -43,27 +42,15 @@ public class CustomerCostScene extends VBox {
         this.sceneManager = sceneManager;
         this.username = username;
         this.cartHandler = cartHandler;
-        this.paymentHandler = new PaymentHandler();
-        this.dbManager = new DatabaseManager();
+        this.store = new AsyncStoreService();
 
         // Load current customer details
-        Map<String, Customer> customers = dbManager.loadCustomers();
-        Customer current = customers.get(username);
-        int points = current.getPoints();
-        double balance = current.getBalance();
-
-        // Determine and display user's reward status
-        String status = "None";
-        if (points >= 200) {
-            status = "Gold";
-        } else if (points >= 100) {
-            status = "Silver";
-        }
-        Label statusLabel = new Label("Status: " + status + ", Points: " + points);
-        Label balanceLabel = new Label("Balance: " + balance);
+        Label statusLabel = new Label("Status: loading...");
+        Label balanceLabel = new Label("Balance: loading...");
+        FxResults.apply(store.getCustomer(username), current -> showCustomer(current, statusLabel, balanceLabel));
         // Show total cost from shopping cart
-        double totalCost = cartHandler.getTotalCost();
-        Label totalCostLabel = new Label("Total Cost: $" + totalCost);
+        long totalCost = cartHandler.getTotalCostCents();
+        Label totalCostLabel = new Label("Total Cost: " + PriceFormatter.formatPrice(totalCost));
 
         // Buttons for payment options
         Button payCashButton = new Button("Pay with Cash");
@@ -75,28 +62,16 @@ public class CustomerCostScene extends VBox {
          * If the balance is enough, complete the purchase, earn points, clear cart, return to customer screen.
          * Otherwise, show an error.
          */
-        payCashButton.setOnAction(e -> {
-            boolean success = paymentHandler.processPayment(username, totalCost, false);
-            showAlert(success ? "Payment successful!" : "Insufficient funds.");
-            if (success) {
-                cartHandler.clearCart();
-                sceneManager.showCustomerScene(username);
-            }
-        });
+        payCashButton.setOnAction(e -> pay(false, "Payment successful!", "Insufficient funds.",
+                payCashButton, payPointsButton));
 
         /**
          * Pay using points first, then use balance if needed.
          * If successful, clear cart and return to main screen.
          * Otherwise, show an error and do not change user data.
          */
-        payPointsButton.setOnAction(e -> {
-            boolean success = paymentHandler.processPayment(username, totalCost, true);
-            showAlert(success ? "Payment with points successful!" : "Insufficient funds/points.");
-            if (success) {
-                cartHandler.clearCart();
-                sceneManager.showCustomerScene(username);
-            }
-        });
+        payPointsButton.setOnAction(e -> pay(true, "Payment with points successful!", "Insufficient funds/points.",
+                payCashButton, payPointsButton));
 
         // Go back to the shopping cart scene
         backButton.setOnAction(e -> sceneManager.showShoppingCartScene(username));
@@ -107,6 +82,57 @@ public class CustomerCostScene extends VBox {
         getChildren().addAll(statusLabel, totalCostLabel, balanceLabel, payCashButton, payPointsButton, backButton);
     }
 
+    /**
+     * Pays for the cart in the background.
+     *
+     * Requires: the cart is not empty
+     * Modifies: customer balance and points, the cart, the active scene
+     * Effects: Disables the payment buttons, pays, and then on the JavaFX thread shows the outcome.
+     *          On success clears the cart and returns to the customer screen. The buttons are
+     *          enabled again once the payment has finished.
+     */
+    private void pay(boolean usePoints, String successMessage, String failureMessage, Button... paymentButtons) {
+        setDisabled(paymentButtons, true);
+        FxResults.apply(store.processPayment(username, cartHandler.getCart(), usePoints), success -> {
+            showAlert(success ? successMessage : failureMessage);
+            if (success) {
+                cartHandler.clearCart();
+                sceneManager.showCustomerScene(username);
+            }
+        }, () -> setDisabled(paymentButtons, false));
+    }
+
+    private static void setDisabled(Button[] buttons, boolean disabled) {
+        for (Button button : buttons) {
+            button.setDisable(disabled);
+        }
+    }
+
+    /**
+     * Shows the customer's status, points and balance.
+     *
+     * Requires: none
+     * Modifies: statusLabel, balanceLabel
+     * Effects: Fills in the labels from current, or says the customer was not found if it is null.
+     */
+    private static void showCustomer(Customer current, Label statusLabel, Label balanceLabel) {
+        if (current == null) {
+            statusLabel.setText("Status: customer not found");
+            balanceLabel.setText("");
+            return;
+        }
+        // Determine and display user's reward status
+        int points = current.getPoints();
+        String status = "None";
+        if (points >= 200) {
+            status = "Gold";
+        } else if (points >= 100) {
+            status = "Silver";
+        }
+        statusLabel.setText("Status: " + status + ", Points: " + points);
+        balanceLabel.setText("Balance: " + PriceFormatter.formatPrice(current.getBalanceCents()));
+    }
+
     /**
      * Shows a message to the user in a pop-up dialog box.
      *
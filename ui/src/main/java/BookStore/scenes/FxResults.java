@@ -0,0 +1,61 @@
+package BookStore.scenes;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import javafx.application.Platform;
+import javafx.scene.control.Alert;
+
+/**
+ * Applies the results of background store operations on the JavaFX Application Thread.
+ *
+ * Abstraction Function:
+ * - A scene starts an operation with AsyncStoreService and hands the future here together with
+ *   what to do with its result; that code then runs with Platform::runLater, where it may touch
+ *   the scene graph.
+ *
+ * Representation Invariant:
+ * - The callbacks always run on the JavaFX Application Thread.
+ * - A failed operation is reported with an error alert instead of being dropped.
+ */
+final class FxResults {
+    private FxResults() {
+    }
+
+    /**
+     * Applies a result once it is ready.
+     *
+     * Requires: future and onResult are not null.
+     * Modifies: whatever onResult changes
+     * Effects: Runs onResult with the result on the JavaFX Application Thread, or shows an error
+     *          alert there if the operation failed.
+     */
+    static <T> void apply(CompletableFuture<T> future, Consumer<T> onResult) {
+        apply(future, onResult, () -> { });
+    }
+
+    /**
+     * Applies a result once it is ready, then runs a final step whether or not it succeeded.
+     *
+     * Requires: future, onResult and always are not null.
+     * Modifies: whatever onResult and always change
+     * Effects: As apply(future, onResult), then runs always on the JavaFX Application Thread,
+     *          e.g. to enable the button that started the operation again.
+     */
+    static <T> void apply(CompletableFuture<T> future, Consumer<T> onResult, Runnable always) {
+        future.whenComplete((result, error) -> Platform.runLater(() -> {
+            try {
+                if (error == null) {
+                    onResult.accept(result);
+                } else {
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null
+                            ? error.getCause() : error;
+                    new Alert(Alert.AlertType.ERROR, "The store could not complete the request: "
+                            + cause.getMessage()).show();
+                }
+            } finally {
+                always.run();
+            }
+        }));
+    }
+}
@@ -6,7 +6,7 @@ import javafx.scene.layout.VBox;
 import javafx.scene.layout.GridPane;
 import javafx.geometry.Insets;
 import javafx.application.Platform;
-import BookStore.handlers.LoginHandler;
+import BookStore.handlers.AsyncStoreService;
 
 /**
  * Login screen where users (Admin or Customer) enter their credentials.
@@ -20,6 +20,7 @@ import BookStore.handlers.LoginHandler;
  */
 public class LoginScene extends VBox {
     private SceneManager sceneManager;
+    private AsyncStoreService store = new AsyncStoreService();
 
     /**
      * Constructs the login screen layout and functionality.
@@ -46,24 +47,24 @@ public class LoginScene extends VBox {
 
         /**
          * Login logic triggered when "Login" button is clicked.
-         * Checks credentials using loginHandler and navigates to the appropriate dashboard.
+         * Checks credentials in the background and navigates to the appropriate dashboard.
          * Shows error alert if login fails.
          */
         loginButton.setOnAction(e -> {
             String username = usernameField.getText();
             String password = passwordField.getText();
 
-            LoginHandler loginHandler = new LoginHandler();
-            String role = loginHandler.validateUser(username, password);
-
-            if (role.equals("owner")) {
-                sceneManager.showOwnerScene(); // Navigate to owner dashboard
-            } else if (role.equals("customer")) {
-                sceneManager.showCustomerScene(username); // Navigate to customer dashboard
-            } else {
-                Alert alert = new Alert(Alert.AlertType.ERROR, "Invalid credentials");
-                alert.showAndWait();  // Updated to block until dismissed
-            }
+            loginButton.setDisable(true); // One check at a time
+            FxResults.apply(store.validateUser(username, password), role -> {
+                if (role.equals("owner")) {
+                    sceneManager.showOwnerScene(); // Navigate to owner dashboard
+                } else if (role.equals("customer")) {
+                    sceneManager.showCustomerScene(username); // Navigate to customer dashboard
+                } else {
+                    Alert alert = new Alert(Alert.AlertType.ERROR, "Invalid credentials");
+                    alert.showAndWait();  // Updated to block until dismissed
+                }
+            }, () -> loginButton.setDisable(false));
         });
 
         /**
@@ -1,25 +1,29 @@
 package BookStore.scenes;
 
-import BookStore.handlers.OwnerHandler;
+import BookStore.handlers.AsyncStoreService;
 import BookStore.utils.InputValidator;
+import BookStore.utils.Money;
 import javafx.geometry.Pos;
 import javafx.scene.control.*;
 import javafx.scene.layout.VBox;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Scene where the owner can manage books: add and remove.
  *
  * Abstraction Function:
  * - Allows the bookstore owner to add new books or remove existing ones.
  * - Validates inputs and shows appropriate alerts for success or errors.
+ * - Changes are saved in the background; each button is disabled until its change is done.
  *
  * Representation Invariant:
- * - sceneManager and ownerHandler must be initialized.
+ * - sceneManager and store must be initialized.
  * - UI layout must remain vertically aligned and user-friendly.
  */
 public class OwnerBookManageScene extends VBox {
     private SceneManager sceneManager;
-    private OwnerHandler ownerHandler;
+    private AsyncStoreService store;
 
     /**
      * Constructs the book management scene for the owner.
@@ -34,7 +38,7 @@ public class OwnerBookManageScene extends VBox {
      */
     public OwnerBookManageScene(SceneManager sceneManager) {
         this.sceneManager = sceneManager;
-        this.ownerHandler = new OwnerHandler();
+        this.store = new AsyncStoreService();
 
         // UI components
         Label title = new Label("Manage Books");
@@ -65,7 +69,7 @@ public class OwnerBookManageScene extends VBox {
                 return;
             }
 
-            double price = Double.parseDouble(priceText);
+            long price = Money.parse(priceText);
 
             // Ensure price is one of the allowed fixed values
             if (!InputValidator.isValidBookPrice(price)) {
@@ -73,13 +77,8 @@ public class OwnerBookManageScene extends VBox {
                 return;
             }
 
-            // Try to add the book using the handler
-            String result = ownerHandler.addBook(bookTitle, price);
-            if (result.contains("successfully")) {
-                showAlert(result);
-            } else {
-                showError(result);
-            }
+            // Try to add the book in the background
+            submit(addBookBtn, store.addBook(bookTitle, price));
         });
 
         /**
@@ -88,12 +87,7 @@ public class OwnerBookManageScene extends VBox {
          */
         removeBookBtn.setOnAction(e -> {
             String bookTitle = titleField.getText();
-            String result = ownerHandler.removeBook(bookTitle);
-            if (result.contains("successfully")) {
-                showAlert(result);
-            } else {
-                showError(result);
-            }
+            submit(removeBookBtn, store.removeBook(bookTitle));
         });
 
         // Go back to the owner's main scene
@@ -108,6 +102,25 @@ public class OwnerBookManageScene extends VBox {
         );
     }
 
+    /**
+     * Runs an owner operation in the background and reports its message.
+     *
+     * Requires: button started the operation
+     * Modifies: button
+     * Effects: Disables button until the operation finishes, then shows its message as
+     *          information if it succeeded or as an error otherwise.
+     */
+    private void submit(Button button, CompletableFuture<String> operation) {
+        button.setDisable(true);
+        FxResults.apply(operation, result -> {
+            if (result.contains("successfully")) {
+                showAlert(result);
+            } else {
+                showError(result);
+            }
+        }, () -> button.setDisable(false));
+    }
+
     /**
      * Displays a popup alert with an information message.
      *
@@ -1,25 +1,29 @@
 package BookStore.scenes;
 
-import BookStore.handlers.OwnerHandler;
+import BookStore.handlers.AsyncStoreService;
 import BookStore.utils.InputValidator;
+import BookStore.utils.Money;
 import javafx.geometry.Pos;
 import javafx.scene.control.*;
 import javafx.scene.layout.VBox;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Scene where the owner can manage users: add, remove, and update balances.
  *
  * Abstraction Function:
  * - Provides a form for the bookstore owner to manage customer accounts.
  * - Allows adding new customers, removing them, or updating their balance.
+ * - Changes are saved in the background; each button is disabled until its change is done.
  *
  * Representation Invariant:
- * - sceneManager and ownerHandler must be initialized.
+ * - sceneManager and store must be initialized.
  * - User input must be validated before applying any changes.
  */
 public class OwnerUserManageScene extends VBox {
     private SceneManager sceneManager;
-    private OwnerHandler ownerHandler;
+    private AsyncStoreService store;
 
     /**
      * Constructs the user management scene for the owner.
@@ -34,7 +38,7 @@ public class OwnerUserManageScene extends VBox {
      */
     public OwnerUserManageScene(SceneManager sceneManager) {
         this.sceneManager = sceneManager;
-        this.ownerHandler = new OwnerHandler();
+        this.store = new AsyncStoreService();
 
         // UI Elements
         Label title = new Label("Manage Users");
@@ -67,14 +71,8 @@ public class OwnerUserManageScene extends VBox {
                 return;
             }
 
-            double balance = Double.parseDouble(balanceText);
-            String result = ownerHandler.addCustomer(username, password, balance);
-
-            if (result.contains("successfully")) {
-                showAlert(result);
-            } else {
-                showError(result);
-            }
+            long balance = Money.parse(balanceText);
+            submit(addUserBtn, store.addCustomer(username, password, balance));
         });
 
         /**
@@ -82,13 +80,7 @@ public class OwnerUserManageScene extends VBox {
          */
         removeUserBtn.setOnAction(e -> {
             String username = usernameField.getText();
-            String result = ownerHandler.removeCustomer(username);
-
-            if (result.contains("successfully")) {
-                showAlert(result);
-            } else {
-                showError(result);
-            }
+            submit(removeUserBtn, store.removeCustomer(username));
         });
 
         /**
@@ -99,14 +91,8 @@ public class OwnerUserManageScene extends VBox {
             String username = usernameField.getText();
             String balanceText = balanceField.getText();
 
-            double balance = Double.parseDouble(balanceText);
-            String result = ownerHandler.adjustCustomerBalance(username, balance);
-            if (result.contains("successfully")) {
-                showAlert(result);
-            } else {
-                showError(result);
-            }
-            
+            long balance = Money.parse(balanceText);
+            submit(updateBalanceBtn, store.adjustCustomerBalance(username, balance));
         });
 
         // Go back to the owner's main dashboard
@@ -121,6 +107,25 @@ public class OwnerUserManageScene extends VBox {
         );
     }
 
+    /**
+     * Runs an owner operation in the background and reports its message.
+     *
+     * Requires: button started the operation
+     * Modifies: button
+     * Effects: Disables button until the operation finishes, then shows its message as
+     *          information if it succeeded or as an error otherwise.
+     */
+    private void submit(Button button, CompletableFuture<String> operation) {
+        button.setDisable(true);
+        FxResults.apply(operation, result -> {
+            if (result.contains("successfully")) {
+                showAlert(result);
+            } else {
+                showError(result);
+            }
+        }, () -> button.setDisable(false));
+    }
+
     /**
      * Shows a popup message with informational feedback.
      *
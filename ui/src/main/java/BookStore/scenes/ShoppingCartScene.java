@@ -0,0 +1,351 @@
+package BookStore.scenes;
+
+import BookStore.database.CatalogListener;
+import BookStore.handlers.AsyncStoreService;
+import BookStore.handlers.ShoppingCartHandler;
+import BookStore.models.Book;
+import BookStore.models.CartItem;
+import BookStore.models.Customer;
+import BookStore.utils.PriceFormatter;
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.geometry.Pos;
+import javafx.scene.control.*;
+import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.VBox;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Displays the shopping cart and allows customers to manage selected books.
+ *
+ * Abstraction Function:
+ * - This scene shows available books and the user's shopping cart.
+ * - Customers can search the catalog, add or remove books and proceed to checkout.
+ * - The customer and the books are read in the background; the labels and the book table show
+ *   placeholders until they arrive.
+ *
+ * Representation Invariant:
+ * - cartHandler must be initialized and shared across relevant scenes.
+ * - All UI elements must remain aligned and updated after every change.
+ * - booksRequest numbers the book table requests; only the latest one is shown, so a slow page
+ *   or search never replaces the results of one started after it.
+ */
+public class ShoppingCartScene extends VBox {
+    private SceneManager sceneManager;
+    private String username;
+    private ShoppingCartHandler cartHandler;
+    private AsyncStoreService store;
+    private static final int PAGE_SIZE = 100;
+    private int page = 0;
+    private long booksRequest = 0;
+    private final Label booksPlaceholder = new Label("Loading books...");
+    private CatalogListener catalogListener; // Held here because the database only keeps a weak reference
+
+    /**
+     * Constructs the scene that allows customers to manage their cart.
+     *
+     * Requires: username exists in the system, cartHandler is shared
+     * Modifies: Scene view, cart contents
+     * Effects: Starts loading customer status and the first page of books, allows adding/removing, and continues to checkout
+     *
+     * @param sceneManager Scene navigation controller.
+     * @param username The logged-in customer's username.
+     * @param cartHandler Shared handler for managing cart items.
+     */
+    public ShoppingCartScene(SceneManager sceneManager, String username, ShoppingCartHandler cartHandler) {
+        this.sceneManager = sceneManager;
+        this.username = username;
+        this.cartHandler = cartHandler;
+        this.store = new AsyncStoreService();
+
+        // Load customer info and points to determine status
+        Label statusLabel = new Label("Status: loading...");
+        Label balanceLabel = new Label("Balance: loading...");
+        FxResults.apply(store.getCustomer(username), current -> showCustomer(current, statusLabel, balanceLabel));
+        Label titleLabel = new Label("Available Books");
+        
+
+        // Set up the book table
+        TableView<Book> bookTable = new TableView<>();
+        TableColumn<Book, String> titleCol = new TableColumn<>("Title");
+        TableColumn<Book, Book> priceCol = priceColumn("Price", Book::getPriceCents);
+        titleCol.setCellValueFactory(new PropertyValueFactory<>("title"));
+        bookTable.getColumns().addAll(titleCol, priceCol);
+        bookTable.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
+        bookTable.setPlaceholder(booksPlaceholder);
+
+        // Show the catalog one page at a time so a large catalog is never loaded whole
+        ObservableList<Book> observableBooks = FXCollections.observableArrayList();
+        bookTable.setItems(observableBooks);
+        Label pageLabel = new Label();
+        Button prevPageBtn = new Button("Previous Page");
+        Button nextPageBtn = new Button("Next Page");
+        loadPage(observableBooks, pageLabel);
+
+        // Search titles as the customer types; clearing the box goes back to paging
+        TextField searchField = new TextField();
+        searchField.setPromptText("Search titles");
+        searchField.textProperty().addListener((obs, oldText, newText) -> {
+            boolean searching = !newText.trim().isEmpty();
+            prevPageBtn.setDisable(searching);
+            nextPageBtn.setDisable(searching);
+            showBooks(observableBooks, pageLabel, newText);
+        });
+
+        // Pick up books added, removed or re-priced by another program without reloading the scene
+        catalogListener = delta -> Platform.runLater(() -> {
+            showBooks(observableBooks, pageLabel, searchField.getText());
+            bookTable.refresh();
+        });
+        FxResults.apply(store.addCatalogListener(catalogListener), done -> { });
+
+        prevPageBtn.setOnAction(e -> {
+            if (page > 0) {
+                page--;
+                loadPage(observableBooks, pageLabel);
+            }
+        });
+
+        nextPageBtn.setOnAction(e -> {
+            // Only move on if the current page was full, i.e. there may be more books
+            if (observableBooks.size() == PAGE_SIZE) {
+                page++;
+                loadPage(observableBooks, pageLabel);
+            }
+        });
+
+        HBox pageControls = new HBox(10, prevPageBtn, pageLabel, nextPageBtn);
+        pageControls.setAlignment(Pos.CENTER);
+
+        // Highlight books in red if they’re already in the cart
+        bookTable.setRowFactory(tv -> new TableRow<>() {
+            @Override
+            protected void updateItem(Book book, boolean empty) {
+                super.updateItem(book, empty);
+                if (book == null || empty) {
+                    setStyle("");
+                } else if (cartHandler.contains(book)) {
+                    setStyle("-fx-text-fill: red;");
+                } else {
+                    setStyle("-fx-text-fill: black;");
+                }
+            }
+        });
+
+        Button addToCartBtn = new Button("Add to Cart");
+
+        // Cart display section
+        Label cartLabel = new Label("Your Cart");
+        TableView<CartItem> cartTable = new TableView<>();
+        TableColumn<CartItem, String> cartTitleCol = new TableColumn<>("Title");
+        TableColumn<CartItem, Integer> cartQuantityCol = new TableColumn<>("Qty");
+        TableColumn<CartItem, CartItem> cartPriceCol = priceColumn("Price", CartItem::getLineTotalCents);
+        cartTitleCol.setCellValueFactory(new PropertyValueFactory<>("title"));
+        cartQuantityCol.setCellValueFactory(new PropertyValueFactory<>("quantity"));
+        cartTable.getColumns().addAll(cartTitleCol, cartQuantityCol, cartPriceCol);
+        cartTable.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
+        ObservableList<CartItem> cartItems = FXCollections.observableArrayList(cartHandler.getCartItems());
+        cartTable.setItems(cartItems);
+        
+        Label cartTotalLabel = new Label("Cart Total: $0.00");
+        
+        updateCartTotal(cartTotalLabel);
+
+        Button removeFromCartBtn = new Button("Remove from Cart");
+        Button viewCartBtn = new Button("Checkout");
+        Button backBtn = new Button("Back");
+
+        /**
+         * Adds the selected book from the table to the cart.
+         * Refreshes both tables to reflect changes.
+         */
+        addToCartBtn.setOnAction(e -> {
+            Book selected = bookTable.getSelectionModel().getSelectedItem();
+            if (selected != null) {
+                cartHandler.addBook(selected);
+                showAlert("Book added to cart!");
+                cartItems.setAll(cartHandler.getCartItems());
+                bookTable.refresh();
+                cartTable.refresh();
+                updateCartTotal(cartTotalLabel);
+                bookTable.getSelectionModel().clearSelection();
+            }
+        });
+
+        /**
+         * Removes one copy of the selected book from the cart.
+         * Refreshes both tables to reflect changes.
+         */
+        removeFromCartBtn.setOnAction(e -> {
+            CartItem selected = cartTable.getSelectionModel().getSelectedItem();
+            if (selected != null) {
+                cartHandler.removeBook(selected.getBook());
+                showAlert("Book removed from cart.");
+                cartItems.setAll(cartHandler.getCartItems());
+                bookTable.refresh();
+                cartTable.refresh();
+                updateCartTotal(cartTotalLabel);
+                cartTable.getSelectionModel().clearSelection();
+            }
+        });
+
+        // Navigate to checkout screen
+        viewCartBtn.setOnAction(e -> {
+            if (cartHandler.getCartItems().isEmpty()){
+                showAlert("Your cart is empty. Please add books before checkout");
+            }
+            else {
+                sceneManager.showCustomerCostScene(username);
+            }
+        });
+                
+                
+
+        // Return to customer dashboard
+        backBtn.setOnAction(e -> sceneManager.showCustomerScene(username));
+
+        // Layout styling
+        setAlignment(Pos.CENTER);
+        setSpacing(10);
+        getChildren().addAll(
+                statusLabel,
+                balanceLabel,
+                titleLabel,
+                searchField,
+                bookTable,
+                pageControls,
+                addToCartBtn,
+                cartLabel,
+                cartTable,
+                cartTotalLabel,
+                removeFromCartBtn,
+                viewCartBtn,
+                backBtn
+        );
+    }
+    
+    /**
+     * Shows the customer's status, points and balance.
+     *
+     * Requires: none
+     * Modifies: statusLabel, balanceLabel
+     * Effects: Fills in the labels from current, or says the customer was not found if it is null.
+     */
+    private static void showCustomer(Customer current, Label statusLabel, Label balanceLabel) {
+        if (current == null) {
+            statusLabel.setText("Status: customer not found");
+            balanceLabel.setText("");
+            return;
+        }
+        int points = current.getPoints();
+        String status = "None";
+        if (points >= 200) {
+            status = "Gold";
+        } else if (points >= 100) {
+            status = "Silver";
+        }
+        statusLabel.setText("Status: " + status + ", Points: " + points);
+        balanceLabel.setText("Balance: " + PriceFormatter.formatPrice(current.getBalanceCents()));
+    }
+
+    /**
+     * Shows either the search results for query or, when it is blank, the current page.
+     *
+     * Requires: query is not null
+     * Modifies: items, pageLabel
+     * Effects: Starts fetching matching books or the current page and fills the book table with
+     *          them when they arrive.
+     *
+     * @param items The list shown in the book table.
+     * @param pageLabel The label showing the current page or the number of matches.
+     * @param query The text in the search box.
+     */
+    private void showBooks(ObservableList<Book> items, Label pageLabel, String query) {
+        if (query.trim().isEmpty()) {
+            loadPage(items, pageLabel);
+        } else {
+            showWhenLoaded(store.searchBooks(query, PAGE_SIZE), items, pageLabel, results -> results.size() + " matching books");
+        }
+    }
+
+    /**
+     * Replaces the table contents with the current page of books.
+     *
+     * Requires: page ≥ 0
+     * Modifies: items, pageLabel
+     * Effects: Starts fetching only the books on this page and shows them with the page number
+     *          when they arrive.
+     *
+     * @param items The list shown in the book table.
+     * @param pageLabel The label showing the current page.
+     */
+    private void loadPage(ObservableList<Book> items, Label pageLabel) {
+        int shown = page;
+        showWhenLoaded(store.loadBooksPage((long) shown * PAGE_SIZE, PAGE_SIZE), items, pageLabel, results -> "Page " + (shown + 1));
+    }
+
+    /**
+     * Fills the book table with the books a request returns, unless a newer request was made meanwhile.
+     */
+    private void showWhenLoaded(CompletableFuture<List<Book>> books, ObservableList<Book> items, Label pageLabel,
+                                Function<List<Book>, String> caption) {
+        long request = ++booksRequest;
+        FxResults.apply(books, results -> {
+            if (request == booksRequest) {
+                items.setAll(results);
+                pageLabel.setText(caption.apply(results));
+                booksPlaceholder.setText("No books to show");
+            }
+        });
+    }
+
+    /**
+     * Updates the cart total label with the current total price of all items.
+     *
+     * Requires: cartHandler is initialized and contains cart items. 
+     * Modifies: The text of the provided Label. 
+     * Effects: Displays the running total of the cart as formatted currency, with the number of books.
+     *
+     * @param label The Label to display the cart total.
+     */
+    private void updateCartTotal(Label label) {
+        label.setText("Cart Total: " + PriceFormatter.formatPrice(cartHandler.getTotalCostCents())
+                + " (" + cartHandler.getItemCount() + (cartHandler.getItemCount() == 1 ? " book)" : " books)"));
+    }
+
+    /**
+     * Creates a price column that formats each row's amount from cents and sorts by amount,
+     * without boxing a price per cell.
+     */
+    private static <T> TableColumn<T, T> priceColumn(String name, ToLongFunction<T> cents) {
+        TableColumn<T, T> column = new TableColumn<>(name);
+        column.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(cell.getValue()));
+        column.setCellFactory(col -> new TableCell<T, T>() {
+            @Override
+            protected void updateItem(T row, boolean empty) {
+                super.updateItem(row, empty);
+                setText(empty || row == null ? null : PriceFormatter.formatPrice(cents.applyAsLong(row)));
+            }
+        });
+        column.setComparator(Comparator.comparingLong(cents));
+        return column;
+    }
+
+    /**
+     * Displays an informational alert popup with a given message.
+     *
+     * @param msg The message to display.
+     */
+    private void showAlert(String msg) {
+        Alert alert = new Alert(Alert.AlertType.INFORMATION, msg);
+        alert.show();
+    }
+}